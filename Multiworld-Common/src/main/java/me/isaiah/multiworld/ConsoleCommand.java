@@ -5,9 +5,17 @@ import org.slf4j.LoggerFactory;
 
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 
+import me.isaiah.multiworld.command.CloneCommand;
+import me.isaiah.multiworld.command.CreateBatchCommand;
 import me.isaiah.multiworld.command.DeleteCommand;
+import me.isaiah.multiworld.command.LoadCommand;
+import me.isaiah.multiworld.command.PoolCommand;
+import me.isaiah.multiworld.command.ResetCommand;
+import me.isaiah.multiworld.command.StatsCommand;
 import me.isaiah.multiworld.command.TpCommand;
+import me.isaiah.multiworld.command.UnloadCommand;
 import me.isaiah.multiworld.perm.Perm;
+import me.isaiah.multiworld.world.WorldActivator;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.text.Text;
@@ -38,6 +46,39 @@ public class ConsoleCommand {
 			return 1;
 		}
 
+		// Load & Unload Commands
+		if (args[0].equalsIgnoreCase("load")) {
+			return LoadCommand.run(mc, null, args);
+		}
+		if (args[0].equalsIgnoreCase("unload")) {
+			return UnloadCommand.run(mc, null, args);
+		}
+
+		// Pool Command
+		if (args[0].equalsIgnoreCase("pool")) {
+			return PoolCommand.run(mc, null, args);
+		}
+
+		// Create Batch Command
+		if (args[0].equalsIgnoreCase("create-batch")) {
+			return CreateBatchCommand.run(mc, null, args);
+		}
+
+		// Clone Command
+		if (args[0].equalsIgnoreCase("clone")) {
+			return CloneCommand.run(mc, null, args);
+		}
+
+		// Reset Command
+		if (args[0].equalsIgnoreCase("reset")) {
+			return ResetCommand.run(mc, null, args);
+		}
+
+		// Stats Command
+		if (args[0].equalsIgnoreCase("stats")) {
+			return StatsCommand.run(mc, null, args);
+		}
+
 		// TP Command
 		if (args[0].equalsIgnoreCase("tp") ) {
 			if (args.length <= 2) {
@@ -51,6 +92,7 @@ public class ConsoleCommand {
         if (args[0].equalsIgnoreCase("list") ) {
             LOGGER.info("All Worlds:");
             mc.getWorlds().forEach(world -> LOGGER.info("- " + world.getRegistryKey().getValue().toString()));
+            WorldActivator.getDormant().forEach(id -> LOGGER.info("- " + id + " (not loaded)"));
             return 1;
         }
 
@@ -1,5 +1,9 @@
 package me.isaiah.multiworld;
 
+import java.util.Collections;
+import java.util.List;
+
+import me.isaiah.multiworld.world.WorldSpec;
 import net.minecraft.world.gen.chunk.ChunkGenerator;
 import net.minecraft.world.gen.chunk.FlatChunkGenerator;
 import net.minecraft.world.gen.chunk.FlatChunkGeneratorConfig;
@@ -102,5 +106,48 @@ public interface ICreator {
 	public ChunkGenerator get_void_chunk_gen(MinecraftServer mc);
 
 	void delete_world(String id);
+
+	/**
+	 * Unload a world without deleting its files. Players still in it are
+	 * moved out, the world is removed once all its chunks are unloaded.
+	 *
+	 * @return false if this Minecraft version can not unload worlds
+	 */
+	public default boolean unload_world(String id) {
+		return false;
+	}
+
+	/**
+	 * Open a temporary world with a random id, deleted when the server stops.
+	 * See {@link me.isaiah.multiworld.world.WorldPool}
+	 *
+	 * @return null if this Minecraft version can not open temporary worlds
+	 */
+	public default ServerWorld create_temporary_world(Identifier dim, ChunkGenerator gen, Difficulty dif, long seed) {
+		return null;
+	}
+
+	/**
+	 * Delete a world opened by {@link #create_temporary_world}. Players still in it are moved out.
+	 */
+	public default void delete_temporary_world(ServerWorld world) {
+	}
+
+	/**
+	 * Add the dimensions of many worlds at once, before they are created one by one
+	 * with {@link #create_world}, so the dimension registry is unfrozen a single time.
+	 * The specs are prepared and their generators are set.
+	 * Does nothing where Fantasy is not bundled, {@link #create_world} then adds each dimension.
+	 */
+	public default void register_worlds(List<WorldSpec> specs) {
+	}
+
+	/**
+	 * The progress of the worlds being deleted, one line per world, for "/mw stats".
+	 * Empty where Fantasy is not bundled.
+	 */
+	public default List<String> get_deletion_status() {
+		return Collections.emptyList();
+	}
 	
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package me.isaiah.multiworld;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -13,10 +14,20 @@ import com.mojang.brigadier.suggestion.Suggestions;
 import com.mojang.brigadier.suggestion.SuggestionsBuilder;
 
 import me.isaiah.multiworld.command.CreateCommand;
+import me.isaiah.multiworld.command.DistanceCommand;
 import me.isaiah.multiworld.command.GameruleCommand;
+import me.isaiah.multiworld.command.HibernateCommand;
+import me.isaiah.multiworld.command.PoolCommand;
 import me.isaiah.multiworld.command.PortalCommand;
+import me.isaiah.multiworld.command.PriorityCommand;
+import me.isaiah.multiworld.command.QuotaCommand;
+import me.isaiah.multiworld.command.ResetCommand;
+import me.isaiah.multiworld.command.TickrateCommand;
+import me.isaiah.multiworld.command.Util;
 import me.isaiah.multiworld.perm.Perm;
 import me.isaiah.multiworld.portal.Portal;
+import me.isaiah.multiworld.world.WorldActivator;
+import me.isaiah.multiworld.world.WorldPool;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.ServerCommandSource;
 import net.minecraft.server.world.ServerWorld;
@@ -41,8 +52,8 @@ public class InfoSuggest implements SuggestionProvider<ServerCommandSource> {
 	 * Valid Subcommands
 	 */
 	private static String[] subcommands = {
-			"tp", "list", "version", "create", "spawn", "setspawn", "gamerule", "help", "difficulty", "portal"
-			// TODO: Add: delete, load, unload, info, clone, who, import
+			"tp", "list", "version", "create", "create-batch", "spawn", "setspawn", "gamerule", "help", "difficulty", "portal", "hibernate", "tickrate", "load", "unload", "stats", "priority", "quota", "distance", "pool", "clone", "reset"
+			// TODO: Add: delete, info, who, import
 	};
 	
 	/**
@@ -82,6 +93,7 @@ public class InfoSuggest implements SuggestionProvider<ServerCommandSource> {
                         val = val.replace("multiworld:", "");
                     names.add(val);
                  });
+                add_dormant_names(names);
                 for (String s : names) builder.suggest(s);
             }
 
@@ -110,6 +122,95 @@ public class InfoSuggest implements SuggestionProvider<ServerCommandSource> {
                 return builder.buildFuture();
             }
             
+            if (cmds[1].equalsIgnoreCase("unload") && (ALL || Perm.has(plr, "multiworld.unload"))) {
+            	for (ServerWorld world : MultiworldMod.mc.getWorlds()) {
+            		String val = world.getRegistryKey().getValue().toString();
+            		if (val.startsWith("minecraft:")) continue;
+            		builder.suggest(val.replace("multiworld:", ""));
+            	}
+            	return builder.buildFuture();
+            }
+
+            if (cmds[1].equalsIgnoreCase("stats") && (ALL || Perm.has(plr, "multiworld.stats"))) {
+            	builder.suggest("all");
+            	for (ServerWorld world : MultiworldMod.mc.getWorlds()) {
+            		builder.suggest(world.getRegistryKey().getValue().toString().replace("multiworld:", ""));
+            	}
+            	return builder.buildFuture();
+            }
+
+            if (cmds[1].equalsIgnoreCase("load") && (ALL || Perm.has(plr, "multiworld.load"))) {
+            	List<String> names = new ArrayList<>();
+            	add_dormant_names(names);
+            	for (String s : names) builder.suggest(s);
+            	return builder.buildFuture();
+            }
+
+            if (cmds[1].equalsIgnoreCase("create-batch") && (ALL || Perm.has(plr, "multiworld.create"))) {
+            	File[] files = new File(Util.get_platform_config_dir(), "multiworld").listFiles((d, name) -> name.endsWith(".txt"));
+            	if (null != files) {
+            		for (File file : files) builder.suggest(file.getName());
+            	}
+            	return builder.buildFuture();
+            }
+
+            if (cmds[1].equalsIgnoreCase("clone") && (ALL || Perm.has(plr, "multiworld.clone"))) {
+            	List<String> names = new ArrayList<>();
+            	add_saved_names(names);
+            	for (String s : names) builder.suggest(s);
+            	return builder.buildFuture();
+            }
+
+            if (cmds[1].equalsIgnoreCase("reset") && (ALL || Perm.has(plr, "multiworld.reset"))) {
+            	List<String> names = new ArrayList<>();
+            	for (String s : ResetCommand.SUBCOMMANDS) names.add(s);
+            	add_saved_names(names);
+            	for (String s : names) builder.suggest(s);
+            	return builder.buildFuture();
+            }
+
+            if (cmds[1].equalsIgnoreCase("tickrate") && (ALL || Perm.has(plr, "multiworld.tickrate"))) {
+            	for (String s : TickrateCommand.SUBCOMMANDS) {
+                    builder.suggest(s);
+                }
+            	return builder.buildFuture();
+            }
+
+            if (cmds[1].equalsIgnoreCase("quota") && (ALL || Perm.has(plr, "multiworld.quota"))) {
+            	for (String s : QuotaCommand.getSubcommands()) {
+                    builder.suggest(s);
+                }
+            	return builder.buildFuture();
+            }
+
+            if (cmds[1].equalsIgnoreCase("pool") && (ALL || Perm.has(plr, "multiworld.pool"))) {
+            	for (String s : PoolCommand.SUBCOMMANDS) {
+                    builder.suggest(s);
+                }
+            	return builder.buildFuture();
+            }
+
+            if (cmds[1].equalsIgnoreCase("distance") && (ALL || Perm.has(plr, "multiworld.distance"))) {
+            	for (String s : DistanceCommand.SUBCOMMANDS) {
+                    builder.suggest(s);
+                }
+            	return builder.buildFuture();
+            }
+
+            if (cmds[1].equalsIgnoreCase("priority") && (ALL || Perm.has(plr, "multiworld.priority"))) {
+            	for (String s : PriorityCommand.SUBCOMMANDS) {
+                    builder.suggest(s);
+                }
+            	return builder.buildFuture();
+            }
+
+            if (cmds[1].equalsIgnoreCase("hibernate") && (ALL || Perm.has(plr, "multiworld.hibernate"))) {
+            	for (String s : HibernateCommand.SUBCOMMANDS) {
+                    builder.suggest(s);
+                }
+            	return builder.buildFuture();
+            }
+
             if (cmds[1].equalsIgnoreCase("portal")) {
             	for (String s : PortalCommand.SUBCOMMANDS) {
                     builder.suggest(s);
@@ -136,6 +237,16 @@ public class InfoSuggest implements SuggestionProvider<ServerCommandSource> {
                  });
                 for (String s : names) builder.suggest(s);
             }
+
+            if (cmds.length >= 3 && cmds[1].equalsIgnoreCase("reset") && cmds[2].equalsIgnoreCase("snapshot") && (ALL || Perm.has(plr, "multiworld.reset"))) {
+            	List<String> names = new ArrayList<>();
+            	add_saved_names(names);
+            	for (String s : names) builder.suggest(s);
+            }
+
+            if (cmds.length >= 3 && cmds[1].equalsIgnoreCase("pool") && cmds[2].equalsIgnoreCase("lease") && (ALL || Perm.has(plr, "multiworld.pool"))) {
+            	for (String s : WorldPool.getTemplates()) builder.suggest(s);
+            }
         }
 
         // Create Command
@@ -167,9 +278,33 @@ public class InfoSuggest implements SuggestionProvider<ServerCommandSource> {
                  val = val.replace("multiworld:", "");
              names.add(val);
           });
+         add_dormant_names(names);
          return names;
     }
 
+    /**
+     * Add the worlds made by Multiworld, loaded or not
+     */
+    private static void add_saved_names(List<String> names) {
+    	for (ServerWorld world : MultiworldMod.mc.getWorlds()) {
+    		String val = world.getRegistryKey().getValue().toString();
+    		if (val.startsWith("minecraft:")) continue;
+    		names.add(val.replace("multiworld:", ""));
+    	}
+    	add_dormant_names(names);
+    }
+
+    /**
+     * Add the worlds that are saved but not loaded yet
+     */
+    private static void add_dormant_names(List<String> names) {
+    	for (String id : WorldActivator.getDormant()) {
+    		if (id.startsWith("multiworld:"))
+    			id = id.replace("multiworld:", "");
+    		names.add(id);
+    	}
+    }
+
     /**
      * Create Command, "/mw Create"
      * 
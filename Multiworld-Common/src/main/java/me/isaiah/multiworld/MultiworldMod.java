@@ -9,11 +9,9 @@ import static com.mojang.brigadier.arguments.StringArgumentType.greedyString;
 import static net.minecraft.server.command.CommandManager.argument;
 import static net.minecraft.server.command.CommandManager.literal;
 
-import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
-import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,16 +20,39 @@ import com.mojang.brigadier.Command;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 
+import me.isaiah.multiworld.command.CloneCommand;
+import me.isaiah.multiworld.command.CreateBatchCommand;
 import me.isaiah.multiworld.command.CreateCommand;
 import me.isaiah.multiworld.command.DifficultyCommand;
+import me.isaiah.multiworld.command.DistanceCommand;
 import me.isaiah.multiworld.command.GameruleCommand;
+import me.isaiah.multiworld.command.HibernateCommand;
+import me.isaiah.multiworld.command.LoadCommand;
+import me.isaiah.multiworld.command.PoolCommand;
 import me.isaiah.multiworld.command.PortalCommand;
+import me.isaiah.multiworld.command.PriorityCommand;
+import me.isaiah.multiworld.command.QuotaCommand;
+import me.isaiah.multiworld.command.ResetCommand;
 import me.isaiah.multiworld.command.SetspawnCommand;
 import me.isaiah.multiworld.command.SpawnCommand;
+import me.isaiah.multiworld.command.StatsCommand;
+import me.isaiah.multiworld.command.TickrateCommand;
 import me.isaiah.multiworld.command.TpCommand;
+import me.isaiah.multiworld.command.UnloadCommand;
+import me.isaiah.multiworld.config.ConfigWriter;
 import me.isaiah.multiworld.perm.Perm;
 import me.isaiah.multiworld.portal.Portal;
 import me.isaiah.multiworld.portal.WandEventHandler;
+import me.isaiah.multiworld.world.Hibernation;
+import me.isaiah.multiworld.world.PlayerWorlds;
+import me.isaiah.multiworld.world.RestoreScheduler;
+import me.isaiah.multiworld.world.WorldActivator;
+import me.isaiah.multiworld.world.WorldDistances;
+import me.isaiah.multiworld.world.WorldMetaRegistry;
+import me.isaiah.multiworld.world.WorldBatch;
+import me.isaiah.multiworld.world.WorldPool;
+import me.isaiah.multiworld.world.WorldQuotas;
+import me.isaiah.multiworld.world.WorldResets;
 import net.minecraft.entity.player.PlayerEntity;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.ServerCommandSource;
@@ -55,10 +76,6 @@ public class MultiworldMod {
     public static MinecraftServer mc;
     public static String CMD = "mw";
     public static ICreator world_creator;
-    private static final List<String> PENDING_WORLD_RESTORES = new ArrayList<>();
-    private static int RESTORE_DELAY_TICKS = 60; // delay restores ~3s after server start (at 20 TPS)
-    private static int restoreDelayLeft = 0;
-    private static final long RESTORE_TICK_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(10); // 10ms budget per tick
     
     public static String[] COMMAND_HELP = {
     		"&4Multiworld Mod Commands:&r",
@@ -68,7 +85,19 @@ public class MultiworldMod {
     		"&a/mw list&r - List all worlds",
     		"&a/mw gamerule <rule> <value>&r - Change a worlds Gamerules",
     		"&a/mw create <id> <env> [-g=<generator> -s=<seed>]&r - create a new world",
-    		"&a/mw difficulty <value> [world id] - Sets the difficulty of a world"
+    		"&a/mw create-batch <file>&r - Create every world listed in a file in config/multiworld",
+    		"&a/mw difficulty <value> [world id] - Sets the difficulty of a world",
+    		"&a/mw hibernate [on|off|default|now] [seconds] [world id]&r - Hibernate a world when empty",
+    		"&a/mw tickrate [<interval>|freeze|unfreeze|normal] [world id]&r - Slow down or freeze a world",
+    		"&a/mw unload <id>&r - Unload a world, keeping its files",
+    		"&a/mw load <id>&r - Load a saved world that is not loaded",
+    		"&a/mw stats [world id|all]&r - Show the tick time of worlds",
+    		"&a/mw priority [lobby|survival|build|background|default|release] [world id]&r - Set how a world is deferred under load",
+    		"&a/mw quota [chunks|block_entities|<spawn group>] [max|off] [world id]&r - Limit the chunks, entities and block entities of a world",
+    		"&a/mw distance [view|simulation] [chunks|default] [world id]&r - Set the view and simulation distance of a world",
+    		"&a/mw pool [lease <template>|return]&r - Use a pre-created world from a pool",
+    		"&a/mw clone <source> <id>&r - Copy a world to a new world",
+    		"&a/mw reset [snapshot] <id>&r - Reset a world to its snapshot, or take the snapshot"
     };
 
 	// Mod Version
@@ -111,71 +140,88 @@ public class MultiworldMod {
     // On server start
     public static void on_server_started(MinecraftServer mc) {
         MultiworldMod.mc = mc;
+        Settings.load();
         
         // LOGGER.info("Registering events...");
         // WandEventHandler.register();
 		
-		File cfg_folder = new File("config");
-		if (cfg_folder.exists()) {
-			File folder = new File(cfg_folder, "multiworld");
-			File worlds = new File(folder, "worlds");
-			List<String> found = new ArrayList<>();
-			if (worlds.exists()) {
-				for (File f : worlds.listFiles()) {
-					if (f.getName().equals("minecraft")) {
-						continue;
-					}
-					for (File fi : f.listFiles()) {
-						if (!fi.getName().endsWith(".yml")) continue;
-						String id = f.getName() + ":" + fi.getName().replace(".yml", "");
-						LOGGER.info("Found saved world " + id);
-						found.add(id);
-					}
-				}
+		List<String> found = new ArrayList<>();
+		for (Identifier id : WorldMetaRegistry.loadAll()) {
+			if (id.getNamespace().equals("minecraft")) {
+				// Only holds settings (spawn, gamerules) for the vanilla worlds
+				continue;
 			}
-			// Enqueue restores to spread work across ticks
+			LOGGER.info("Found saved world " + id);
+			found.add(id.toString());
+		}
+
+		// Loaded first, portals near spawn decide the restore order
+		int loaded = Portal.reinit_portals_from_config(mc);
+		if (loaded > 0) {
+			LOGGER.info("Found " + loaded + " saved world portals.");
+		}
+
+		if (Settings.lazyWorlds) {
+			// Created on first use, see WorldActivator
+			WorldActivator.addDormant(found);
+		} else {
+			// Restores are spread over the next ticks, see RestoreScheduler
 			enqueue_world_restores(found);
-			// initialize delay before starting restores to avoid competing with startup work
-			restoreDelayLeft = RESTORE_DELAY_TICKS;
-			
-			int loaded = Portal.reinit_portals_from_config(mc);
-			if (loaded > 0) {
-				LOGGER.info("Found " + loaded + " saved world portals.");
-			}
 		}
+
+		WorldPool.load(mc);
     }
 
-	public static void enqueue_world_restores(Collection<String> ids) {
-		if (ids == null) return;
-		PENDING_WORLD_RESTORES.addAll(ids);
+	// On server stop
+	public static void on_server_stopping(MinecraftServer mc) {
+		for (ServerPlayerEntity plr : mc.getPlayerManager().getPlayerList()) {
+			PlayerWorlds.record(plr);
+		}
+		WorldPool.clear();
+
+		// Make sure queued config writes reach the disk before the JVM exits
+		int pending = ConfigWriter.getPendingCount();
+		if (pending > 0) {
+			LOGGER.info("Saving " + pending + " multiworld config file(s)...");
+		}
+		ConfigWriter.flush();
 	}
 
-	// Called per tick by platform layer to avoid heavy work in a single tick
-	public static void processPendingRestores(int maxPerTick) {
-		if (PENDING_WORLD_RESTORES.isEmpty()) return;
-		if (restoreDelayLeft > 0) {
-			restoreDelayLeft--;
-			return;
+	// Called by the platform layer when a player has joined
+	public static void on_player_join(PlayerEntity player) {
+		if (player instanceof ServerPlayerEntity) {
+			WorldActivator.onPlayerJoin(mc, (ServerPlayerEntity) player);
 		}
-		int n = Math.max(1, maxPerTick);
-		long start = System.nanoTime();
-		int restored = 0;
-		while (!PENDING_WORLD_RESTORES.isEmpty() && restored < n) {
-			// stop if we exceed our per-tick time budget
-			if (System.nanoTime() - start > RESTORE_TICK_BUDGET_NANOS) break;
-			String id = PENDING_WORLD_RESTORES.remove(0);
-			try {
-				long s = System.nanoTime();
-				CreateCommand.reinit_world_from_config(mc, id);
-				long durMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - s);
-				LOGGER.info("Restored world {} in {} ms", id, durMs);
-			} catch (Exception e) {
-				LOGGER.error("Failed to restore world {}", id, e);
-			}
-			restored++;
+	}
+
+	// Called by the platform layer when a player leaves
+	public static void on_player_leave(PlayerEntity player) {
+		if (player instanceof ServerPlayerEntity) {
+			PlayerWorlds.record((ServerPlayerEntity) player);
+			WorldDistances.forgetPlayer(player.getUuid());
 		}
 	}
 
+	public static void enqueue_world_restores(Collection<String> ids) {
+		RestoreScheduler.enqueue(ids);
+	}
+
+	// Called by the platform layer at the start of every server tick
+	public static void on_server_tick_start(MinecraftServer mc) {
+		RestoreScheduler.onTickStart(mc);
+		WorldPool.onTickStart(mc);
+		WorldBatch.onTickStart(mc);
+	}
+
+	// Called by the platform layer at the end of every server tick
+	public static void on_server_tick_end(MinecraftServer mc) {
+		RestoreScheduler.onTickEnd();
+		Hibernation.onTickEnd(mc);
+		WorldQuotas.onTickEnd(mc);
+		WorldActivator.onTickEnd(mc);
+		WorldResets.onTickEnd(mc);
+	}
+
     public static ServerPlayerEntity get_player(ServerCommandSource s) throws CommandSyntaxException {
     	ServerPlayerEntity plr = s.getPlayer();
     	if (null == plr) {
@@ -317,6 +363,64 @@ public class MultiworldMod {
         	return DifficultyCommand.run(mc, plr, args);
         }
 
+        // Hibernate Command
+        if (args[0].equalsIgnoreCase("hibernate") && (ALL || Perm.has(plr, "multiworld.hibernate"))) {
+        	return HibernateCommand.run(mc, plr, args);
+        }
+
+        // Tickrate Command
+        if (args[0].equalsIgnoreCase("tickrate") && (ALL || Perm.has(plr, "multiworld.tickrate"))) {
+        	return TickrateCommand.run(mc, plr, args);
+        }
+
+        // Priority Command
+        if (args[0].equalsIgnoreCase("priority") && (ALL || Perm.has(plr, "multiworld.priority"))) {
+        	return PriorityCommand.run(mc, plr, args);
+        }
+
+        // Quota Command
+        if (args[0].equalsIgnoreCase("quota") && (ALL || Perm.has(plr, "multiworld.quota"))) {
+        	return QuotaCommand.run(mc, plr, args);
+        }
+
+        // Distance Command
+        if (args[0].equalsIgnoreCase("distance") && (ALL || Perm.has(plr, "multiworld.distance"))) {
+        	return DistanceCommand.run(mc, plr, args);
+        }
+
+        // Pool Command
+        if (args[0].equalsIgnoreCase("pool") && (ALL || Perm.has(plr, "multiworld.pool"))) {
+        	return PoolCommand.run(mc, plr, args);
+        }
+
+        // Create Batch Command
+        if (args[0].equalsIgnoreCase("create-batch") && (ALL || Perm.has(plr, "multiworld.create"))) {
+        	return CreateBatchCommand.run(mc, plr, args);
+        }
+
+        // Clone Command
+        if (args[0].equalsIgnoreCase("clone") && (ALL || Perm.has(plr, "multiworld.clone"))) {
+        	return CloneCommand.run(mc, plr, args);
+        }
+
+        // Reset Command
+        if (args[0].equalsIgnoreCase("reset") && (ALL || Perm.has(plr, "multiworld.reset"))) {
+        	return ResetCommand.run(mc, plr, args);
+        }
+
+        // Load & Unload Commands
+        if (args[0].equalsIgnoreCase("load") && (ALL || Perm.has(plr, "multiworld.load"))) {
+        	return LoadCommand.run(mc, plr, args);
+        }
+        if (args[0].equalsIgnoreCase("unload") && (ALL || Perm.has(plr, "multiworld.unload"))) {
+        	return UnloadCommand.run(mc, plr, args);
+        }
+
+        // Stats Command
+        if (args[0].equalsIgnoreCase("stats") && (ALL || Perm.has(plr, "multiworld.stats"))) {
+        	return StatsCommand.run(mc, plr, args);
+        }
+
         // TP Command
         if (args[0].equalsIgnoreCase("tp") ) {
             if (!(ALL || Perm.has(plr, "multiworld.tp"))) {
@@ -353,6 +457,10 @@ public class MultiworldMod {
                 	message(plr, "- " + name);
                 }
             });
+            for (String name : WorldActivator.getDormant()) {
+                if (name.startsWith("multiworld:")) name = name.replace("multiworld:", "");
+                message(plr, "- " + name + " &7(not loaded)");
+            }
         }
 
         // Version Command
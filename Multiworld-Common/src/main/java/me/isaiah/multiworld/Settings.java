@@ -0,0 +1,134 @@
+package me.isaiah.multiworld;
+
+import java.io.File;
+import java.io.IOException;
+
+import me.isaiah.multiworld.command.Util;
+import me.isaiah.multiworld.config.FileConfiguration;
+
+/**
+ * Mod wide options, from "config/multiworld/config.yml".
+ *
+ * <p>Options missing from the file are added with their default value,
+ * so the file always lists everything that can be changed.
+ */
+public final class Settings {
+
+	/**
+	 * Saved worlds are only created when first used, see {@link me.isaiah.multiworld.world.WorldActivator}
+	 */
+	public static boolean lazyWorlds = false;
+
+	/**
+	 * Worlds without players hibernate, unless their own config says otherwise.
+	 * See {@link me.isaiah.multiworld.world.Hibernation}
+	 */
+	public static boolean hibernateIdleWorlds = false;
+
+	/**
+	 * Seconds a world must be empty before it hibernates
+	 */
+	public static int hibernateAfterSeconds = 300;
+
+	/**
+	 * Tick Multiworld worlds at the same time on several threads.
+	 * See {@link me.isaiah.multiworld.world.ParallelTicks}
+	 */
+	public static boolean parallelWorldTicking = false;
+
+	/**
+	 * Threads for parallel world ticking, 0 for one less than the number of cores
+	 */
+	public static int parallelTickThreads = 0;
+
+	/**
+	 * Defer low priority worlds when the server is over its tick budget.
+	 * See {@link me.isaiah.multiworld.world.TickScheduler}
+	 */
+	public static boolean tickScheduler = false;
+
+	/**
+	 * Milliseconds a server tick may take before worlds are deferred
+	 */
+	public static int tickBudgetMs = 50;
+
+	/**
+	 * Priority of worlds that do not set one, see {@link me.isaiah.multiworld.world.TickPriority}
+	 */
+	public static String defaultPriority = "survival";
+
+	/**
+	 * Worlds that take this many milliseconds per tick are quarantined, 0 to never quarantine
+	 */
+	public static int quarantineMspt = 25;
+
+	private static FileConfiguration config;
+	private static boolean added;
+
+	private Settings() {
+	}
+
+	/**
+	 * "config/multiworld/config.yml"
+	 */
+	public static File getFile() {
+		return new File(new File(Util.get_platform_config_dir(), "multiworld"), "config.yml");
+	}
+
+	/**
+	 * (Re)load the options. Called on server start.
+	 */
+	public static void load() {
+		File file = getFile();
+		try {
+			file.getParentFile().mkdirs();
+			config = new FileConfiguration(file);
+		} catch (IOException e) {
+			MultiworldMod.LOGGER.error("Could not read " + file + ", using defaults", e);
+			return;
+		}
+		added = false;
+
+		lazyWorlds = bool("lazy_worlds", lazyWorlds);
+		hibernateIdleWorlds = bool("hibernate_idle_worlds", hibernateIdleWorlds);
+		hibernateAfterSeconds = integer("hibernate_after_seconds", hibernateAfterSeconds);
+		parallelWorldTicking = bool("parallel_world_ticking", parallelWorldTicking);
+		parallelTickThreads = integer("parallel_tick_threads", parallelTickThreads);
+		tickScheduler = bool("tick_scheduler", tickScheduler);
+		tickBudgetMs = integer("tick_budget_ms", tickBudgetMs);
+		defaultPriority = string("default_priority", defaultPriority);
+		quarantineMspt = integer("quarantine_mspt", quarantineMspt);
+
+		if (added) {
+			config.saveAsync();
+		}
+	}
+
+	private static boolean bool(String key, boolean def) {
+		if (!config.is_set(key)) {
+			config.set(key, def);
+			added = true;
+			return def;
+		}
+		return config.getBoolean(key);
+	}
+
+	private static String string(String key, String def) {
+		if (!config.is_set(key)) {
+			config.set(key, def);
+			added = true;
+			return def;
+		}
+		return config.getString(key);
+	}
+
+	private static int integer(String key, int def) {
+		if (!config.is_set(key)) {
+			config.set(key, def);
+			added = true;
+			return def;
+		}
+		return config.getInt(key);
+	}
+
+}
@@ -0,0 +1,54 @@
+package me.isaiah.multiworld.command;
+
+import static me.isaiah.multiworld.command.Util.reply;
+
+import java.util.concurrent.CompletionException;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.world.WorldCloner;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+/**
+ * The "/mw clone" Command
+ *
+ * <p>Copies a world, with its config, to a new world.
+ *
+ * @see WorldCloner
+ */
+public class CloneCommand implements Command {
+
+	/**
+	 * @param plr - null when run from the console
+	 */
+	public static int run(MinecraftServer mc, ServerPlayerEntity plr, String[] args) {
+		if (args.length < 3) {
+			reply(plr, "[&4Multiworld&r] Usage: /mw clone <source world id> <new world id>");
+			return 1;
+		}
+
+		String source = args[1];
+		if (source.indexOf(':') == -1) source = "multiworld:" + source;
+		String target = args[2];
+		if (target.indexOf(':') == -1) target = "multiworld:" + target;
+
+		final String from = source;
+		final String to = target;
+		reply(plr, "[&cMultiworld&r]: Cloning world '" + from + "' to '" + to + "'...");
+		WorldCloner.clone(mc, from, to).whenComplete((world, e) -> {
+			if (null == e) {
+				reply(plr, "[&cMultiworld&r]: Cloned world '" + from + "' to '" + to + "'");
+				return;
+			}
+			Throwable cause = e instanceof CompletionException && null != e.getCause() ? e.getCause() : e;
+			if (cause instanceof IllegalStateException) {
+				reply(plr, "[&4Multiworld&r] " + cause.getMessage());
+				return;
+			}
+			MultiworldMod.LOGGER.error("Failed to clone world " + from + " to " + to, cause);
+			reply(plr, "[&4Multiworld&r] Failed to clone world '" + from + "', check the console for details");
+		});
+		return 1;
+	}
+
+}
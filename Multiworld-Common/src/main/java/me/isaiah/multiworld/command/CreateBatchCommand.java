@@ -0,0 +1,136 @@
+package me.isaiah.multiworld.command;
+
+import static me.isaiah.multiworld.command.Util.reply;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.world.WorldActivator;
+import me.isaiah.multiworld.world.WorldBatch;
+import me.isaiah.multiworld.world.WorldMetaRegistry;
+import me.isaiah.multiworld.world.WorldSpec;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.util.Identifier;
+
+/**
+ * The "/mw create-batch" Command
+ *
+ * <p>Creates every world listed in a file in "config/multiworld/",
+ * one world per line in the arguments of "/mw create":
+ * <pre>
+ * # Lines starting with # are ignored
+ * plot1 NORMAL -g=FLAT -s=1234
+ * plot2 NORMAL -g=FLAT
+ * </pre>
+ *
+ * @see WorldBatch
+ */
+public class CreateBatchCommand implements Command {
+
+	/**
+	 * @param plr - null when run from the console
+	 */
+	public static int run(MinecraftServer mc, ServerPlayerEntity plr, String[] args) {
+		if (args.length < 2) {
+			int pending = WorldBatch.getPendingCount();
+			if (pending > 0) {
+				reply(plr, "[&cMultiworld&r]: " + pending + " world(s) waiting to be created");
+			}
+			reply(plr, "[&4Multiworld&r] Usage: /mw create-batch <file in config/multiworld>");
+			return 1;
+		}
+
+		File dir = new File(Util.get_platform_config_dir(), "multiworld");
+		File file = new File(dir, args[1]);
+		try {
+			if (!file.getCanonicalPath().startsWith(dir.getCanonicalPath() + File.separator)) {
+				reply(plr, "[&4Multiworld&r] The file must be in config/multiworld");
+				return 1;
+			}
+		} catch (IOException e) {
+			reply(plr, "[&4Multiworld&r] Invalid file name: " + args[1]);
+			return 1;
+		}
+		if (!file.isFile()) {
+			reply(plr, "[&4Multiworld&r] File not found: config/multiworld/" + args[1]);
+			return 1;
+		}
+
+		List<String> lines;
+		try {
+			lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			MultiworldMod.LOGGER.error("Failed to read " + file.getPath(), e);
+			reply(plr, "[&4Multiworld&r] Could not read config/multiworld/" + args[1]);
+			return 1;
+		}
+
+		List<WorldSpec> specs = new ArrayList<>();
+		Set<String> ids = new HashSet<>();
+		Random r = new Random();
+		int skipped = 0;
+		for (int n = 0; n < lines.size(); n++) {
+			String line = lines.get(n).trim();
+			if (line.isEmpty() || line.startsWith("#")) continue;
+
+			String[] parts = line.split("\\s+");
+			String id = parts[0];
+			if (id.indexOf(':') == -1) id = "multiworld:" + id;
+			Identifier key = MultiworldMod.new_id(id);
+			if (parts.length < 2 || null == key) {
+				reply(plr, "[&4Multiworld&r] Line " + (n + 1) + ": expected <id> <env> [-g=<generator> -s=<seed>]");
+				skipped++;
+				continue;
+			}
+			if (key.getNamespace().equals("minecraft") || !ids.add(id) || null != WorldMetaRegistry.get(key)
+					|| null != WorldActivator.getLoaded(mc, id)) {
+				reply(plr, "[&4Multiworld&r] Line " + (n + 1) + ": world '" + id + "' already exists");
+				skipped++;
+				continue;
+			}
+
+			long seed = r.nextInt();
+			String customGen = "";
+			for (int i = 2; i < parts.length; i++) {
+				if (parts[i].startsWith("-g=")) {
+					customGen = parts[i].substring("-g=".length());
+				}
+				Optional<Long> s = CreateCommand.checkArgForSeed(mc, parts[i]);
+				if (s.isPresent()) {
+					seed = s.get();
+				}
+			}
+			specs.add(new WorldSpec(id, parts[1], seed, customGen));
+		}
+
+		if (specs.isEmpty()) {
+			reply(plr, "[&4Multiworld&r] No worlds to create in config/multiworld/" + args[1]);
+			return 1;
+		}
+
+		reply(plr, "[&cMultiworld&r]: Creating " + specs.size() + " world(s)"
+				+ (skipped > 0 ? ", skipped " + skipped + " line(s)" : "") + "...");
+		final int total = specs.size();
+		WorldBatch.createWorlds(mc, specs).whenComplete((worlds, e) -> {
+			if (null != e) {
+				MultiworldMod.LOGGER.error("Failed to create worlds from " + file.getPath(), e);
+				reply(plr, "[&4Multiworld&r] Failed to create the worlds, check the console for details");
+				return;
+			}
+			reply(plr, "[&cMultiworld&r]: Created " + worlds.size() + "/" + total + " world(s)"
+					+ (worlds.size() < total ? ", check the console for the others" : ""));
+		});
+		return 1;
+	}
+
+}
@@ -2,23 +2,25 @@ package me.isaiah.multiworld.command;
 
 import static me.isaiah.multiworld.MultiworldMod.message;
 
-import java.io.File;
 import java.util.HashMap;
 import java.util.Locale;
 import java.util.Optional;
 import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import me.isaiah.multiworld.I18n;
 import me.isaiah.multiworld.MultiworldMod;
-import me.isaiah.multiworld.config.FileConfiguration;
+import me.isaiah.multiworld.portal.Portal;
+import me.isaiah.multiworld.world.WorldMeta;
+import me.isaiah.multiworld.world.WorldMetaRegistry;
+import me.isaiah.multiworld.world.WorldSpec;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.Identifier;
-import net.minecraft.world.Difficulty;
 import net.minecraft.world.gen.chunk.ChunkGenerator;
 
 /**
@@ -35,46 +37,11 @@ public class CreateCommand implements Command {
 		customs.put(id.toString().toLowerCase(Locale.ROOT), gen);
 	}
 	
-	/*
-	 * Implementation of a Tuple
-	 */
-	static class Tuple<K, V> {
-		private K first;
-		private V second;
-
-		public Tuple(K first, V second){        
-			this.first = first;        
-			this.second = second;    
-		}
-	}
-
-	/**
-	 * Parse ChunkGenerator from Arguments
-	 * Ex. ("-g=FLAT") = Tuple: FlatChunkGenerator, "FLAT"
-	 * 
-	 * @param mc - MinecraftServer
-	 * @param arg - The argument from the command
-	 * @return Tuple of ChunkGenerator & Generator Name
-	 */
-	private static Tuple<ChunkGenerator, String> checkArgForGen(MinecraftServer mc, String arg) {
-    	if (arg.startsWith("-g ") || arg.startsWith("-g=")) {
-    		String ab = arg.substring("-g=".length());
-
-    		ChunkGenerator gen1 = get_chunk_gen(mc, ab);
-    		if (null != gen1) {
-    			return new Tuple<>(gen1, ab);
-    		} else {
-    			return new Tuple<>(null, ab);
-    		}
-    	}
-    	return null;
-	}
-
 	/**
 	 * Parse World Seed from Arguments.
 	 * Ex. ("-s=1345")
 	 */
-	private static Optional<Long> checkArgForSeed(MinecraftServer mc, String arg) {
+	static Optional<Long> checkArgForSeed(MinecraftServer mc, String arg) {
 		if (arg.startsWith("-s ") || arg.startsWith("-s=")) {
 			String ab = arg.substring("-s=".length());
 			if (ab.startsWith("RANDOM")) {
@@ -105,13 +72,6 @@ public class CreateCommand implements Command {
         long seed = r.nextInt();
 
         String env = args[2];
-        ChunkGenerator gen = get_chunk_gen(mc, env);
-        Identifier dim = get_dim_id(env);
-
-        if (null == dim) {
-        	System.out.println("Null dimenstion ");
-        	dim = Util.OVERWORLD_ID;
-        }
 
         String arg1 = args[1];
         if (arg1.indexOf(':') == -1) {
@@ -125,15 +85,8 @@ public class CreateCommand implements Command {
         		String arg = args[i];
 	        	
 	        	// Check if arg is "-g=GENERATOR"
-	        	Tuple<ChunkGenerator, String> resultA = checkArgForGen(mc, arg);
-	        	if (null != resultA) {
-	        		if (null != resultA.first) {
-	        			gen = resultA.first;
-	        			customGen = resultA.second;
-	        			message(plr, "Using ChunkGenerator: \"" + customGen + "\".");
-	        		} else {
-	        			message(plr, "&4Invalid ChunkGenerator: \"" + resultA.second + "\"");
-	        		}
+	        	if (arg.startsWith("-g ") || arg.startsWith("-g=")) {
+	        		customGen = arg.substring("-g=".length());
 	        	}
 
 	        	// Check if arg is "-s=SEED"
@@ -145,11 +98,30 @@ public class CreateCommand implements Command {
         	}
         	
         }
-        
-        ServerWorld world = MultiworldMod.create_world(arg1, dim, gen, Difficulty.NORMAL, seed);
-		make_config(world, args[2], seed, customGen);
 
-		message(plr, I18n.CREATED_WORLD + args[1]);
+        // Generators are built on a worker thread, the world is then created on the server thread
+        final long worldSeed = seed;
+        final String cgen = customGen;
+        WorldSpec spec = new WorldSpec(arg1, env, seed, customGen);
+        WorldSpec.setupServer(mc);
+        CompletableFuture.supplyAsync(() -> spec.prepare(mc), WorldSpec.getPreparePool())
+        	.thenAcceptAsync(prepared -> {
+        		if (null != prepared.customGenerator) {
+        			if (prepared.isCustomGeneratorValid()) {
+        				message(plr, "Using ChunkGenerator: \"" + cgen + "\".");
+        			} else {
+        				message(plr, "&4Invalid ChunkGenerator: \"" + cgen + "\"");
+        			}
+        		}
+        		ServerWorld world = prepared.commit(mc);
+        		make_config(world, env, worldSeed, prepared.isCustomGeneratorValid() ? cgen : "");
+        		message(plr, I18n.CREATED_WORLD + args[1]);
+        	}, mc)
+        	.exceptionally(e -> {
+        		LOGGER.error("Failed to create world " + spec.id, e);
+        		message(plr, "&4Failed to create world " + args[1]);
+        		return null;
+        	});
         
         return 1;
     }
@@ -209,108 +181,41 @@ public class CreateCommand implements Command {
 	
     /**
      * Load an existing saved World from config (YAML) 
+     * 
+     * @return false if the world could not be created
+     * @see WorldSpec
      */
-	public static void reinit_world_from_config(MinecraftServer mc, String id) {
-        File config_dir = new File("config");
-        config_dir.mkdirs();
-        
-        String[] spl = id.split(":");
-        
-        File cf = new File(config_dir, "multiworld"); 
-        cf.mkdirs();
-
-        File worlds = new File(cf, "worlds");
-        worlds.mkdirs();
-
-        File namespace = new File(worlds, spl[0]);
-        namespace.mkdirs();
-
-        File wc = new File(namespace, spl[1] + ".yml");
-        FileConfiguration config;
+	public static boolean reinit_world_from_config(MinecraftServer mc, String id) {
         try {
-            if (!wc.exists()) {
-                LOGGER.warn("World config not found for '{}', skipping restore: {}", id, wc.getAbsolutePath());
-                return;
-            }
-            config = new FileConfiguration(wc);
-
-            // Environment
-            String env = config.getString("environment");
-            if (env == null || env.isEmpty()) {
-                LOGGER.warn("Missing 'environment' in config for '{}', defaulting to NORMAL", id);
-                env = "NORMAL";
-            }
-
-            // Seed (may be long/int/string)
-            long seed = 0L;
-            if (config.is_set("seed")) {
-                try {
-                    seed = config.getLong("seed");
-                } catch (Exception e) {
-                    seed = config.getInt("seed");
-                }
+            WorldSpec spec = spec_from_config(id);
+            if (null == spec) {
+                return false;
             }
-
-            // Resolve generator and dimension
-            ChunkGenerator gen = get_chunk_gen(mc, env);
-            Identifier dim = get_dim_id(env);
-            if (dim == null) {
-                dim = Util.OVERWORLD_ID;
-            }
-
-            // Difficulty (default NORMAL)
-            Difficulty d = Difficulty.NORMAL;
-            if (config.is_set("difficulty")) {
-                String di = config.getString("difficulty");
-                if (di != null) {
-                    if (di.equalsIgnoreCase("EASY"))     d = Difficulty.EASY;
-                    else if (di.equalsIgnoreCase("HARD"))     d = Difficulty.HARD;
-                    else if (di.equalsIgnoreCase("NORMAL"))   d = Difficulty.NORMAL;
-                    else if (di.equalsIgnoreCase("PEACEFUL")) d = Difficulty.PEACEFUL;
-                }
-            }
-
-            // Optional custom generator override
-            if (config.is_set("custom_generator")) {
-                String cg = config.getString("custom_generator");
-                if (cg != null && !cg.isEmpty()) {
-                    ChunkGenerator gen1 = get_chunk_gen(mc, cg);
-                    if (gen1 != null) {
-                        gen = gen1;
-                    } else {
-                        LOGGER.warn("Invalid custom_generator '{}' for '{}', using default generator", cg, id);
-                    }
-                }
-            }
-
-            // Create world and apply difficulty
-            ServerWorld world = MultiworldMod.create_world(id, dim, gen, d, seed);
-            MultiworldMod.get_world_creator().set_difficulty(id, d);
-
-            // Ensure gamerule keys are populated
-            if (GameruleCommand.keys.size() == 0) {
-                GameruleCommand.setupServer(MultiworldMod.mc);
-            }
-
-            // Apply gamerules from config
-            for (String name : GameruleCommand.keys.keySet()) {
-                String key = "gamerule_" + name;
-                if (config.is_set(key)) {
-                    Object o = config.getObject(key);
-                    if (o instanceof Boolean) {
-                        o = ((Boolean) o) ? "true" : "false";
-                    } else if (o instanceof Number) {
-                        o = o.toString();
-                    } else if (!(o instanceof String)) {
-                        o = String.valueOf(o);
-                    }
-                    GameruleCommand.set_gamerule_from_cfg(world, key, (String) o);
-                }
+            ServerWorld world = spec.commit(mc);
+            if (null == world) {
+                return false;
             }
+            Portal.refresh_portal_frames(world);
+            return true;
         } catch (Exception e) {
-            e.printStackTrace();
+            LOGGER.error("Failed to restore world " + id, e);
+            return false;
         }
     }
+
+	/**
+	 * Read the {@link WorldSpec} of a saved world, not prepared yet.
+	 * 
+	 * @return the spec, or null if the world has no config
+	 */
+	public static WorldSpec spec_from_config(String id) {
+        WorldMeta meta = WorldMetaRegistry.get(MultiworldMod.new_id(id));
+        if (null == meta) {
+            LOGGER.warn("World config not found for '{}', skipping restore", id);
+            return null;
+        }
+        return WorldSpec.of(meta);
+	}
 	
 	/**
 	 * Saves the World Info to a YAML Config File, to be loaded by
@@ -318,34 +223,10 @@ public class CreateCommand implements Command {
 	 * on next server start.
 	 */
 	public static void make_config(ServerWorld w, String dim, long seed, String cgen) {
-        File config_dir = new File("config");
-        config_dir.mkdirs();
-        
-        File cf = new File(config_dir, "multiworld"); 
-        cf.mkdirs();
-
-        File worlds = new File(cf, "worlds");
-        worlds.mkdirs();
-
-        Identifier id = w.getRegistryKey().getValue();
-        File namespace = new File(worlds, id.getNamespace());
-        namespace.mkdirs();
-
-        File wc = new File(namespace, id.getPath() + ".yml");
-        FileConfiguration config;
         try {
-			if (!wc.exists()) {
-				wc.createNewFile();
-			}
-            config = new FileConfiguration(wc);
-			config.set("namespace", id.getNamespace());
-			config.set("path", id.getPath());
-			config.set("environment", dim);
-			config.set("seed", seed);
-			if (null != cgen && cgen.length() > 0) {
-				config.set("custom_generator", cgen);
-			}
-			config.save();
+            WorldMeta meta = WorldMetaRegistry.getOrCreate(w);
+            meta.setCreated(dim, seed, cgen);
+            meta.save();
         } catch (Exception e) {
             e.printStackTrace();
         }
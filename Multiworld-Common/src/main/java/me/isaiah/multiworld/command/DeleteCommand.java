@@ -1,15 +1,23 @@
 package me.isaiah.multiworld.command;
 
-import java.io.File;
-import java.io.IOException;
 import java.util.HashMap;
 
 import org.slf4j.Logger;
 
 import me.isaiah.multiworld.ConsoleCommand;
 import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.world.Hibernation;
+import me.isaiah.multiworld.world.TickScheduler;
+import me.isaiah.multiworld.world.WorldActivator;
+import me.isaiah.multiworld.world.WorldDistances;
+import me.isaiah.multiworld.world.WorldMetaRegistry;
+import me.isaiah.multiworld.world.WorldQuotas;
+import me.isaiah.multiworld.world.WorldResets;
+import me.isaiah.multiworld.world.WorldStats;
+import me.isaiah.multiworld.world.WorldTicks;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.world.ServerWorld;
 
 public class DeleteCommand implements Command {
 
@@ -47,15 +55,23 @@ public class DeleteCommand implements Command {
         }
 
         LOGGER.info("Deleting multiworld config for \"" + id + "\"...");
-        try {
-			File config = Util.get_config_file(MultiworldMod.new_id(id));
-			config.delete();
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+        WorldMetaRegistry.remove(MultiworldMod.new_id(id));
+        WorldActivator.remove(MultiworldMod.new_id(id).toString());
         
+        // Fantasy waits for the chunks to unload, which needs the world to tick
+        ServerWorld loaded = WorldActivator.getLoaded(mc, MultiworldMod.new_id(id).toString());
+        if (null != loaded) {
+        	Hibernation.forget(loaded);
+        	WorldTicks.forget(loaded);
+        	WorldStats.forget(loaded);
+        	TickScheduler.forget(loaded);
+        	WorldQuotas.forget(loaded);
+        	WorldDistances.forget(loaded);
+        }
+
         LOGGER.info("Deleting world folder \"" + id + "\"...");
         MultiworldMod.get_world_creator().delete_world(id);
+        WorldResets.deleteSnapshot(mc, MultiworldMod.new_id(id).toString());
 
         return 1;
     }
@@ -4,7 +4,8 @@ import java.io.IOException;
 import java.util.HashMap;
 
 import me.isaiah.multiworld.MultiworldMod;
-import me.isaiah.multiworld.config.FileConfiguration;
+import me.isaiah.multiworld.world.WorldMeta;
+import me.isaiah.multiworld.world.WorldMetaRegistry;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
@@ -54,9 +55,9 @@ public class DifficultyCommand implements Command {
         MultiworldMod.get_world_creator().set_difficulty(w.getRegistryKey().getValue().toString(), d);
 
         try {
-			FileConfiguration config = Util.get_config(w);
-			config.set("difficulty", a1);
-			config.save();
+			WorldMeta meta = WorldMetaRegistry.getOrCreate(w);
+			meta.setDifficulty(a1);
+			meta.save();
 		} catch (IOException e) {
 			// TODO Auto-generated catch block
 			e.printStackTrace();
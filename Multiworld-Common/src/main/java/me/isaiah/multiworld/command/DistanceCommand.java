@@ -0,0 +1,92 @@
+package me.isaiah.multiworld.command;
+
+import java.io.IOException;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.world.WorldActivator;
+import me.isaiah.multiworld.world.WorldDistances;
+import me.isaiah.multiworld.world.WorldMeta;
+import me.isaiah.multiworld.world.WorldMetaRegistry;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * The "/mw distance" Command
+ *
+ * <pre>
+ * /mw distance [world id]                                 - show the distances
+ * /mw distance view &lt;chunks|default&gt; [world id]          - view distance
+ * /mw distance simulation &lt;chunks|default&gt; [world id]    - simulation distance
+ * </pre>
+ *
+ * @see WorldDistances
+ */
+public class DistanceCommand implements Command {
+
+	public static String[] SUBCOMMANDS = {
+			"view", "simulation"
+	};
+
+	public static int run(MinecraftServer mc, ServerPlayerEntity plr, String[] args) {
+		ServerWorld w = (ServerWorld) plr.getWorld();
+		String kind = args.length >= 2 ? args[1].toLowerCase(Util.AMERICAN_STANDARD) : "";
+		boolean isAction = args.length >= 3 && (kind.equals("view") || kind.equals("simulation"));
+
+		String worldArg = isAction ? (args.length >= 4 ? args[3] : null) : (args.length >= 2 ? args[1] : null);
+		if (null != worldArg) {
+			if (worldArg.indexOf(':') == -1) worldArg = "multiworld:" + worldArg;
+			w = WorldActivator.getLoaded(mc, worldArg);
+			if (null == w) {
+				MultiworldMod.message(plr, "[&4Multiworld&r] World '" + worldArg + "' is not loaded");
+				return 1;
+			}
+		}
+
+		String id = w.getRegistryKey().getValue().toString();
+		if (!isAction) {
+			MultiworldMod.message(plr, "[&cMultiworld&r]: World '" + id + "' has view distance " + WorldDistances.getViewDistance(w)
+					+ " and simulation distance " + WorldDistances.getSimulationDistance(w)
+					+ (WorldDistances.isSet(w) ? "" : " (server default)"));
+			MultiworldMod.message(plr, "Usage: /mw distance <view|simulation> <chunks|default> [world id]");
+			return 1;
+		}
+		if (id.startsWith("minecraft:")) {
+			MultiworldMod.message(plr, "[&4Multiworld&r] Vanilla worlds use the server's distances");
+			return 1;
+		}
+
+		int chunks = 0;
+		if (!args[2].equalsIgnoreCase("default")) {
+			try {
+				chunks = Integer.parseInt(args[2]);
+			} catch (NumberFormatException e) {
+				chunks = -1;
+			}
+			if (chunks < WorldDistances.MIN_DISTANCE || chunks > WorldDistances.MAX_DISTANCE) {
+				MultiworldMod.message(plr, "[&4Multiworld&r] The distance must be a number from "
+						+ WorldDistances.MIN_DISTANCE + " to " + WorldDistances.MAX_DISTANCE + ", or default");
+				return 1;
+			}
+		}
+
+		try {
+			WorldMeta meta = WorldMetaRegistry.getOrCreate(w);
+			if (kind.equals("view")) {
+				meta.setViewDistance(chunks);
+			} else {
+				meta.setSimulationDistance(chunks);
+			}
+			meta.save();
+			WorldDistances.apply(w, meta);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		int now = kind.equals("view") ? WorldDistances.getViewDistance(w) : WorldDistances.getSimulationDistance(w);
+		MultiworldMod.message(plr, "[&cMultiworld&r]: World '" + id + "' now has " + kind + " distance " + now
+				+ (chunks > 0 ? "" : " (server default)"));
+		return 1;
+	}
+
+}
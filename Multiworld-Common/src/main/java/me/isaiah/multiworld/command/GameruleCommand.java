@@ -1,16 +1,14 @@
 package me.isaiah.multiworld.command;
 
-import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashMap;
 import me.isaiah.multiworld.MultiworldMod;
-import me.isaiah.multiworld.config.FileConfiguration;
+import me.isaiah.multiworld.world.WorldMeta;
+import me.isaiah.multiworld.world.WorldMetaRegistry;
 
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
-import net.minecraft.util.Identifier;
 import net.minecraft.world.GameRules;
 import net.minecraft.world.World;
 import net.minecraft.world.GameRules.BooleanRule;
@@ -141,27 +139,9 @@ public class GameruleCommand implements Command {
      * @param b - The value for the Gamerule (ex: "true", or "100")
      */
     public static void set_rule_cfg(World w, String a, String b) throws IOException {
-        File cf = new File(Util.get_platform_config_dir(), "multiworld"); 
-        cf.mkdirs();
-
-        File worlds = new File(cf, "worlds");
-        worlds.mkdirs();
-
-        Identifier id = w.getRegistryKey().getValue();
-        File namespace = new File(worlds, id.getNamespace());
-        namespace.mkdirs();
-
-        File wc = new File(namespace, id.getPath() + ".yml");
-        wc.createNewFile();
-        FileConfiguration config = new FileConfiguration(wc);
-
-        if (!config.is_set("gamerules")) {
-        	config.set("gamerules", new ArrayList<String>());
-        }
-
-        config.set("gamerule_" + a, b);
-
-        config.save();
+        WorldMeta meta = WorldMetaRegistry.getOrCreate(w);
+        meta.setGamerule(a, b);
+        meta.save();
     }
 
     /**
@@ -0,0 +1,112 @@
+package me.isaiah.multiworld.command;
+
+import java.io.IOException;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.world.Hibernation;
+import me.isaiah.multiworld.world.WorldActivator;
+import me.isaiah.multiworld.world.WorldMeta;
+import me.isaiah.multiworld.world.WorldMetaRegistry;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * The "/mw hibernate" Command
+ *
+ * <pre>
+ * /mw hibernate [world id]                     - show the hibernation state
+ * /mw hibernate on [seconds] [world id]        - hibernate when empty (for seconds)
+ * /mw hibernate off [world id]                 - never hibernate
+ * /mw hibernate default [world id]             - use the config.yml options
+ * /mw hibernate now [world id]                 - hibernate an empty world now
+ * </pre>
+ *
+ * @see Hibernation
+ */
+public class HibernateCommand implements Command {
+
+	public static String[] SUBCOMMANDS = {
+			"on", "off", "default", "now"
+	};
+
+	public static int run(MinecraftServer mc, ServerPlayerEntity plr, String[] args) {
+		ServerWorld w = (ServerWorld) plr.getWorld();
+		String action = args.length >= 2 ? args[1].toLowerCase(Util.AMERICAN_STANDARD) : "";
+
+		int seconds = 0;
+		String worldArg = null;
+		int first = isAction(action) ? 2 : 1;
+		for (int i = first; i < args.length; i++) {
+			try {
+				seconds = Integer.parseInt(args[i]);
+			} catch (NumberFormatException e) {
+				worldArg = args[i];
+			}
+		}
+
+		if (null != worldArg) {
+			if (worldArg.indexOf(':') == -1) worldArg = "multiworld:" + worldArg;
+			w = WorldActivator.getLoaded(mc, worldArg);
+			if (null == w) {
+				MultiworldMod.message(plr, "[&4Multiworld&r] World '" + worldArg + "' is not loaded");
+				return 1;
+			}
+		}
+
+		String id = w.getRegistryKey().getValue().toString();
+		if (id.startsWith("minecraft:")) {
+			MultiworldMod.message(plr, "[&4Multiworld&r] Vanilla worlds can not hibernate");
+			return 1;
+		}
+
+		if (!isAction(action)) {
+			MultiworldMod.message(plr, "[&cMultiworld&r]: World '" + id + "': " + Hibernation.getState(w)
+					+ (Hibernation.isEnabled(w) ? ", hibernates after " + Hibernation.getAfterSeconds(w) + "s empty" : ", hibernation off"));
+			MultiworldMod.message(plr, "Usage: /mw hibernate [on|off|default|now] [seconds] [world id]");
+			return 1;
+		}
+
+		if (action.equals("now")) {
+			if (Hibernation.hibernate(w)) {
+				MultiworldMod.message(plr, "[&cMultiworld&r]: World '" + id + "' will hibernate once its chunks are unloaded");
+			} else {
+				MultiworldMod.message(plr, "[&4Multiworld&r] World '" + id + "' has players in it");
+			}
+			return 1;
+		}
+
+		try {
+			WorldMeta meta = WorldMetaRegistry.getOrCreate(w);
+			if (action.equals("default")) {
+				meta.setHibernate(null);
+				meta.setHibernateAfter(0);
+			} else {
+				meta.setHibernate(action.equals("on"));
+				if (seconds > 0) {
+					meta.setHibernateAfter(seconds);
+				}
+			}
+			meta.save();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		if (!Hibernation.isEnabled(w)) {
+			Hibernation.wake(w);
+		}
+
+		MultiworldMod.message(plr, "[&cMultiworld&r]: World '" + id + "' "
+				+ (Hibernation.isEnabled(w) ? "now hibernates after " + Hibernation.getAfterSeconds(w) + "s empty" : "no longer hibernates"));
+		return 1;
+	}
+
+	private static boolean isAction(String arg) {
+		for (String s : SUBCOMMANDS) {
+			if (s.equals(arg)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,56 @@
+package me.isaiah.multiworld.command;
+
+import static me.isaiah.multiworld.command.Util.reply;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.world.RestoreScheduler;
+import me.isaiah.multiworld.world.WorldActivator;
+import me.isaiah.multiworld.world.WorldMetaRegistry;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * The "/mw load" Command
+ *
+ * <p>Loads a saved world that is not loaded, ex: after "/mw unload"
+ * or when "lazy_worlds" is on.
+ */
+public class LoadCommand implements Command {
+
+	/**
+	 * @param plr - null when run from the console
+	 */
+	public static int run(MinecraftServer mc, ServerPlayerEntity plr, String[] args) {
+		if (args.length < 2) {
+			reply(plr, "[&4Multiworld&r] Usage: /mw load <world id>");
+			return 1;
+		}
+
+		String id = args[1];
+		if (id.indexOf(':') == -1) id = "multiworld:" + id;
+
+		boolean known = WorldActivator.isDormant(id) || WorldActivator.isUnloading(id) || RestoreScheduler.isPending(id);
+		if (!known) {
+			if (null != WorldActivator.getLoaded(mc, id)) {
+				reply(plr, "[&4Multiworld&r] World '" + id + "' is already loaded");
+				return 1;
+			}
+			if (null == WorldMetaRegistry.get(MultiworldMod.new_id(id))) {
+				reply(plr, "[&4Multiworld&r] No saved world '" + id + "'");
+				return 1;
+			}
+			// Saved but not loaded, ex: its restore failed
+			WorldActivator.add(id);
+		}
+
+		ServerWorld world = WorldActivator.activate(mc, id);
+		if (null == world) {
+			reply(plr, "[&4Multiworld&r] Could not load world '" + id + "', check the console for details");
+			return 1;
+		}
+		reply(plr, "[&cMultiworld&r]: Loaded world '" + id + "'");
+		return 1;
+	}
+
+}
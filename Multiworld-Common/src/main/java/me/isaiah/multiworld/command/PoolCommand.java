@@ -0,0 +1,81 @@
+package me.isaiah.multiworld.command;
+
+import static me.isaiah.multiworld.command.Util.reply;
+
+import java.util.List;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.world.WorldPool;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * The "/mw pool" Command
+ *
+ * <pre>
+ * /mw pool                    - show the pools
+ * /mw pool lease &lt;template&gt;   - take a world out of a pool and teleport to it
+ * /mw pool return             - return the leased world you are in
+ * </pre>
+ *
+ * @see WorldPool
+ */
+public class PoolCommand implements Command {
+
+	public static String[] SUBCOMMANDS = {
+			"lease", "return"
+	};
+
+	/**
+	 * @param plr - null when run from the console
+	 */
+	public static int run(MinecraftServer mc, ServerPlayerEntity plr, String[] args) {
+		String action = args.length >= 2 ? args[1].toLowerCase(Util.AMERICAN_STANDARD) : "";
+
+		if (null == plr || !(action.equals("lease") || action.equals("return"))) {
+			List<String> lines = WorldPool.describe();
+			reply(plr, "[&cMultiworld&r]: " + lines.size() + " world pool(s), templates are in config/multiworld/pools/");
+			for (String line : lines) {
+				reply(plr, line);
+			}
+			reply(plr, "Usage: /mw pool [lease <template>|return]");
+			return 1;
+		}
+
+		if (action.equals("return")) {
+			ServerWorld w = (ServerWorld) plr.getWorld();
+			if (!WorldPool.giveBack(mc, w)) {
+				reply(plr, "[&4Multiworld&r] The world you are in was not leased from a pool");
+				return 1;
+			}
+			reply(plr, "[&cMultiworld&r]: Returned world '" + w.getRegistryKey().getValue() + "' to its pool");
+			return 1;
+		}
+
+		if (args.length < 3) {
+			reply(plr, "Usage: /mw pool lease <template>");
+			return 1;
+		}
+		if (!WorldPool.getTemplates().contains(args[2].toLowerCase(Util.AMERICAN_STANDARD))) {
+			reply(plr, "[&4Multiworld&r] No world pool named '" + args[2] + "'");
+			return 1;
+		}
+		ServerWorld w = WorldPool.lease(mc, args[2]);
+		if (null == w) {
+			reply(plr, "[&4Multiworld&r] This Minecraft version can not open temporary worlds");
+			return 1;
+		}
+
+		BlockPos sp = SpawnCommand.getSpawn(w);
+		if (null == sp) {
+			sp = new BlockPos(1, 40, 1);
+		}
+		sp = TpCommand.findSafePos(w, sp);
+		reply(plr, "[&cMultiworld&r]: Leased world '" + w.getRegistryKey().getValue() + "', use /mw pool return when done");
+		MultiworldMod.get_world_creator().teleleport(plr, w, sp.getX(), sp.getY(), sp.getZ());
+		return 1;
+	}
+
+}
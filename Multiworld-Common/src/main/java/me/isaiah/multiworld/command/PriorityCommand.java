@@ -0,0 +1,88 @@
+package me.isaiah.multiworld.command;
+
+import java.io.IOException;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.world.TickPriority;
+import me.isaiah.multiworld.world.TickScheduler;
+import me.isaiah.multiworld.world.WorldActivator;
+import me.isaiah.multiworld.world.WorldMeta;
+import me.isaiah.multiworld.world.WorldMetaRegistry;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * The "/mw priority" Command
+ *
+ * <pre>
+ * /mw priority [world id]              - show the priority and scheduler state
+ * /mw priority &lt;class&gt; [world id]      - lobby, survival, build or background
+ * /mw priority default [world id]      - use "default_priority" from config.yml
+ * /mw priority release [world id]      - lift a quarantine
+ * </pre>
+ *
+ * @see TickScheduler
+ */
+public class PriorityCommand implements Command {
+
+	public static String[] SUBCOMMANDS = {
+			"lobby", "survival", "build", "background", "default", "release"
+	};
+
+	public static int run(MinecraftServer mc, ServerPlayerEntity plr, String[] args) {
+		ServerWorld w = (ServerWorld) plr.getWorld();
+		String action = args.length >= 2 ? args[1].toLowerCase(Util.AMERICAN_STANDARD) : "";
+
+		boolean isAction = isAction(action);
+		String worldArg = isAction ? (args.length >= 3 ? args[2] : null) : (args.length >= 2 ? args[1] : null);
+		if (null != worldArg) {
+			if (worldArg.indexOf(':') == -1) worldArg = "multiworld:" + worldArg;
+			w = WorldActivator.getLoaded(mc, worldArg);
+			if (null == w) {
+				MultiworldMod.message(plr, "[&4Multiworld&r] World '" + worldArg + "' is not loaded");
+				return 1;
+			}
+		}
+
+		String id = w.getRegistryKey().getValue().toString();
+		if (!isAction) {
+			MultiworldMod.message(plr, "[&cMultiworld&r]: World '" + id + "' has priority "
+					+ TickScheduler.getPriority(w).getName() + " (" + TickScheduler.getState(w) + ")");
+			MultiworldMod.message(plr, "Usage: /mw priority [lobby|survival|build|background|default|release] [world id]");
+			return 1;
+		}
+		if (id.startsWith("minecraft:")) {
+			MultiworldMod.message(plr, "[&4Multiworld&r] Vanilla worlds are never deferred");
+			return 1;
+		}
+
+		if (action.equals("release")) {
+			TickScheduler.release(w);
+			MultiworldMod.message(plr, "[&cMultiworld&r]: World '" + id + "' is no longer quarantined");
+			return 1;
+		}
+
+		try {
+			WorldMeta meta = WorldMetaRegistry.getOrCreate(w);
+			meta.setPriority(action.equals("default") ? null : TickPriority.of(action).getName());
+			meta.save();
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		TickScheduler.refresh(w);
+
+		MultiworldMod.message(plr, "[&cMultiworld&r]: World '" + id + "' now has priority " + TickScheduler.getPriority(w).getName());
+		return 1;
+	}
+
+	private static boolean isAction(String arg) {
+		for (String s : SUBCOMMANDS) {
+			if (s.equals(arg)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,110 @@
+package me.isaiah.multiworld.command;
+
+import java.io.IOException;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.world.WorldActivator;
+import me.isaiah.multiworld.world.WorldMeta;
+import me.isaiah.multiworld.world.WorldMetaRegistry;
+import me.isaiah.multiworld.world.WorldQuotas;
+import net.minecraft.entity.SpawnGroup;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * The "/mw quota" Command
+ *
+ * <pre>
+ * /mw quota [world id]                           - show the limits
+ * /mw quota soft_chunks &lt;max|off&gt; [world id]     - loaded chunks above which the view distance is lowered
+ * /mw quota block_entities &lt;max|off&gt; [world id]  - most ticking block entities
+ * /mw quota &lt;spawn group&gt; &lt;max|off&gt; [world id]   - most entities of a group, ex: monster
+ * </pre>
+ *
+ * @see WorldQuotas
+ */
+public class QuotaCommand implements Command {
+
+	public static String[] getSubcommands() {
+		String[] groups = WorldQuotas.getGroupNames();
+		String[] all = new String[groups.length + 2];
+		all[0] = "soft_chunks";
+		all[1] = "block_entities";
+		System.arraycopy(groups, 0, all, 2, groups.length);
+		return all;
+	}
+
+	public static int run(MinecraftServer mc, ServerPlayerEntity plr, String[] args) {
+		ServerWorld w = (ServerWorld) plr.getWorld();
+		String kind = args.length >= 2 ? args[1].toLowerCase(Util.AMERICAN_STANDARD) : "";
+		SpawnGroup group = WorldQuotas.getGroup(kind);
+		boolean isAction = args.length >= 3 && (kind.equals("soft_chunks") || kind.equals("block_entities") || null != group);
+
+		String worldArg = isAction ? (args.length >= 4 ? args[3] : null) : (args.length >= 2 ? args[1] : null);
+		if (null != worldArg) {
+			if (worldArg.indexOf(':') == -1) worldArg = "multiworld:" + worldArg;
+			w = WorldActivator.getLoaded(mc, worldArg);
+			if (null == w) {
+				MultiworldMod.message(plr, "[&4Multiworld&r] World '" + worldArg + "' is not loaded");
+				return 1;
+			}
+		}
+
+		String id = w.getRegistryKey().getValue().toString();
+		if (!isAction) {
+			MultiworldMod.message(plr, "[&cMultiworld&r]: Limits of world '" + id + "':");
+			String[] lines = WorldQuotas.describe(w);
+			if (lines.length == 0) {
+				MultiworldMod.message(plr, "No limits");
+			}
+			for (String line : lines) {
+				MultiworldMod.message(plr, line);
+			}
+			MultiworldMod.message(plr, "Usage: /mw quota <soft_chunks|block_entities|spawn group> <max|off> [world id]");
+			return 1;
+		}
+		if (id.startsWith("minecraft:")) {
+			MultiworldMod.message(plr, "[&4Multiworld&r] Vanilla worlds can not have limits");
+			return 1;
+		}
+
+		int max = 0;
+		if (!args[2].equalsIgnoreCase("off")) {
+			try {
+				max = Integer.parseInt(args[2]);
+			} catch (NumberFormatException e) {
+				max = -1;
+			}
+			if (max <= 0) {
+				MultiworldMod.message(plr, "[&4Multiworld&r] The limit must be a number above 0, or off");
+				return 1;
+			}
+		}
+
+		try {
+			WorldMeta meta = WorldMetaRegistry.getOrCreate(w);
+			if (kind.equals("soft_chunks")) {
+				meta.setSoftMaxChunks(max);
+			} else if (kind.equals("block_entities")) {
+				meta.setMaxBlockEntities(max);
+			} else {
+				meta.setMaxEntities(group.getName(), max);
+			}
+			meta.save();
+			WorldQuotas.apply(w, meta);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		if (kind.equals("soft_chunks")) {
+			MultiworldMod.message(plr, "[&cMultiworld&r]: World '" + id + "' "
+					+ (max > 0 ? "now lowers its view distance above " + max + " loaded chunks" : "no longer lowers its view distance for loaded chunks"));
+			return 1;
+		}
+		MultiworldMod.message(plr, "[&cMultiworld&r]: World '" + id + "' "
+				+ (max > 0 ? "now has at most " + max + " " + kind.replace('_', ' ') : "no longer limits " + kind.replace('_', ' ')));
+		return 1;
+	}
+
+}
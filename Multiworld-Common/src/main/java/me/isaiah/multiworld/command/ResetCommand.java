@@ -0,0 +1,82 @@
+package me.isaiah.multiworld.command;
+
+import static me.isaiah.multiworld.command.Util.reply;
+
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.world.WorldResets;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+/**
+ * The "/mw reset" Command
+ *
+ * <pre>
+ * /mw reset                    - show the resets in progress
+ * /mw reset snapshot &lt;id&gt;      - take the snapshot of a world
+ * /mw reset &lt;id&gt;               - reset a world to its snapshot
+ * </pre>
+ *
+ * @see WorldResets
+ */
+public class ResetCommand implements Command {
+
+	public static String[] SUBCOMMANDS = {
+			"snapshot"
+	};
+
+	/**
+	 * @param plr - null when run from the console
+	 */
+	public static int run(MinecraftServer mc, ServerPlayerEntity plr, String[] args) {
+		boolean snapshot = args.length >= 3 && args[1].equalsIgnoreCase("snapshot");
+		if (args.length < 2 || (args[1].equalsIgnoreCase("snapshot") && !snapshot)) {
+			List<String> lines = WorldResets.describe();
+			reply(plr, "[&cMultiworld&r]: " + lines.size() + " world(s) being reset");
+			for (String line : lines) {
+				reply(plr, line);
+			}
+			reply(plr, "Usage: /mw reset [snapshot] <world id>");
+			return 1;
+		}
+
+		String id = snapshot ? args[2] : args[1];
+		if (id.indexOf(':') == -1) id = "multiworld:" + id;
+		final String world = id;
+
+		if (snapshot) {
+			reply(plr, "[&cMultiworld&r]: Taking a snapshot of world '" + world + "'...");
+			WorldResets.snapshot(mc, world).whenComplete((v, e) -> {
+				if (null == e) {
+					reply(plr, "[&cMultiworld&r]: Took a snapshot of world '" + world + "', use /mw reset " + args[2] + " to reset it");
+					return;
+				}
+				failed(plr, "take a snapshot of", world, e);
+			});
+			return 1;
+		}
+
+		reply(plr, "[&cMultiworld&r]: Resetting world '" + world + "'...");
+		WorldResets.reset(mc, world).whenComplete((w, e) -> {
+			if (null == e) {
+				reply(plr, "[&cMultiworld&r]: Reset world '" + world + "'");
+				return;
+			}
+			failed(plr, "reset", world, e);
+		});
+		return 1;
+	}
+
+	private static void failed(ServerPlayerEntity plr, String action, String world, Throwable e) {
+		Throwable cause = e instanceof CompletionException && null != e.getCause() ? e.getCause() : e;
+		if (cause instanceof IllegalStateException) {
+			reply(plr, "[&4Multiworld&r] " + cause.getMessage());
+			return;
+		}
+		MultiworldMod.LOGGER.error("Failed to " + action + " world " + world, cause);
+		reply(plr, "[&4Multiworld&r] Failed to " + action + " world '" + world + "', check the console for details");
+	}
+
+}
@@ -3,13 +3,12 @@ package me.isaiah.multiworld.command;
 import static me.isaiah.multiworld.MultiworldMod.message;
 import static me.isaiah.multiworld.MultiworldMod.text_plain;
 
-import java.io.File;
 import java.io.IOException;
 
-import me.isaiah.multiworld.config.FileConfiguration;
+import me.isaiah.multiworld.world.WorldMeta;
+import me.isaiah.multiworld.world.WorldMetaRegistry;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
-import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 
@@ -31,22 +30,9 @@ public class SetspawnCommand implements Command {
     }
 
     public static void setSpawn(World w, BlockPos spawn) throws IOException {
-        File cf = new File(Util.get_platform_config_dir(), "multiworld"); 
-        cf.mkdirs();
-
-        File worlds = new File(cf, "worlds");
-        worlds.mkdirs();
-
-        Identifier id = w.getRegistryKey().getValue();
-        File namespace = new File(worlds, id.getNamespace());
-        namespace.mkdirs();
-
-        File wc = new File(namespace, id.getPath() + ".yml");
-        wc.createNewFile();
-        FileConfiguration config = new FileConfiguration(wc);
-
-        config.set("spawnpos", spawn.asLong());
-        config.save();
+        WorldMeta meta = WorldMetaRegistry.getOrCreate(w);
+        meta.setSpawnPos(spawn.asLong());
+        meta.save();
     }
 
 
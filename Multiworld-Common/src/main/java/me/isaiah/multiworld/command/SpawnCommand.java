@@ -1,14 +1,11 @@
 package me.isaiah.multiworld.command;
 
-import java.io.File;
-import java.io.IOException;
-
 import me.isaiah.multiworld.MultiworldMod;
-import me.isaiah.multiworld.config.FileConfiguration;
+import me.isaiah.multiworld.world.WorldMeta;
+import me.isaiah.multiworld.world.WorldMetaRegistry;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
-import net.minecraft.util.Identifier;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.WorldProperties;
 import net.minecraft.world.Heightmap;
@@ -29,35 +26,11 @@ public class SpawnCommand implements Command {
     }
 
     public static BlockPos getSpawn(ServerWorld w) {
-        File config_dir = new File("config");
-        config_dir.mkdirs();
-        
-        File cf = new File(config_dir, "multiworld"); 
-        cf.mkdirs();
-
-        File worlds = new File(cf, "worlds");
-        worlds.mkdirs();
-
-        Identifier id = w.getRegistryKey().getValue();
-        File namespace = new File(worlds, id.getNamespace());
-        namespace.mkdirs();
-
-        File wc = new File(namespace, id.getPath() + ".yml");
-        if (!wc.exists()) {
-            return multiworld_method_43126(w);
-        }
-        FileConfiguration config;
-        try {
-            config = new FileConfiguration(wc);
-            if (config.is_set("spawnpos")) {
-            	return BlockPos.fromLong(config.getLong("spawnpos"));
-            } else {
-            	return multiworld_method_43126(w);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-            return multiworld_method_43126(w);
+        WorldMeta meta = WorldMetaRegistry.get(w);
+        if (null != meta && meta.hasSpawnPos()) {
+            return BlockPos.fromLong(meta.getSpawnPos());
         }
+        return multiworld_method_43126(w);
     }
 	
 	// getSpawnPos
@@ -0,0 +1,132 @@
+package me.isaiah.multiworld.command;
+
+import static me.isaiah.multiworld.command.Util.reply;
+
+import java.util.List;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.Settings;
+import me.isaiah.multiworld.world.Hibernation;
+import me.isaiah.multiworld.world.TickScheduler;
+import me.isaiah.multiworld.world.WorldActivator;
+import me.isaiah.multiworld.world.WorldDistances;
+import me.isaiah.multiworld.world.WorldQuotas;
+import me.isaiah.multiworld.world.WorldStats;
+import me.isaiah.multiworld.world.WorldTicks;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * The "/mw stats" Command
+ *
+ * <pre>
+ * /mw stats              - the most expensive worlds, by milliseconds per tick
+ * /mw stats all          - all loaded worlds
+ * /mw stats &lt;world id&gt;   - details of one world
+ * </pre>
+ *
+ * @see WorldStats
+ */
+public class StatsCommand implements Command {
+
+	/**
+	 * Worlds listed by "/mw stats" in game, the console and "/mw stats all" list all of them
+	 */
+	public static final int TOP = 10;
+
+	/**
+	 * @param plr - null when run from the console
+	 */
+	public static int run(MinecraftServer mc, ServerPlayerEntity plr, String[] args) {
+		String arg = args.length >= 2 ? args[1] : null;
+
+		if (null != arg && !arg.equalsIgnoreCase("all")) {
+			String id = arg.indexOf(':') == -1 ? "multiworld:" + arg : arg;
+			ServerWorld world = WorldActivator.getLoaded(mc, id);
+			if (null == world) {
+				reply(plr, "[&4Multiworld&r] World '" + id + "' is not loaded");
+				return 1;
+			}
+			details(mc, plr, WorldStats.get(world));
+			return 1;
+		}
+
+		List<WorldStats.Snapshot> all = WorldStats.getAll(mc);
+		double total = 0;
+		for (WorldStats.Snapshot s : all) {
+			total += s.mspt;
+		}
+		reply(plr, "[&cMultiworld&r]: " + all.size() + " worlds, " + ms(total) + " ms per tick in total (last "
+				+ WorldStats.WINDOW + " ticks of each world):");
+		if (Settings.tickScheduler) {
+			double tick = TickScheduler.getAverageTickMs();
+			String c = tick > Settings.tickBudgetMs ? "&c" : tick > Settings.tickBudgetMs * 0.8D ? "&e" : "&a";
+			reply(plr, "Server tick: " + c + ms(tick) + " ms&r of " + Settings.tickBudgetMs + " ms, scheduler level "
+					+ TickScheduler.getLevel());
+		}
+
+		int shown = (null == plr || null != arg) ? all.size() : Math.min(TOP, all.size());
+		for (int i = 0; i < shown; i++) {
+			WorldStats.Snapshot s = all.get(i);
+			reply(plr, color(s.mspt) + ms(s.mspt) + " ms&r (p50 " + ms(s.p50) + ", p99 " + ms(s.p99) + ") "
+					+ s.chunks + " chunks, " + s.entities + " entities, " + s.blockEntities + " block entities - &b"
+					+ name(s.id) + (TickScheduler.isQuarantined(s.world) ? " &c(quarantined)" : "")
+					+ (WorldQuotas.isAtLimit(s.world) ? " &e(at quota)" : ""));
+		}
+		if (shown < all.size()) {
+			reply(plr, "&7... and " + (all.size() - shown) + " more, see /mw stats all");
+		}
+
+		List<String> deleting = MultiworldMod.get_world_creator().get_deletion_status();
+		if (!deleting.isEmpty()) {
+			reply(plr, "Deleting " + deleting.size() + " world(s):");
+			for (String line : deleting) {
+				reply(plr, "&7" + line);
+			}
+		}
+		return 1;
+	}
+
+	private static void details(MinecraftServer mc, ServerPlayerEntity plr, WorldStats.Snapshot s) {
+		ServerWorld w = s.world;
+		int interval = WorldTicks.getInterval(w);
+
+		reply(plr, "[&cMultiworld&r]: Stats of world '" + s.id + "':");
+		if (s.ticks == 0) {
+			reply(plr, "Tick time: &7not ticked yet");
+		} else {
+			reply(plr, "Tick time: " + color(s.mspt) + ms(s.mspt) + " ms&r average, p50 " + ms(s.p50) + " ms, p99 "
+					+ ms(s.p99) + " ms, max " + ms(s.max) + " ms (last " + s.ticks + " ticks)");
+			reply(plr, "Last ticked: " + (mc.getTicks() - s.lastTick) + " server ticks ago");
+		}
+		reply(plr, "State: " + (s.id.startsWith("minecraft:") ? "vanilla" : Hibernation.getState(w))
+				+ (WorldTicks.isFrozen(w) ? ", frozen" : "")
+				+ (interval > 1 ? ", ticks every " + interval + " server ticks" : ""));
+		if (!s.id.startsWith("minecraft:")) {
+			reply(plr, "Priority: " + TickScheduler.getPriority(w).getName() + " (" + TickScheduler.getState(w) + ")");
+		}
+		reply(plr, "Players: " + w.getPlayers().size());
+		reply(plr, "Distances: view " + WorldDistances.getViewDistance(w) + ", simulation "
+				+ WorldDistances.getSimulationDistance(w) + (WorldDistances.isSet(w) ? "" : " (server default)"));
+		reply(plr, "Loaded chunks: " + s.chunks);
+		reply(plr, "Entities: " + s.entities);
+		reply(plr, "Ticking block entities: " + s.blockEntities);
+		for (String line : WorldQuotas.describe(w)) {
+			reply(plr, line);
+		}
+	}
+
+	private static String color(double mspt) {
+		return mspt >= 10 ? "&c" : mspt >= 2 ? "&e" : "&a";
+	}
+
+	private static String ms(double mspt) {
+		return String.format(Util.AMERICAN_STANDARD, "%.2f", mspt);
+	}
+
+	private static String name(String id) {
+		return id.startsWith("multiworld:") ? id.substring("multiworld:".length()) : id;
+	}
+
+}
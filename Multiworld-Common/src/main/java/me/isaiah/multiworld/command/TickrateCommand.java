@@ -0,0 +1,100 @@
+package me.isaiah.multiworld.command;
+
+import java.io.IOException;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.world.WorldActivator;
+import me.isaiah.multiworld.world.WorldMeta;
+import me.isaiah.multiworld.world.WorldMetaRegistry;
+import me.isaiah.multiworld.world.WorldTicks;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * The "/mw tickrate" Command
+ *
+ * <pre>
+ * /mw tickrate [world id]                - show the tick rate
+ * /mw tickrate &lt;interval&gt; [world id]     - tick every interval server ticks
+ * /mw tickrate freeze [world id]         - keep chunks loaded, stop ticking entities and blocks
+ * /mw tickrate unfreeze [world id]
+ * /mw tickrate normal [world id]         - tick every server tick, not frozen
+ * </pre>
+ *
+ * @see WorldTicks
+ */
+public class TickrateCommand implements Command {
+
+	public static String[] SUBCOMMANDS = {
+			"freeze", "unfreeze", "normal", "2", "4", "10", "20"
+	};
+
+	public static int run(MinecraftServer mc, ServerPlayerEntity plr, String[] args) {
+		ServerWorld w = (ServerWorld) plr.getWorld();
+		String action = args.length >= 2 ? args[1].toLowerCase(Util.AMERICAN_STANDARD) : "";
+
+		int interval = -1;
+		boolean isAction = action.equals("freeze") || action.equals("unfreeze") || action.equals("normal");
+		if (!isAction) {
+			try {
+				interval = Integer.parseInt(action);
+				isAction = true;
+			} catch (NumberFormatException e) {
+			}
+		}
+
+		String worldArg = isAction ? (args.length >= 3 ? args[2] : null) : (args.length >= 2 ? args[1] : null);
+		if (null != worldArg) {
+			if (worldArg.indexOf(':') == -1) worldArg = "multiworld:" + worldArg;
+			w = WorldActivator.getLoaded(mc, worldArg);
+			if (null == w) {
+				MultiworldMod.message(plr, "[&4Multiworld&r] World '" + worldArg + "' is not loaded");
+				return 1;
+			}
+		}
+
+		String id = w.getRegistryKey().getValue().toString();
+		if (!isAction) {
+			MultiworldMod.message(plr, "[&cMultiworld&r]: World '" + id + "' " + describe(w));
+			MultiworldMod.message(plr, "Usage: /mw tickrate [<interval>|freeze|unfreeze|normal] [world id]");
+			return 1;
+		}
+		if (id.startsWith("minecraft:")) {
+			MultiworldMod.message(plr, "[&4Multiworld&r] Vanilla worlds always tick at the full rate");
+			return 1;
+		}
+		if (interval == 0 || interval < -1 || interval > 1200) {
+			MultiworldMod.message(plr, "[&4Multiworld&r] The interval must be between 1 and 1200 ticks");
+			return 1;
+		}
+
+		try {
+			WorldMeta meta = WorldMetaRegistry.getOrCreate(w);
+			if (action.equals("freeze")) {
+				meta.setFrozen(true);
+			} else if (action.equals("unfreeze")) {
+				meta.setFrozen(false);
+			} else if (action.equals("normal")) {
+				meta.setFrozen(false);
+				meta.setTickInterval(1);
+			} else {
+				meta.setTickInterval(interval);
+			}
+			meta.save();
+			WorldTicks.apply(w, meta);
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+
+		MultiworldMod.message(plr, "[&cMultiworld&r]: World '" + id + "' " + describe(w));
+		return 1;
+	}
+
+	private static String describe(ServerWorld w) {
+		int interval = WorldTicks.getInterval(w);
+		String rate = interval <= 1 ? "ticks every server tick" : "ticks every " + interval + " server ticks";
+		return WorldTicks.isFrozen(w) ? "is frozen (" + rate + ")" : rate;
+	}
+
+}
@@ -7,24 +7,28 @@ import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.util.math.BlockPos;
-import java.io.File;
 
 import me.isaiah.multiworld.I18n;
 import me.isaiah.multiworld.MultiworldMod;
-import me.isaiah.multiworld.config.*;
+import me.isaiah.multiworld.world.WorldActivator;
+import me.isaiah.multiworld.world.WorldMeta;
+import me.isaiah.multiworld.world.WorldMetaRegistry;
 
 public class TpCommand implements Command {
 
     public static int run(MinecraftServer mc, ServerPlayerEntity plr, String[] args) {
+        String arg1 = args[1];
+        if (arg1.indexOf(':') == -1) arg1 = "multiworld:" + arg1;
+
+        // Loads the world if it was not used yet
+        WorldActivator.activate(mc, arg1);
+
         HashMap<String,ServerWorld> worlds = new HashMap<>();
         mc.getWorldRegistryKeys().forEach(r -> {
             ServerWorld world = mc.getWorld(r);
             worlds.put(r.getValue().toString(), world);
         });
         
-        String arg1 = args[1];
-        if (arg1.indexOf(':') == -1) arg1 = "multiworld:" + arg1;
-        
         if (null == plr) {
         	// Console
         	if (args.length <= 2) {
@@ -99,7 +103,7 @@ public class TpCommand implements Command {
         BlockPos.iterate(i - 2, j, k - 2, i + 2, j, k + 2).forEach(pos -> world.setBlockState(pos, Blocks.OBSIDIAN.getDefaultState()));
     }
 
-    private static BlockPos findSafePos(ServerWorld w, BlockPos sp) {
+    static BlockPos findSafePos(ServerWorld w, BlockPos sp) {
         BlockPos pos = sp;
         while (w.getBlockState(pos) != Blocks.AIR.getDefaultState()) {
             pos = pos.add(0, 1, 0);
@@ -113,33 +117,8 @@ public class TpCommand implements Command {
     }
 	
 	public static String read_env_from_config(String id) {
-        File config_dir = new File("config");
-        config_dir.mkdirs();
-		
-		String[] spl = id.split(":");
-        
-        File cf = new File(config_dir, "multiworld"); 
-        cf.mkdirs();
-
-        File worlds = new File(cf, "worlds");
-        worlds.mkdirs();
-
-        File namespace = new File(worlds, spl[0]);
-        namespace.mkdirs();
-
-        File wc = new File(namespace, spl[1] + ".yml");
-        FileConfiguration config;
-        try {
-			if (!wc.exists()) {
-				wc.createNewFile();
-			}
-            config = new FileConfiguration(wc);
-			String env = config.getString("environment");
-			return env;
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-		return "NORMAL";
+		WorldMeta meta = WorldMetaRegistry.get(MultiworldMod.new_id(id));
+		return null == meta ? null : meta.getEnvironment();
     }
 
 }
@@ -0,0 +1,53 @@
+package me.isaiah.multiworld.command;
+
+import static me.isaiah.multiworld.command.Util.reply;
+
+import me.isaiah.multiworld.world.WorldActivator;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * The "/mw unload" Command
+ *
+ * <p>Removes a world from the server but keeps its files and config,
+ * it can be brought back with "/mw load" (or "/mw tp", a portal, ...).
+ */
+public class UnloadCommand implements Command {
+
+	/**
+	 * @param plr - null when run from the console
+	 */
+	public static int run(MinecraftServer mc, ServerPlayerEntity plr, String[] args) {
+		if (args.length < 2) {
+			reply(plr, "[&4Multiworld&r] Usage: /mw unload <world id>");
+			return 1;
+		}
+
+		String id = args[1];
+		if (id.indexOf(':') == -1) id = "multiworld:" + id;
+
+		if (id.startsWith("minecraft:")) {
+			reply(plr, "[&4Multiworld&r] Vanilla worlds can not be unloaded");
+			return 1;
+		}
+		if (WorldActivator.isUnloading(id)) {
+			reply(plr, "[&4Multiworld&r] World '" + id + "' is already unloading");
+			return 1;
+		}
+
+		ServerWorld world = WorldActivator.getLoaded(mc, id);
+		if (null == world) {
+			reply(plr, "[&4Multiworld&r] World '" + id + "' is not loaded");
+			return 1;
+		}
+
+		if (!WorldActivator.unload(mc, world)) {
+			reply(plr, "[&4Multiworld&r] Unloading worlds is not supported on Minecraft " + mc.getVersion());
+			return 1;
+		}
+		reply(plr, "[&cMultiworld&r]: Unloading world '" + id + "', its files are kept. Use /mw load to load it again.");
+		return 1;
+	}
+
+}
@@ -8,6 +8,8 @@ import java.util.Locale;
 
 import me.isaiah.multiworld.MultiworldMod;
 import me.isaiah.multiworld.config.FileConfiguration;
+import me.isaiah.multiworld.world.WorldMetaRegistry;
+import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.util.Identifier;
 import net.minecraft.world.World;
 
@@ -35,60 +37,40 @@ public class Util {
     }
     
     /**
+     * Returns the cached config of a world.
      * 
+     * @see WorldMetaRegistry
      */
     public static FileConfiguration get_config(World w) throws IOException {
-        File cf = new File(get_platform_config_dir(), "multiworld"); 
-        cf.mkdirs();
-
-        File worlds = new File(cf, "worlds");
-        worlds.mkdirs();
-
-        Identifier id = w.getRegistryKey().getValue();
-        File namespace = new File(worlds, id.getNamespace());
-        namespace.mkdirs();
-
-        File wc = new File(namespace, id.getPath() + ".yml");
-        wc.createNewFile();
-        FileConfiguration config = new FileConfiguration(wc);
-        return config;
+        return WorldMetaRegistry.getOrCreate(w).getConfig();
     }
     
     
     /**
+     * Returns the cached config of a world.
      * 
+     * @see WorldMetaRegistry
      */
     public static FileConfiguration get_config(Identifier id) throws IOException {
-        File cf = new File(get_platform_config_dir(), "multiworld"); 
-        cf.mkdirs();
-
-        File worlds = new File(cf, "worlds");
-        worlds.mkdirs();
-
-        File namespace = new File(worlds, id.getNamespace());
-        namespace.mkdirs();
-
-        File wc = new File(namespace, id.getPath() + ".yml");
-        wc.createNewFile();
-        FileConfiguration config = new FileConfiguration(wc);
-        return config;
+        return WorldMetaRegistry.getOrCreate(id).getConfig();
     }
     
+    /**
+     * Send a message to a player, or log it if the command came from the console (null player)
+     */
+    public static void reply(ServerPlayerEntity plr, String message) {
+        if (null == plr) {
+            MultiworldMod.LOGGER.info(message.replaceAll("&[0-9a-fk-orA-FK-OR]", ""));
+            return;
+        }
+        MultiworldMod.message(plr, message);
+    }
+
     /**
      * 
      */
     public static File get_config_file(Identifier id) throws IOException {
-        File cf = new File(get_platform_config_dir(), "multiworld"); 
-        cf.mkdirs();
-
-        File worlds = new File(cf, "worlds");
-        worlds.mkdirs();
-
-        File namespace = new File(worlds, id.getNamespace());
-        namespace.mkdirs();
-
-        File wc = new File(namespace, id.getPath() + ".yml");
-        return wc;
+        return WorldMetaRegistry.getConfigFile(id);
     }
     
     private static boolean hasValueCached = false;
@@ -0,0 +1,172 @@
+/**
+ * Isaiah's Configuration File Format
+ * Tiny two file YAML-like configuration parser
+ *
+ * Unlicense
+ */
+package me.isaiah.multiworld.config;
+
+/**
+ * A scalar read from a config file, with its type decided once at load
+ * time. Numbers and booleans are kept in primitive fields so the typed
+ * getters of {@link Configuration} never box or re-parse them.
+ */
+final class ConfigValue {
+
+	static final byte STRING = 0;
+	static final byte LONG = 1;
+	static final byte DOUBLE = 2;
+	static final byte BOOLEAN = 3;
+
+	final byte type;
+	final long longValue;
+	final double doubleValue;
+	final String text;
+
+	private ConfigValue(byte type, long longValue, double doubleValue, String text) {
+		this.type = type;
+		this.longValue = longValue;
+		this.doubleValue = doubleValue;
+		this.text = text;
+	}
+
+	/**
+	 * Classify a (trimmed) value from the file.
+	 * Whole numbers become LONG, decimals DOUBLE, true/false BOOLEAN,
+	 * anything else STRING.
+	 */
+	static ConfigValue parse(String val) {
+		if (val.equalsIgnoreCase("true")) return new ConfigValue(BOOLEAN, 1, 1, null);
+		if (val.equalsIgnoreCase("false")) return new ConfigValue(BOOLEAN, 0, 0, null);
+
+		switch (classify(val)) {
+			case LONG:
+				long l = parseLongUnchecked(val);
+				return new ConfigValue(LONG, l, l, null);
+			case DOUBLE:
+				double d = Double.parseDouble(val);
+				return new ConfigValue(DOUBLE, (long) d, d, null);
+			default:
+				return new ConfigValue(STRING, 0, 0, val);
+		}
+	}
+
+	/**
+	 * Decide the number type of a string without throwing.
+	 *
+	 * @return LONG if {@link Long#parseLong(String)} accepts it, DOUBLE if
+	 *         {@link Double#parseDouble(String)} does, STRING otherwise.
+	 */
+	static byte classify(String s) {
+		int len = s.length();
+		int i = 0;
+		if (len == 0) return STRING;
+
+		char c = s.charAt(0);
+		if (c == '+' || c == '-') {
+			i++;
+		}
+		if (i == len) return STRING;
+
+		// Named doubles
+		if (s.startsWith("NaN", i) || s.startsWith("Infinity", i)) {
+			int end = i + (s.charAt(i) == 'N' ? 3 : 8);
+			return (end == len) ? DOUBLE : STRING;
+		}
+
+		int intStart = i;
+		while (i < len && isDigit(s.charAt(i))) i++;
+		int intDigits = i - intStart;
+
+		if (i == len) {
+			return fitsInLong(s, intStart) ? LONG : DOUBLE;
+		}
+
+		int fracDigits = 0;
+		if (s.charAt(i) == '.') {
+			i++;
+			int fracStart = i;
+			while (i < len && isDigit(s.charAt(i))) i++;
+			fracDigits = i - fracStart;
+		}
+		if (intDigits == 0 && fracDigits == 0) return STRING;
+
+		if (i < len && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+			i++;
+			if (i < len && (s.charAt(i) == '+' || s.charAt(i) == '-')) i++;
+			int expStart = i;
+			while (i < len && isDigit(s.charAt(i))) i++;
+			if (i == expStart) return STRING;
+		}
+
+		// Float type suffix, as accepted by Double.parseDouble
+		if (i < len) {
+			c = s.charAt(i);
+			if (c == 'f' || c == 'F' || c == 'd' || c == 'D') i++;
+		}
+		return (i == len) ? DOUBLE : STRING;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	/**
+	 * @param start - index of the first digit, after any sign
+	 */
+	private static boolean fitsInLong(String s, int start) {
+		while (start < s.length() - 1 && s.charAt(start) == '0') start++;
+		int digits = s.length() - start;
+		if (digits < 19) return true;
+		if (digits > 19) return false;
+
+		String max = (s.charAt(0) == '-') ? "9223372036854775808" : "9223372036854775807";
+		return s.substring(start).compareTo(max) <= 0;
+	}
+
+	/**
+	 * Only called on strings {@link #classify(String)} found to be LONG
+	 */
+	private static long parseLongUnchecked(String s) {
+		boolean neg = s.charAt(0) == '-';
+		int i = (neg || s.charAt(0) == '+') ? 1 : 0;
+		long result = 0;
+		for (; i < s.length(); i++) {
+			result = result * 10 - (s.charAt(i) - '0');
+		}
+		return neg ? result : -result;
+	}
+
+	/**
+	 * The value as the boxed type callers of {@link Configuration#getObject(String)} expect
+	 */
+	Object box() {
+		switch (type) {
+			case LONG: return Long.valueOf(longValue);
+			case DOUBLE: return Double.valueOf(doubleValue);
+			case BOOLEAN: return Boolean.valueOf(longValue != 0);
+			default: return text;
+		}
+	}
+
+	/**
+	 * @return the boxed value if o is a ConfigValue, or o itself
+	 */
+	static Object unwrap(Object o) {
+		return (o instanceof ConfigValue) ? ((ConfigValue) o).box() : o;
+	}
+
+	/**
+	 * Same text as the boxed value's toString, so saving is unchanged
+	 */
+	@Override
+	public String toString() {
+		switch (type) {
+			case LONG: return Long.toString(longValue);
+			case DOUBLE: return Double.toString(doubleValue);
+			case BOOLEAN: return Boolean.toString(longValue != 0);
+			default: return text;
+		}
+	}
+
+}
@@ -0,0 +1,173 @@
+package me.isaiah.multiworld.config;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Write-behind saving for {@link FileConfiguration}s.
+ *
+ * <p>{@link #markDirty(FileConfiguration)} only records that a file needs
+ * to be written. Changes made to the same file within {@link #DELAY_MS}
+ * are merged into a single write, done on a background thread.
+ *
+ * <p>Files are written to a temporary file next to the target and then
+ * renamed over it, so a crash mid-write leaves the old file intact.
+ */
+public final class ConfigWriter {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger("multiworld");
+
+	/**
+	 * How long to wait for more changes before writing
+	 */
+	public static final long DELAY_MS = 500;
+
+	private static final Map<File, Supplier<byte[]>> DIRTY = new ConcurrentHashMap<>();
+	private static final Map<File, Supplier<byte[]>> DIRTY_DERIVED = new ConcurrentHashMap<>();
+	private static final AtomicBoolean SCHEDULED = new AtomicBoolean();
+
+	private static final ScheduledExecutorService EXECUTOR = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread t = new Thread(r, "Multiworld-IO");
+		t.setDaemon(true);
+		return t;
+	});
+
+	static {
+		Runtime.getRuntime().addShutdownHook(new Thread(ConfigWriter::writeDirty, "Multiworld-IO-Shutdown"));
+	}
+
+	private ConfigWriter() {
+	}
+
+	/**
+	 * Queue a config to be written to its file.
+	 */
+	public static void markDirty(FileConfiguration config) {
+		File file = config.getFile();
+		if (null == file) {
+			throw new IllegalArgumentException("Configuration has no file to save to");
+		}
+		markDirty(file, () -> config.saveToString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Queue a config that is rendered later, ex: one that is not parsed yet.
+	 *
+	 * @param data - renders the file contents, called on the IO thread
+	 */
+	public static void markDirty(File file, Supplier<byte[]> data) {
+		DIRTY.put(file, data);
+		schedule();
+	}
+
+	/**
+	 * Queue a file that is built from other configs (ex: an index).
+	 * In each batch these are written after the plain configs, so they
+	 * see the final state of the files they describe.
+	 *
+	 * @param data - renders the file contents, called on the IO thread
+	 */
+	public static void markDerivedDirty(File file, Supplier<byte[]> data) {
+		DIRTY_DERIVED.put(file, data);
+		schedule();
+	}
+
+	private static void schedule() {
+		if (SCHEDULED.compareAndSet(false, true)) {
+			EXECUTOR.schedule(() -> {
+				SCHEDULED.set(false);
+				writeDirty();
+			}, DELAY_MS, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	/**
+	 * Drop a pending write, for when the file is about to be deleted.
+	 */
+	public static void cancel(File file) {
+		DIRTY.remove(file);
+	}
+
+	/**
+	 * Write everything that is still queued and wait for it to finish.
+	 * Called when the server is stopping.
+	 */
+	public static void flush() {
+		try {
+			EXECUTOR.submit(ConfigWriter::writeDirty).get(30, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException | TimeoutException e) {
+			LOGGER.error("Failed to flush multiworld configs", e);
+		}
+		// Anything the executor could not finish
+		writeDirty();
+	}
+
+	/**
+	 * @return the number of files waiting to be written
+	 */
+	public static int getPendingCount() {
+		return DIRTY.size() + DIRTY_DERIVED.size();
+	}
+
+	private static synchronized void writeDirty() {
+		writeAll(DIRTY);
+		writeAll(DIRTY_DERIVED);
+	}
+
+	private static void writeAll(Map<File, Supplier<byte[]>> dirty) {
+		Iterator<Map.Entry<File, Supplier<byte[]>>> it = dirty.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<File, Supplier<byte[]>> e = it.next();
+			it.remove();
+			try {
+				write(e.getKey(), e.getValue().get());
+			} catch (IOException | RuntimeException ex) {
+				LOGGER.error("Failed to save {}", e.getKey().getPath(), ex);
+			}
+		}
+	}
+
+	private static void write(File file, byte[] data) throws IOException {
+		File parent = file.getAbsoluteFile().getParentFile();
+		parent.mkdirs();
+
+		Path target = file.toPath();
+		Path tmp = new File(parent, file.getName() + ".tmp").toPath();
+		try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			ByteBuffer buf = ByteBuffer.wrap(data);
+			while (buf.hasRemaining()) {
+				ch.write(buf);
+			}
+			ch.force(true);
+		}
+		try {
+			Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+}
@@ -8,39 +8,71 @@ package me.isaiah.multiworld.config;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.regex.Pattern;
+import java.util.Set;
 
 @SuppressWarnings("unchecked")
 public class Configuration {
 
     protected LinkedHashMap<String, Object> contentMap;
 
+    /**
+     * The keys of {@link #contentMap} as a tree of sections
+     */
+    private SectionNode sections = new SectionNode();
+
     public Configuration() {
+        this.contentMap = new LinkedHashMap<>();
     }
 
     public Configuration(LinkedHashMap<String, Object> contentMap) {
         this.contentMap = contentMap;
+        this.reindex();
+    }
+
+    /**
+     * Rebuild the section tree from {@link #contentMap}
+     */
+    protected void reindex() {
+        this.sections = new SectionNode();
+        for (Map.Entry<String, Object> entry : contentMap.entrySet()) {
+            index(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void index(String key, Object value) {
+        if (!key.startsWith("#")) {
+            sections.put(key, value);
+        }
+    }
+
+    /**
+     * Store a value in both the key map and the section tree
+     */
+    protected void put(String key, Object value) {
+        contentMap.put(key, value);
+        index(key, value);
     }
 
     /**
      */
     public <T> T getOrDefault(String key, T defaul) {
-        Object val = contentMap.get(key);
+        Object val = ConfigValue.unwrap(contentMap.get(key));
         return val != null ? (T) val : defaul;
     }
 
     /**
      */
     public <T> T get(Class<T> type, String key) {
-        return (T) contentMap.get(key);
+        return (T) ConfigValue.unwrap(contentMap.get(key));
     }
 
     /**
      */
     public Object getObject(String key) {
-        return contentMap.get(key);
+        return ConfigValue.unwrap(contentMap.get(key));
     }
 
     /**
@@ -56,6 +88,12 @@ public class Configuration {
      */
     public boolean getBoolean(String key) {
         Object o = contentMap.get(key);
+        if (o instanceof ConfigValue) {
+            ConfigValue v = (ConfigValue) o;
+            if (v.type == ConfigValue.BOOLEAN) return v.longValue != 0;
+            if (v.type == ConfigValue.STRING) return Boolean.parseBoolean(v.text);
+            return false;
+        }
         if (o == null) return false;
         if (o instanceof Boolean) return (Boolean) o;
         if (o instanceof String) return Boolean.parseBoolean((String) o);
@@ -66,18 +104,16 @@ public class Configuration {
      */
     public int getInt(String key) {
         Object o = contentMap.get(key);
+        if (o instanceof ConfigValue) {
+            ConfigValue v = (ConfigValue) o;
+            if (v.type == ConfigValue.LONG) return (int) v.longValue;
+            if (v.type == ConfigValue.DOUBLE) return (int) v.doubleValue;
+            return 0;
+        }
         if (o == null) return 0;
         if (o instanceof Number) return ((Number) o).intValue();
-        if (o instanceof String) {
-            try {
-                return Integer.parseInt((String) o);
-            } catch (NumberFormatException e) {
-                try {
-                    return (int) Long.parseLong((String) o);
-                } catch (NumberFormatException ex) {
-                    return 0;
-                }
-            }
+        if (o instanceof String && ConfigValue.classify((String) o) == ConfigValue.LONG) {
+            return (int) Long.parseLong((String) o);
         }
         return 0;
     }
@@ -86,14 +122,16 @@ public class Configuration {
      */
     public double getDouble(String key) {
         Object o = contentMap.get(key);
+        if (o instanceof ConfigValue) {
+            ConfigValue v = (ConfigValue) o;
+            if (v.type == ConfigValue.LONG) return v.longValue;
+            if (v.type == ConfigValue.DOUBLE) return v.doubleValue;
+            return 0.0d;
+        }
         if (o == null) return 0.0d;
         if (o instanceof Number) return ((Number) o).doubleValue();
-        if (o instanceof String) {
-            try {
-                return Double.parseDouble((String) o);
-            } catch (NumberFormatException e) {
-                return 0.0d;
-            }
+        if (o instanceof String && ConfigValue.classify((String) o) != ConfigValue.STRING) {
+            return Double.parseDouble((String) o);
         }
         return 0.0d;
     }
@@ -102,18 +140,27 @@ public class Configuration {
      */
     public long getLong(String key) {
         Object o = contentMap.get(key);
+        if (o instanceof ConfigValue) {
+            ConfigValue v = (ConfigValue) o;
+            if (v.type == ConfigValue.LONG) return v.longValue;
+            if (v.type == ConfigValue.DOUBLE) return (long) v.doubleValue;
+            return 0L;
+        }
         if (o == null) return 0L;
         if (o instanceof Number) return ((Number) o).longValue();
-        if (o instanceof String) {
-            try {
-                return Long.parseLong((String) o);
-            } catch (NumberFormatException e) {
-                return 0L;
-            }
+        if (o instanceof String && ConfigValue.classify((String) o) == ConfigValue.LONG) {
+            return Long.parseLong((String) o);
         }
         return 0L;
     }
     
+    /**
+     * @return all keys, in file order
+     */
+    public Set<String> getKeys() {
+        return contentMap.keySet();
+    }
+
     /**
      */
     public boolean is_set(String key) {
@@ -126,8 +173,18 @@ public class Configuration {
      * 
      * @return the previous value, or null.
      */
-    public void set(String key, Object value) {
-        contentMap.put(key, value);
+    public synchronized void set(String key, Object value) {
+        put(key, value);
+    }
+
+    /**
+     * Remove a key. Sections left with no keys are removed too.
+     */
+    public synchronized void remove(String key) {
+        contentMap.remove(key);
+        if (!key.startsWith("#")) {
+            sections.remove(key);
+        }
     }
 
     public void save(File to) throws IOException {
@@ -137,35 +194,38 @@ public class Configuration {
     }
     
     /**
+     * @return true if the key exists, or has keys below it
      */
 	public boolean hasSection(String sect) {
-		for (String s : contentMap.keySet()) {
-			if (s.startsWith(sect)) {
-				return true;
-			}
-		}
-		return false;
+		return null != sections.find(sect);
 	}
 
+	/**
+	 * Get the direct children of a section, with their values.
+	 * Children that are only sections themselves map to null.
+	 */
 	public LinkedHashMap<String, Object> getSection(String sect) {
 	    LinkedHashMap<String, Object> contentMapSection = new LinkedHashMap<>();
-	    
-	    for (Map.Entry<String, Object> entry : contentMap.entrySet()) {
-	        if (entry.getKey().startsWith(sect)) {
-	        	
-	        	if (entry.getKey().startsWith(sect)) {
-
-	        		if (entry.getKey().indexOf('.') == -1) {
-	        			continue;
-	        		}
-	        		
-	        		String key2 =  entry.getKey().split(Pattern.quote("."))[1].split(Pattern.quote("."))[0];
-	        		contentMapSection.put(key2, entry.getValue());
-	        	}
-	        }
+
+	    SectionNode node = sections.find(sect);
+	    if (null == node || node.isLeaf()) {
+	    	return contentMapSection;
+	    }
+	    for (Map.Entry<String, SectionNode> entry : node.children.entrySet()) {
+	    	contentMapSection.put(entry.getKey(), ConfigValue.unwrap(entry.getValue().value));
 	    }
-	    
 	    return contentMapSection;
 	}
 
-}
\ No newline at end of file
+	/**
+	 * @return the names of the direct children of a section, in file order
+	 */
+	public Set<String> getSectionKeys(String sect) {
+		SectionNode node = sections.find(sect);
+		if (null == node || node.isLeaf()) {
+			return Collections.emptySet();
+		}
+		return Collections.unmodifiableSet(node.children.keySet());
+	}
+
+}
@@ -6,18 +6,24 @@
  */
 package me.isaiah.multiworld.config;
 
+import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class FileConfiguration extends Configuration {
 
     private File file;
 
-    private ArrayList<Integer> blanks;
+    private BitSet blanks = new BitSet();
 
     public FileConfiguration(LinkedHashMap<String, Object> contentMap) {
         super(contentMap);
@@ -37,89 +43,140 @@ public class FileConfiguration extends Configuration {
     
     public void loadFile(File f) throws IOException {
         this.file = f;
-        this.blanks = new ArrayList<>();
+        this.blanks = new BitSet();
         this.contentMap = new LinkedHashMap<>();
+        this.reindex();
 
         if ( !(f.isFile() && f.exists()) ) {
         	return;
         }
-        
-        List<String> list = Files.readAllLines(f.toPath());
-
-        String section = "";
-        int lastSpace = -1;
-        
-        for (int i = 0; i < list.size(); i++) {
-            String line = list.get(i);
-            if (line.startsWith("#")) {
-                contentMap.put(line + ":" + i, i);
-                continue;
-            }
-            if (line.isEmpty() || line.trim().isEmpty()) blanks.add(i);
 
-            if (line.indexOf(':') != -1) {
+        try (BufferedReader reader = Files.newBufferedReader(f.toPath(), StandardCharsets.UTF_8)) {
+            load(reader);
+        }
+    }
+
+    /**
+     * Single pass over the lines. Nested keys are tracked with a stack of
+     * open sections (indent + full path), so each line is only looked at once.
+     */
+    private void load(BufferedReader reader) throws IOException {
+        int[] indents = new int[8];
+        String[] paths = new String[8];
+        int depth = 0;
 
-                String[] spl = line.split("[:]");
-                String key = spl[0];
+        // Key with no value on its line; becomes a list if the next line starts with "-"
+        String pendingKey = null;
+        boolean pendingEmpty = false;
+        ArrayList<Object> list = null;
 
-                int sp = (key.length() - key.trim().length());
+        String line;
+        for (int i = 0; (line = reader.readLine()) != null; i++) {
+            String trimmed = line.trim();
 
-                if (sp > lastSpace) {
-                	lastSpace = sp;
-                	section += "." + key.trim();
-                }
-                
-                if (sp == lastSpace) {
-                	if (section.indexOf('.') != -1) {
-                		section = section.substring(0, section.lastIndexOf('.'));
-                		section += "." + key.trim();
-                	} else {
-                		section = key.trim();
-                	}
-                }
-                
-                if (sp < lastSpace) {
-                	lastSpace = sp;
-                	section = section.substring(0, section.lastIndexOf('.'));
-                	section = section.substring(0, section.lastIndexOf('.'));
-                	section += "." + key.trim();
-                }
-                
-                if (section.startsWith(".")) {
-                	section = section.substring(1);
+            if (null != list) {
+                if (trimmed.startsWith("-")) {
+                    list.add(parseListItem( trimmed.substring(1).trim() ));
+                    continue;
                 }
+                list = null;
+            }
 
-                key = section;
-                
-                if (spl.length == 1 || spl[1].trim().length() == 0) {
-                    if (i+1 < list.size() && list.get(i+1).trim().startsWith("-")) {
-                        ArrayList<Object> o = new ArrayList<>();
-                        int b = i;
-                        
-                        b++;
-                        while (b < list.size() && list.get(b).trim().startsWith("-")) {
-                            o.add(parseLine( list.get(b).trim().substring(1).trim() ));
-                            b++;
-                        }
-                        contentMap.put(key, o);
-                        continue;
-                    }
+            if (null != pendingKey) {
+                if (trimmed.startsWith("-")) {
+                    list = new ArrayList<>();
+                    list.add(parseListItem( trimmed.substring(1).trim() ));
+                    put(pendingKey, list);
+                    pendingKey = null;
+                    continue;
                 }
-                
-                if (spl.length == 1) {
-                	continue;
+                if (pendingEmpty) {
+                    put(pendingKey, "");
                 }
-                
-                String spl_1 = line.substring(line.indexOf(':') + 1);
-                contentMap.put(key, parseLine( spl_1.trim() ));
+                pendingKey = null;
+            }
+
+            if (line.startsWith("#")) {
+                put(line + ":" + i, i);
+                continue;
+            }
+            if (trimmed.isEmpty()) {
+                blanks.set(i);
+                continue;
+            }
+
+            int colon = line.indexOf(':');
+            if (colon == -1) {
+                continue;
             }
+
+            int sp = 0;
+            while (sp < colon && Character.isWhitespace(line.charAt(sp))) sp++;
+            String name = line.substring(sp, colon).trim();
+
+            // Close every section at the same or a deeper indent
+            while (depth > 0 && indents[depth - 1] >= sp) depth--;
+
+            String key = (depth == 0) ? name : paths[depth - 1] + "." + name;
+
+            if (depth == indents.length) {
+                indents = Arrays.copyOf(indents, depth * 2);
+                paths = Arrays.copyOf(paths, depth * 2);
+            }
+            indents[depth] = sp;
+            paths[depth] = key;
+            depth++;
+
+            String value = line.substring(colon + 1);
+            if (isOnlyColons(value)) {
+                // "key:" - a section header, or a list
+                pendingKey = key;
+                pendingEmpty = false;
+                continue;
+            }
+
+            value = value.trim();
+            if (value.isEmpty()) {
+                // "key: " - an empty value, or a list
+                pendingKey = key;
+                pendingEmpty = true;
+                continue;
+            }
+            put(key, parseLine(value));
         }
+
+        if (null != pendingKey && pendingEmpty) {
+            put(pendingKey, "");
+        }
+    }
+
+    private static boolean isOnlyColons(String str) {
+        for (int i = 0; i < str.length(); i++) {
+            if (str.charAt(i) != ':') return false;
+        }
+        return true;
+    }
+
+    /**
+     * The file this config was loaded from, or null.
+     */
+    public File getFile() {
+        return file;
     }
 
     @Override
     public void save() throws IOException {
         save(file);
     }
+
+    /**
+     * Queue this config to be written on the background IO thread.
+     * 
+     * @see ConfigWriter
+     */
+    public void saveAsync() {
+        ConfigWriter.markDirty(this);
+    }
     
     public static String getTextAfterLastDot(String str) {
         int lastIndex = str.lastIndexOf(".");
@@ -132,74 +189,122 @@ public class FileConfiguration extends Configuration {
 
     @Override
     public void save(File to) throws IOException {
-        ArrayList<String> s = new ArrayList<>();
-        int a = 0;
+        Files.write(to.toPath(), saveToString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Render this config in file form
+     */
+    public synchronized String saveToString() {
+        StringBuilder raw = new StringBuilder();
+        HashSet<String> sectSet = new HashSet<>();
+
+        for (Map.Entry<String, Object> entry : contentMap.entrySet()) {
+            String key = entry.getKey();
+            Object o = entry.getValue();
+
+            if (key.startsWith("#")) {
+                raw.append(key, 0, key.lastIndexOf(':')).append('\n');
+                continue;
+            }
 
-        ArrayList<String> sectSet = new ArrayList<>();
-        
-        for (String key : contentMap.keySet()) {
-            Object o = contentMap.get(key);
-            if (key.contains(".")) {
-                String[] k = key.split("[.]");
-                int spaces = 0;
-                String cc = "";
-                
-                for (String st : k) {
-                	cc += "." + st;
-                	if (cc.startsWith(".")) cc = cc.substring(1);
-                	
-                	if (sectSet.contains(cc)) {
-                		spaces += 4;
-                		continue;
-                	}
-                	sectSet.add(cc);
-
-                	for (int i = 0; i < spaces; i ++) s.add(" ");
-
-                    if (st.equals( key.substring(key.lastIndexOf('.')+1) )) {
-                        if (o instanceof List) {
-                            s.add( st + ": \n" );
-                            String sp = repeat(" ", spaces + 2);
-                            for (Object z : (List<?>)o) s.add(sp + "- " + z + "\n");
-                        } else if (key.startsWith("#")) s.add( st.substring(0,st.lastIndexOf(':')) + "\n" ); else s.add( st + ": " + o + "\n" );
+            if (key.indexOf('.') == -1) {
+                sectSet.add(key);
+                if (o instanceof List) {
+                    raw.append(key).append(": \n");
+                    for (Object z : (List<?>)o) raw.append("    - ").append(z).append('\n');
+                } else {
+                    raw.append(key).append(": ").append(o).append('\n');
+                }
+                continue;
+            }
+
+            // Trailing dots do not make a segment
+            int keyEnd = key.length();
+            while (keyEnd > 0 && key.charAt(keyEnd - 1) == '.') keyEnd--;
+
+            int spaces = 0;
+            int start = 0;
+            while (start <= keyEnd) {
+                int end = key.indexOf('.', start);
+                boolean leaf = (end == -1 || end >= keyEnd);
+                if (leaf) end = keyEnd;
+                String st = key.substring(start, end);
+                start = end + 1;
+
+                if (!sectSet.add(key.substring(0, end))) {
+                    // Section header already written
+                    spaces += 4;
+                    continue;
+                }
+
+                indent(raw, spaces);
+                if (leaf) {
+                    if (o instanceof List) {
+                        raw.append(st).append(": \n");
+                        for (Object z : (List<?>)o) {
+                            indent(raw, spaces + 2);
+                            raw.append("- ").append(z).append('\n');
+                        }
                     } else {
-                    	s.add( st + ": " + "\n" );
+                        raw.append(st).append(": ").append(o).append('\n');
                     }
-                    spaces += 4;
+                } else {
+                    raw.append(st).append(": \n");
                 }
-            } else {
-            	sectSet.add(key);
-                if (o instanceof List) {
-                    s.add( key + ": \n" );
-                    for (Object z : (List<?>)o) s.add("    - " + z + "\n");
-                } else if (key.startsWith("#")) s.add( key.substring(0,key.lastIndexOf(':')) + "\n" ); else s.add( key + ": " + o + "\n" );
+                spaces += 4;
             }
-            a++;
         }
-        String raw = "";
-        for (String r : s) raw += r;
-        String zz = "";
-        a = 0;
-        for (String z : raw.split("\n")) {
-            if (blanks.contains(a)) {
-                zz += "\n";
+
+        return insertBlanks(raw);
+    }
+
+    /**
+     * Put back the blank lines that were in the loaded file
+     */
+    private String insertBlanks(CharSequence raw) {
+        int len = raw.length();
+
+        // Trailing empty lines are dropped
+        while (len > 0 && raw.charAt(len - 1) == '\n') len--;
+        if (len == 0 && raw.length() > 0) {
+            return "";
+        }
+
+        StringBuilder out = new StringBuilder(raw.length() + blanks.cardinality() + 1);
+        int a = 0;
+        int start = 0;
+        while (start <= len) {
+            int nl = start;
+            while (nl < len && raw.charAt(nl) != '\n') nl++;
+
+            if (blanks.get(a)) {
+                out.append('\n');
                 a++;
             }
-            zz += z + "\n";
+            out.append(raw, start, nl).append('\n');
             a++;
+            start = nl + 1;
         }
-        Files.write(to.toPath(), zz.getBytes());
+        return out.toString();
+    }
+
+    private static void indent(StringBuilder sb, int spaces) {
+        for (int i = 0; i < spaces; i++) sb.append(' ');
     }
 
+    /**
+     * Type a value from the file, see {@link ConfigValue#parse(String)}
+     */
     private Object parseLine(String val) {
-        if (val.equalsIgnoreCase("true") || val.equalsIgnoreCase("false")) return Boolean.valueOf(val);
-        else {
-            // Prefer Long first to reduce int/long type inconsistencies across saves/loads
-            try { return Long.valueOf(val);   } catch (NumberFormatException ignore){}
-            try { return Integer.valueOf(val);} catch (NumberFormatException ignore){}
-            try { return Double.valueOf(val); } catch (NumberFormatException ignore){}
-            return val;
-        }
+        return ConfigValue.parse(val);
+    }
+
+    /**
+     * List items are handed out as-is, so they are stored boxed
+     */
+    private Object parseListItem(String val) {
+        return ConfigValue.parse(val).box();
     }
     
     public String repeat(String str, int n) {
@@ -0,0 +1,102 @@
+/**
+ * Isaiah's Configuration File Format
+ * Tiny two file YAML-like configuration parser
+ *
+ * Unlicense
+ */
+package me.isaiah.multiworld.config;
+
+import java.util.LinkedHashMap;
+
+/**
+ * One level of the section tree kept next to the flat key map of a
+ * {@link Configuration}. "portals.p1.owner" is stored as
+ * root -&gt; "portals" -&gt; "p1" -&gt; "owner".
+ */
+final class SectionNode {
+
+	LinkedHashMap<String, SectionNode> children;
+
+	boolean hasValue;
+	Object value;
+
+	/**
+	 * Find the node for a dotted path, or null
+	 */
+	SectionNode find(String path) {
+		SectionNode node = this;
+		int start = 0;
+		while (null != node) {
+			int end = path.indexOf('.', start);
+			if (end == -1) end = path.length();
+
+			node = node.child(path.substring(start, end));
+			if (end == path.length()) {
+				return node;
+			}
+			start = end + 1;
+		}
+		return null;
+	}
+
+	/**
+	 * Set the value of a dotted path, creating the parent sections
+	 */
+	void put(String path, Object value) {
+		SectionNode node = this;
+		int start = 0;
+		while (true) {
+			int end = path.indexOf('.', start);
+			if (end == -1) end = path.length();
+
+			String name = path.substring(start, end);
+			SectionNode next = node.child(name);
+			if (null == next) {
+				next = new SectionNode();
+				if (null == node.children) {
+					node.children = new LinkedHashMap<>(4);
+				}
+				node.children.put(name, next);
+			}
+			node = next;
+
+			if (end == path.length()) {
+				break;
+			}
+			start = end + 1;
+		}
+		node.hasValue = true;
+		node.value = value;
+	}
+
+	/**
+	 * Clear the value of a dotted path, dropping sections left empty
+	 */
+	void remove(String path) {
+		int dot = path.indexOf('.');
+		String name = (dot == -1) ? path : path.substring(0, dot);
+
+		SectionNode node = child(name);
+		if (null == node) {
+			return;
+		}
+		if (dot == -1) {
+			node.hasValue = false;
+			node.value = null;
+		} else {
+			node.remove(path.substring(dot + 1));
+		}
+		if (!node.hasValue && node.isLeaf()) {
+			children.remove(name);
+		}
+	}
+
+	SectionNode child(String name) {
+		return (null == children) ? null : children.get(name);
+	}
+
+	boolean isLeaf() {
+		return null == children || children.isEmpty();
+	}
+
+}
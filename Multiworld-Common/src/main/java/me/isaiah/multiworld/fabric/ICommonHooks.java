@@ -9,6 +9,7 @@ import me.isaiah.multiworld.I18n;
 import me.isaiah.multiworld.MultiworldMod;
 import me.isaiah.multiworld.command.PortalCommand;
 import me.isaiah.multiworld.portal.Portal;
+import me.isaiah.multiworld.world.ParallelTicks;
 import net.fabricmc.loader.api.FabricLoader;
 import net.fabricmc.loader.api.ModContainer;
 import net.minecraft.entity.Entity;
@@ -71,15 +72,18 @@ public class ICommonHooks {
 				if (isInside) {
 					I18n.message((ServerPlayerEntity) entity, I18n.TELEPORTING);
 					
-					BlockPos dest = p.getDestLocation();
-					
-					MultiworldMod.get_world_creator().teleleport(
-							(ServerPlayerEntity) entity,
-							p.getDestWorld(),
-							dest.getX(),
-							dest.getY(),
-							dest.getZ()
-					);
+					// Cross-world, so on the server thread when this world is ticked in parallel.
+					// Finding the destination can load or restore the destination world.
+					ParallelTicks.runOnMain(() -> {
+						BlockPos dest = p.getDestLocation();
+						MultiworldMod.get_world_creator().teleleport(
+								(ServerPlayerEntity) entity,
+								p.getDestWorld(),
+								dest.getX(),
+								dest.getY(),
+								dest.getZ()
+						);
+					});
 					
 					ev.setCanceled(true);
 					return;
@@ -3,7 +3,6 @@ package me.isaiah.multiworld.portal;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Set;
 import java.util.StringJoiner;
@@ -13,6 +12,7 @@ import me.isaiah.multiworld.MultiworldMod;
 import me.isaiah.multiworld.command.PortalCommand;
 import me.isaiah.multiworld.command.SpawnCommand;
 import me.isaiah.multiworld.config.FileConfiguration;
+import me.isaiah.multiworld.world.WorldActivator;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.Blocks;
 import net.minecraft.block.NetherPortalBlock;
@@ -130,45 +130,38 @@ public class Portal {
      * Load an existing saved portals from config (YAML) 
      */
 	public static int reinit_portals_from_config(MinecraftServer mc) {
-		File config_dir = new File("config");
-        config_dir.mkdirs();
-        
-        File cf = new File(config_dir, "multiworld"); 
-        cf.mkdirs();
-
-        File wc = new File(cf, "portals.yml");
         FileConfiguration config;
         try {
-			if (!wc.exists()) {
-				wc.createNewFile();
-				return 0;
-			}
-            config = new FileConfiguration(wc);
+            portals_config = null;
+            config = get_portals_config();
             
             if (!config.hasSection("portals")) {
             	MultiworldMod.LOGGER.info("No save portals to load");
             	return 0;
             }
 
-            LinkedHashMap <String, Object> sect = config.getSection("portals");
-            Set<String> keys = sect.keySet();
+            Set<String> keys = config.getSectionKeys("portals");
             
             int loaded = 0;
             for (String name : keys) {
             	
-        		String prefix = "portals." + name;
+        		// One lookup for all of the portal's values
+        		LinkedHashMap<String, Object> data = config.getSection("portals." + name);
             	
-        		String owner = config.getString(prefix + ".owner");
-        		String location = config.getString(prefix + ".location");
-        		String world = config.getString(prefix + ".world");
-        		String dest = config.getString(prefix + ".destination");
+        		String owner = string_value(data.get("owner"));
+        		String location = string_value(data.get("location"));
+        		String world = string_value(data.get("world"));
+        		String dest = string_value(data.get("destination"));
         		
         		Identifier worldIn = MultiworldMod.new_id(world);
         		
         		Portal p = new Portal(name, owner, worldIn, dest, location);
         		
-        		// Refresh Portal Frame
-        		p.buildPortalArea(p.getMinPos(), p.getMaxPos(), p.getOriginWorld());
+        		// Refresh Portal Frame, worlds restored later are done by refresh_portal_frames
+        		ServerWorld origin = p.getOriginWorld();
+        		if (null != origin) {
+        			p.buildPortalArea(p.getMinPos(), p.getMaxPos(), origin);
+        		}
         		
             	PortalCommand.addKnownPortal(name, p);
             	loaded += 1;
@@ -181,40 +174,65 @@ public class Portal {
         return 0;
 	}
 
-	public void save() throws IOException {
-		File config_dir = new File("config");
-        config_dir.mkdirs();
-        
-        File cf = new File(config_dir, "multiworld"); 
-        cf.mkdirs();
+	/**
+	 * Refresh the frames of the portals in a world that was just created
+	 */
+	public static void refresh_portal_frames(ServerWorld world) {
+		Identifier id = world.getRegistryKey().getValue();
+		for (Portal p : PortalCommand.KNOWN_PORTALS.values()) {
+			if (id.equals(p.getOriginWorldId())) {
+				p.buildPortalArea(p.getMinPos(), p.getMaxPos(), world);
+			}
+		}
+	}
 
-        String name = this.getName();
-		String prefix = "portals." + name;
+	private static String string_value(Object o) {
+		return (null == o) ? null : String.valueOf(o);
+	}
 
-        File wc = new File(cf, "portals.yml");
-        FileConfiguration config;
-        try {
+	/**
+	 * The cached portals.yml, loaded on first use.
+	 */
+	private static FileConfiguration portals_config;
+
+	/**
+	 * Get the in-memory "config/multiworld/portals.yml"
+	 */
+	public static FileConfiguration get_portals_config() throws IOException {
+		if (null == portals_config) {
+			File cf = new File(new File("config"), "multiworld");
+			cf.mkdirs();
+
+			File wc = new File(cf, "portals.yml");
 			if (!wc.exists()) {
 				wc.createNewFile();
 			}
-            config = new FileConfiguration(wc);
+			portals_config = new FileConfiguration(wc);
+		}
+		return portals_config;
+	}
+
+	/**
+	 * Store this portal in portals.yml. The write is done in the background.
+	 */
+	public void save() throws IOException {
+        String name = this.getName();
+		String prefix = "portals." + name;
 
-            // Copied from Multiverse-Portals 5.0.3
-			config.set(prefix + ".entryfee.amount", 0.0);
-			config.set(prefix + ".safeteleport", true);
-			config.set(prefix + ".teleportnonplayers", false);
-			config.set(prefix + ".handlerscript", "''");
+        FileConfiguration config = get_portals_config();
 
-			config.set(prefix + ".owner", this.getOwner()); // player
-			config.set(prefix + ".location", this.getLocationConfigString()); // x1,y1,z1:x2,y2,z2
-			config.set(prefix + ".world", this.getOriginWorldId());
-			config.set(prefix + ".destination", this.getDestination());
+        // Copied from Multiverse-Portals 5.0.3
+		config.set(prefix + ".entryfee.amount", 0.0);
+		config.set(prefix + ".safeteleport", true);
+		config.set(prefix + ".teleportnonplayers", false);
+		config.set(prefix + ".handlerscript", "''");
 
-			config.save();
-        } catch (Exception e) {
-            // e.printStackTrace();
-            throw e;
-        }
+		config.set(prefix + ".owner", this.getOwner()); // player
+		config.set(prefix + ".location", this.getLocationConfigString()); // x1,y1,z1:x2,y2,z2
+		config.set(prefix + ".world", this.getOriginWorldId());
+		config.set(prefix + ".destination", this.getDestination());
+
+		config.saveAsync();
 	}
 	
 	/**
@@ -357,7 +375,7 @@ public class Portal {
 			// Portal Dest
 			Portal pp = PortalCommand.getKnownPortal( name.split(Pattern.quote("p:"))[1] );
 			if (null != pp) {
-				return pp.getOriginWorld();
+				return WorldActivator.activate(MultiworldMod.mc, pp.getOriginWorldId().toString());
 			}
 		}
 		
@@ -367,28 +385,17 @@ public class Portal {
 		
 		if (name.indexOf(':') == -1) name = "multiworld:" + name;
 		
-		HashMap<String,ServerWorld> worlds = new HashMap<>();
-        MultiworldMod.mc.getWorldRegistryKeys().forEach(r -> {
-            ServerWorld world = MultiworldMod.mc.getWorld(r);
-            worlds.put(r.getValue().toString(), world);
-        });
-        
-        ServerWorld w = worlds.get(name);
+		// Loads the world if it was not used yet
+		ServerWorld w = WorldActivator.activate(MultiworldMod.mc, name);
         // BlockPos sp = SpawnCommand.getSpawn(w);
 		return w;
 	}
 	
 	/**
+	 * @return the world this portal is in, or null if it is not loaded
 	 */
 	public ServerWorld getOriginWorld() {
-		String name = this.getOriginWorldId().toString();
-		HashMap<String,ServerWorld> worlds = new HashMap<>();
-        MultiworldMod.mc.getWorldRegistryKeys().forEach(r -> {
-            ServerWorld world = MultiworldMod.mc.getWorld(r);
-            worlds.put(r.getValue().toString(), world);
-        });
-        ServerWorld w = worlds.get(name);
-		return w;
+		return WorldActivator.getLoaded(MultiworldMod.mc, this.getOriginWorldId().toString());
 	}
 	
 	@Deprecated
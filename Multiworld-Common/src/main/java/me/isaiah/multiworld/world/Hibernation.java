@@ -0,0 +1,207 @@
+package me.isaiah.multiworld.world;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.Settings;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Stops ticking worlds that had no players for a while.
+ *
+ * <p>Once a world is empty for "hibernate_after_seconds" (config.yml, or
+ * "hibernate_after" in the world's config) it starts draining: it keeps
+ * ticking so the tickets left by players and portals expire and their
+ * chunks unload. When the loaded chunk count stops going down the world
+ * is saved and no longer ticked. Chunks still loaded at that point are
+ * held by forced (or spawn) tickets, they stay in memory but are not ticked.
+ *
+ * <p>A hibernating world wakes when it is targeted by "/mw tp", a portal or
+ * a joining player (see {@link WorldActivator#activate(MinecraftServer, String)}),
+ * or when any player ends up in it.
+ *
+ * <p>Vanilla worlds never hibernate. All methods except
+ * {@link #isHibernating(ServerWorld)} must be called on the server thread.
+ */
+public final class Hibernation {
+
+	/**
+	 * Seconds the loaded chunk count must stay the same to count as drained
+	 */
+	private static final int DRAIN_SETTLE_SECONDS = 5;
+
+	/**
+	 * Seconds a world may take to drain before it hibernates anyway
+	 */
+	private static final int DRAIN_TIMEOUT_SECONDS = 60;
+
+	private static final Map<ServerWorld, Idle> IDLE = new HashMap<>();
+	private static final Set<ServerWorld> HIBERNATING = ConcurrentHashMap.newKeySet();
+	private static int ticks;
+
+	private Hibernation() {
+	}
+
+	/**
+	 * Called at the end of every server tick, checks the worlds once a second
+	 */
+	public static void onTickEnd(MinecraftServer mc) {
+		if (++ticks < 20) {
+			return;
+		}
+		ticks = 0;
+
+		Set<ServerWorld> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (ServerWorld world : mc.getWorlds()) {
+			if (isVanilla(world) || WorldActivator.isUnloading(id(world))) {
+				continue;
+			}
+			seen.add(world);
+
+			if (!world.getPlayers().isEmpty()) {
+				wake(world);
+				continue;
+			}
+			if (HIBERNATING.contains(world)) {
+				continue;
+			}
+
+			Idle idle = IDLE.computeIfAbsent(world, w -> new Idle());
+			idle.seconds++;
+			if (idle.draining) {
+				drain(world, idle);
+			} else if (isEnabled(world) && idle.seconds >= getAfterSeconds(world)) {
+				idle.draining = true;
+				MultiworldMod.LOGGER.debug("World {} is empty, unloading its chunks before hibernating", id(world));
+			}
+		}
+
+		// Worlds deleted or unloaded since the last check
+		IDLE.keySet().retainAll(seen);
+		HIBERNATING.retainAll(seen);
+	}
+
+	private static void drain(ServerWorld world, Idle idle) {
+		int chunks = world.getChunkManager().getLoadedChunkCount();
+		idle.drainSeconds++;
+		if (chunks == idle.lastChunks) {
+			idle.stableSeconds++;
+		} else {
+			idle.stableSeconds = 0;
+			idle.lastChunks = chunks;
+		}
+
+		if (chunks == 0 || idle.stableSeconds >= DRAIN_SETTLE_SECONDS || idle.drainSeconds >= DRAIN_TIMEOUT_SECONDS) {
+			enter(world, chunks);
+		}
+	}
+
+	private static void enter(ServerWorld world, int chunks) {
+		world.save(null, false, false);
+		HIBERNATING.add(world);
+		MultiworldMod.LOGGER.info("World {} is hibernating ({} chunk(s) kept loaded)", id(world), chunks);
+	}
+
+	/**
+	 * Start draining a world now, without waiting for its idle time
+	 *
+	 * @return false if the world has players or is a vanilla world
+	 */
+	public static boolean hibernate(ServerWorld world) {
+		if (isVanilla(world) || !world.getPlayers().isEmpty()) {
+			return false;
+		}
+		if (!HIBERNATING.contains(world)) {
+			Idle idle = IDLE.computeIfAbsent(world, w -> new Idle());
+			idle.draining = true;
+		}
+		return true;
+	}
+
+	/**
+	 * Resume ticking a world, and reset its idle time
+	 */
+	public static void wake(ServerWorld world) {
+		IDLE.remove(world);
+		if (HIBERNATING.remove(world)) {
+			MultiworldMod.LOGGER.info("Woke world {} from hibernation", id(world));
+		}
+	}
+
+	/**
+	 * Forget a world that is being deleted or unloaded
+	 */
+	public static void forget(ServerWorld world) {
+		IDLE.remove(world);
+		HIBERNATING.remove(world);
+	}
+
+	/**
+	 * Safe to call from any thread
+	 */
+	public static boolean isHibernating(ServerWorld world) {
+		return HIBERNATING.contains(world);
+	}
+
+	/**
+	 * If the world hibernates when empty, from its own config or config.yml
+	 */
+	public static boolean isEnabled(ServerWorld world) {
+		WorldMeta meta = WorldMetaRegistry.get(world);
+		if (null != meta && null != meta.getHibernate()) {
+			return meta.getHibernate().booleanValue();
+		}
+		return Settings.hibernateIdleWorlds;
+	}
+
+	/**
+	 * Seconds the world must be empty before it hibernates
+	 */
+	public static int getAfterSeconds(ServerWorld world) {
+		WorldMeta meta = WorldMetaRegistry.get(world);
+		if (null != meta && meta.getHibernateAfter() > 0) {
+			return meta.getHibernateAfter();
+		}
+		return Math.max(1, Settings.hibernateAfterSeconds);
+	}
+
+	/**
+	 * Short state for commands, ex: "awake", "empty for 42s", "draining", "hibernating"
+	 */
+	public static String getState(ServerWorld world) {
+		if (HIBERNATING.contains(world)) {
+			return "hibernating";
+		}
+		Idle idle = IDLE.get(world);
+		if (null == idle) {
+			return "awake";
+		}
+		return idle.draining ? "draining" : "empty for " + idle.seconds + "s";
+	}
+
+	private static boolean isVanilla(ServerWorld world) {
+		return world.getRegistryKey().getValue().getNamespace().equals("minecraft");
+	}
+
+	private static String id(ServerWorld world) {
+		return world.getRegistryKey().getValue().toString();
+	}
+
+	/**
+	 * How long an empty world has been empty, and how far it is in draining
+	 */
+	private static final class Idle {
+		int seconds;
+		boolean draining;
+		int drainSeconds;
+		int lastChunks = -1;
+		int stableSeconds;
+	}
+
+}
@@ -0,0 +1,210 @@
+package me.isaiah.multiworld.world;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.Settings;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.crash.CrashException;
+import net.minecraft.util.crash.CrashReport;
+
+/**
+ * Ticks worlds created by Multiworld on a fork-join pool, at the same time
+ * ("parallel_world_ticking" in config.yml, off by default).
+ *
+ * <p>The vanilla worlds come first in {@code MinecraftServer#tickWorlds} and
+ * are still ticked on the server thread. Each Multiworld world is then handed
+ * to the pool instead of being ticked (see {@link WorldTicks}), and the
+ * server thread waits for all of them in {@link #join(MinecraftServer)}
+ * before it ticks the network and players. Nothing else runs on the server
+ * thread while the worlds tick, so the next tick's overworld, commands and
+ * packets always see finished worlds.
+ *
+ * <p>While waiting the server thread runs the chunk tasks of worlds that are
+ * not being ticked, so a world that loads a chunk in another world does not
+ * block, see {@link #await(CompletableFuture)}. The worker that ticks a world counts as that world's server thread for
+ * chunk access. Work that must run on the server thread, like portals, entities
+ * changing worlds and command blocks, is passed to {@link #runOnMain(Runnable)}
+ * and runs once all worlds are done.
+ *
+ * <p>Shared server state (scoreboard, /debug and /perf profiling on 1.21.1
+ * and older, ...) is not made thread safe, so this is meant for worlds that
+ * mostly keep to themselves.
+ */
+public final class ParallelTicks {
+
+	private static final ThreadLocal<ServerWorld> TICKING = new ThreadLocal<>();
+	private static final Set<ServerWorld> ACTIVE = ConcurrentHashMap.newKeySet();
+	private static final ConcurrentLinkedQueue<Runnable> MAIN_QUEUE = new ConcurrentLinkedQueue<>();
+	private static final List<Future<?>> PENDING = new ArrayList<>();
+	private static volatile Throwable failure;
+	private static volatile ServerWorld failedWorld;
+	private static ForkJoinPool pool;
+	private static boolean inWorldLoop;
+
+	private ParallelTicks() {
+	}
+
+	/**
+	 * Tick the world on the pool instead of the calling thread
+	 *
+	 * @return true if the world was handed to the pool, and must not be ticked by the caller
+	 */
+	static boolean fork(ServerWorld world, BooleanSupplier shouldKeepTicking) {
+		if (!inWorldLoop || !Settings.parallelWorldTicking || !world.getServer().isOnThread() || !isEligible(world)) {
+			return false;
+		}
+
+		ACTIVE.add(world);
+		PENDING.add(getPool().submit(() -> {
+			TICKING.set(world);
+			try {
+				world.tick(shouldKeepTicking);
+			} catch (Throwable t) {
+				if (null == failure) {
+					failedWorld = world;
+					failure = t;
+				}
+			} finally {
+				TICKING.remove();
+				ACTIVE.remove(world);
+			}
+		}));
+		return true;
+	}
+
+	/**
+	 * Called on the server thread at the start of {@code MinecraftServer#tickWorlds}.
+	 * Worlds ticked outside of the world loop (ex: right after being created)
+	 * are never forked.
+	 */
+	public static void begin() {
+		inWorldLoop = true;
+	}
+
+	/**
+	 * The barrier: wait for all forked worlds, then run the queued server thread work.
+	 * Called on the server thread after the world loop of {@code MinecraftServer#tickWorlds}.
+	 */
+	public static void join(MinecraftServer mc) {
+		inWorldLoop = false;
+		if (!PENDING.isEmpty()) {
+			while (!ACTIVE.isEmpty()) {
+				boolean worked = false;
+				for (ServerWorld world : mc.getWorlds()) {
+					if (!ACTIVE.contains(world)) {
+						worked |= world.getChunkManager().executeQueuedTasks();
+					}
+				}
+				if (!worked) {
+					LockSupport.parkNanos(20_000L);
+				}
+			}
+			for (Future<?> f : PENDING) {
+				try {
+					f.get();
+				} catch (Exception e) {
+					MultiworldMod.LOGGER.error("World tick task failed", e);
+				}
+			}
+			PENDING.clear();
+		}
+
+		Throwable t = failure;
+		if (null != t) {
+			ServerWorld world = failedWorld;
+			failure = null;
+			failedWorld = null;
+			CrashReport report = CrashReport.create(t, "Exception ticking world " + world.getRegistryKey().getValue());
+			throw new CrashException(report);
+		}
+
+		Runnable task;
+		while (null != (task = MAIN_QUEUE.poll())) {
+			task.run();
+		}
+	}
+
+	/**
+	 * Run work that needs the server thread: right away on the server thread,
+	 * or at the barrier when called while a world is ticked on the pool.
+	 */
+	public static void runOnMain(Runnable task) {
+		if (null == TICKING.get()) {
+			task.run();
+		} else {
+			MAIN_QUEUE.add(task);
+		}
+	}
+
+	/**
+	 * Wait for a chunk of another world. Called from {@code ServerChunkManager#getChunk}.
+	 *
+	 * <p>The chunk is loaded by the other world's server thread: its pool thread
+	 * if it is ticked too, otherwise the server thread in {@link #join(MinecraftServer)}.
+	 * While waiting a pool thread runs the chunk tasks of its own world, so two worlds
+	 * loading chunks in each other do not wait on each other forever.
+	 */
+	public static <T> T await(CompletableFuture<T> future) {
+		ServerWorld own = TICKING.get();
+		if (null != own) {
+			while (!future.isDone()) {
+				if (!own.getChunkManager().executeQueuedTasks()) {
+					LockSupport.parkNanos(20_000L);
+				}
+			}
+		}
+		return future.join();
+	}
+
+	/**
+	 * @return true if the calling thread is a pool thread ticking this world
+	 */
+	public static boolean isTicking(ServerWorld world) {
+		return TICKING.get() == world;
+	}
+
+	/**
+	 * @return true if the calling thread is ticking any world on the pool
+	 */
+	public static boolean isWorkerThread() {
+		return null != TICKING.get();
+	}
+
+	/**
+	 * Worlds created by Multiworld, the vanilla worlds are always ticked on the server thread
+	 */
+	private static boolean isEligible(ServerWorld world) {
+		return !world.getRegistryKey().getValue().getNamespace().equals("minecraft")
+				&& null != WorldMetaRegistry.get(world);
+	}
+
+	private static ForkJoinPool getPool() {
+		if (null == pool) {
+			int threads = Settings.parallelTickThreads > 0 ? Settings.parallelTickThreads
+					: Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+			ClassLoader loader = ParallelTicks.class.getClassLoader();
+			pool = new ForkJoinPool(threads, p -> {
+				ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+				t.setName("Multiworld-Tick-" + t.getPoolIndex());
+				t.setDaemon(true);
+				t.setContextClassLoader(loader);
+				return t;
+			}, null, false);
+			MultiworldMod.LOGGER.info("Ticking Multiworld worlds in parallel on " + threads + " thread(s)");
+		}
+		return pool;
+	}
+
+}
@@ -0,0 +1,16 @@
+package me.isaiah.multiworld.world;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The entity and POI storages of a world, given this interface by a mixin in each
+ * module as the type of their IO worker changed in 1.20.5. See {@link WorldCloner}
+ */
+public interface PendingWrites {
+
+	/**
+	 * @return completed once the writes queued so far are done
+	 */
+	CompletableFuture<Void> multiworld$completeAll();
+
+}
@@ -0,0 +1,80 @@
+package me.isaiah.multiworld.world;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.UUID;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.command.Util;
+import me.isaiah.multiworld.config.FileConfiguration;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+/**
+ * The multiworld world each player was in when they logged out
+ * ("config/multiworld/players.yml").
+ *
+ * <p>When a player's world does not exist yet at login, the server moves
+ * them to the overworld and their saved dimension is lost. This record lets
+ * the world be created and the player moved back into it. Recording also
+ * updates {@link WorldMeta#getLastVisited()}.
+ */
+public final class PlayerWorlds {
+
+	private static FileConfiguration config;
+
+	private PlayerWorlds() {
+	}
+
+	private static FileConfiguration getConfig() throws IOException {
+		if (null == config) {
+			File file = new File(new File(Util.get_platform_config_dir(), "multiworld"), "players.yml");
+			file.getParentFile().mkdirs();
+			config = new FileConfiguration(file);
+		}
+		return config;
+	}
+
+	/**
+	 * @return the world id the player logged out in, or null if it was a vanilla world
+	 */
+	public static String get(UUID uuid) {
+		try {
+			return getConfig().getString(uuid.toString());
+		} catch (IOException e) {
+			MultiworldMod.LOGGER.error("Could not read players.yml", e);
+			return null;
+		}
+	}
+
+	/**
+	 * Remember the world the player is in now
+	 */
+	public static void record(ServerPlayerEntity plr) {
+		try {
+			FileConfiguration cfg = getConfig();
+			String key = plr.getUuid().toString();
+			String world = plr.getWorld().getRegistryKey().getValue().toString();
+
+			if (world.startsWith("minecraft:")) {
+				if (cfg.is_set(key)) {
+					cfg.remove(key);
+					cfg.saveAsync();
+				}
+				return;
+			}
+			if (!world.equals(cfg.getString(key))) {
+				cfg.set(key, world);
+				cfg.saveAsync();
+			}
+
+			WorldMeta meta = WorldMetaRegistry.get(plr.getWorld());
+			if (null != meta) {
+				meta.setLastVisited(System.currentTimeMillis());
+				meta.save();
+			}
+		} catch (IOException e) {
+			MultiworldMod.LOGGER.error("Could not save players.yml", e);
+		}
+	}
+
+}
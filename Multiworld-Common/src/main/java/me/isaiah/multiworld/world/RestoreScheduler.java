@@ -0,0 +1,558 @@
+package me.isaiah.multiworld.world;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.command.CreateCommand;
+import me.isaiah.multiworld.command.PortalCommand;
+import me.isaiah.multiworld.portal.Portal;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+
+/**
+ * Restores saved worlds a few at a time, spread over many server ticks.
+ *
+ * <p>Every platform calls {@link #onTickStart(MinecraftServer)} and
+ * {@link #onTickEnd()} each tick. The time the server spends on its own
+ * work (MSPT) is measured, and restores only use what is left of the
+ * 50ms tick. When the server is busy restores slow down but never stop,
+ * so every queued world is eventually restored or reported as failed.
+ *
+ * <p>The next few worlds are prepared ahead of time on the
+ * {@link WorldSpec#getPreparePool() prepare pool}; the server thread only
+ * commits worlds whose {@link WorldSpec} is ready. The dimensions of all
+ * worlds that became ready in a tick are added together with
+ * {@link WorldSpec#register(MinecraftServer, List)}, before any is committed.
+ *
+ * <p>Worlds are restored in order of demand:
+ * <ol>
+ * <li>{@link #DEMAND}: a player is waiting for the world right now</li>
+ * <li>{@link #PORTAL}: a portal close to the spawn of a loaded world leads there</li>
+ * <li>{@link #VISITED}: the world was visited before, most recent first</li>
+ * <li>{@link #COLD}: everything else</li>
+ * </ol>
+ * A world that is needed before its turn can skip the queue with
+ * {@link #restoreNow(MinecraftServer, String)}.
+ */
+public final class RestoreScheduler {
+
+	/**
+	 * Wait ~3s after server start before the first restore (at 20 TPS)
+	 */
+	public static int START_DELAY_TICKS = 60;
+
+	/**
+	 * Restores never take more than this per tick
+	 */
+	public static long MAX_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(25);
+
+	/**
+	 * Time of a tick at 20 TPS, and what to keep free of it
+	 */
+	private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+	private static final long RESERVE_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+
+	/**
+	 * Restore at least one world this often, no matter how busy the server is
+	 */
+	private static final int MAX_IDLE_TICKS = 20;
+
+	/**
+	 * Failed worlds are retried this many times before giving up
+	 */
+	private static final int MAX_ATTEMPTS = 2;
+
+	/**
+	 * How many worlds may be prepared ahead of the one being committed
+	 */
+	private static final int PREFETCH = 8;
+
+	/**
+	 * How long {@link #restoreNow(MinecraftServer, String)} waits for
+	 * a world that is already being prepared
+	 */
+	private static final long PREPARE_WAIT_MILLIS = 2000;
+
+	/**
+	 * Portals within this many blocks of a world's spawn count as "near spawn"
+	 */
+	private static final int NEAR_SPAWN_BLOCKS = 256;
+
+	private static final long REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+	// Priority classes, lower is restored first
+	public static final int DEMAND = 0;
+	public static final int PORTAL = 1;
+	public static final int VISITED = 2;
+	public static final int COLD = 3;
+
+	/**
+	 * Entries are never removed from the heap; an entry is out of date
+	 * once {@link #QUEUED} holds another entry for its id.
+	 */
+	private static final PriorityQueue<Queued> QUEUE = new PriorityQueue<>();
+	private static final Map<String, Queued> QUEUED = new HashMap<>();
+	private static final ArrayDeque<InFlight> IN_FLIGHT = new ArrayDeque<>();
+	private static final Map<String, Integer> ATTEMPTS = new LinkedHashMap<>();
+	private static final List<String> FAILED = new ArrayList<>();
+
+	private static long sequence;
+	private static int delayLeft;
+	private static int idleTicks;
+	private static int total;
+	private static int restored;
+
+	private static long startedAt;
+	private static long lastReport;
+
+	// Moving averages
+	private static long avgRestoreNanos = TimeUnit.MILLISECONDS.toNanos(20);
+	private static long avgMsptNanos = TimeUnit.MILLISECONDS.toNanos(25);
+
+	private static long tickStart;
+	private static long spentThisTick;
+
+	private RestoreScheduler() {
+	}
+
+	/**
+	 * Queue worlds to be restored, after {@link #START_DELAY_TICKS}
+	 */
+	public static void enqueue(Collection<String> ids) {
+		if (null == ids || ids.isEmpty()) {
+			return;
+		}
+		if (isIdle()) {
+			QUEUE.clear();
+			delayLeft = START_DELAY_TICKS;
+			total = 0;
+			restored = 0;
+			FAILED.clear();
+			startedAt = 0;
+		}
+		Set<String> nearSpawn = new HashSet<>();
+		for (ServerWorld world : MultiworldMod.mc.getWorlds()) {
+			nearSpawn.addAll(getPortalDestinationsNearSpawn(world));
+		}
+
+		for (String id : ids) {
+			if (!isPending(id)) {
+				add(id, nearSpawn.contains(id) ? PORTAL : -1);
+				total++;
+			}
+		}
+		MultiworldMod.LOGGER.info("Queued " + ids.size() + " world(s) to restore");
+	}
+
+	/**
+	 * @param priority - the priority class, or -1 to rank by the last visit
+	 */
+	private static void add(String id, int priority) {
+		long lastVisited = 0;
+		WorldMeta meta = WorldMetaRegistry.get(MultiworldMod.new_id(id));
+		if (null != meta) {
+			lastVisited = meta.getLastVisited();
+		}
+		if (priority < 0) {
+			priority = (lastVisited > 0) ? VISITED : COLD;
+		}
+		Queued q = new Queued(id, priority, lastVisited, sequence++);
+		QUEUED.put(id, q);
+		QUEUE.add(q);
+	}
+
+	/**
+	 * Move a queued world up to the given priority class.
+	 * Does nothing if it is not queued or already ranked higher.
+	 */
+	public static void boost(String id, int priority) {
+		Queued q = QUEUED.get(id);
+		if (null == q || q.priority <= priority) {
+			return;
+		}
+		Queued boosted = new Queued(id, priority, q.lastVisited, q.sequence);
+		QUEUED.put(id, boosted);
+		QUEUE.add(boosted);
+	}
+
+	/**
+	 * Worlds that portals near the spawn of world lead to
+	 */
+	private static Set<String> getPortalDestinationsNearSpawn(ServerWorld world) {
+		Set<String> ids = new HashSet<>();
+		if (PortalCommand.KNOWN_PORTALS.isEmpty()) {
+			return ids;
+		}
+
+		BlockPos spawn = MultiworldMod.get_world_creator().get_spawn(world);
+		WorldMeta meta = WorldMetaRegistry.get(world);
+		if (null != meta && meta.hasSpawnPos()) {
+			spawn = BlockPos.fromLong(meta.getSpawnPos());
+		}
+
+		for (Portal p : PortalCommand.KNOWN_PORTALS.values()) {
+			if (!world.getRegistryKey().getValue().equals(p.getOriginWorldId())) continue;
+
+			BlockPos min = p.getMinPos();
+			if (Math.abs(min.getX() - spawn.getX()) <= NEAR_SPAWN_BLOCKS
+					&& Math.abs(min.getZ() - spawn.getZ()) <= NEAR_SPAWN_BLOCKS) {
+				ids.add(p.getDestWorldName());
+			}
+		}
+		return ids;
+	}
+
+	/**
+	 * Take the next up to date entry off the heap
+	 */
+	private static String pollQueue() {
+		Queued q;
+		while (null != (q = QUEUE.poll())) {
+			if (QUEUED.get(q.id) == q) {
+				QUEUED.remove(q.id);
+				return q.id;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return true if id is still waiting to be restored
+	 */
+	public static boolean isPending(String id) {
+		if (QUEUED.containsKey(id)) {
+			return true;
+		}
+		for (InFlight f : IN_FLIGHT) {
+			if (f.id.equals(id)) return true;
+		}
+		return false;
+	}
+
+	private static boolean isIdle() {
+		return QUEUED.isEmpty() && IN_FLIGHT.isEmpty();
+	}
+
+	/**
+	 * Called at the start of every server tick
+	 */
+	public static void onTickStart(MinecraftServer mc) {
+		tickStart = System.nanoTime();
+		spentThisTick = 0;
+
+		if (isIdle()) {
+			return;
+		}
+		if (delayLeft > 0) {
+			delayLeft--;
+			return;
+		}
+		if (startedAt == 0) {
+			startedAt = lastReport = tickStart;
+		}
+
+		prefetch(mc);
+		register(mc);
+
+		long budget = getBudgetNanos();
+		if (budget < avgRestoreNanos && idleTicks < MAX_IDLE_TICKS) {
+			// Not enough room this tick
+			idleTicks++;
+			return;
+		}
+		idleTicks = 0;
+
+		int done = 0;
+		while (!IN_FLIGHT.isEmpty() && IN_FLIGHT.peek().future.isDone()) {
+			if (done > 0 && spentThisTick + avgRestoreNanos > budget) break;
+
+			InFlight next = IN_FLIGHT.poll();
+			String id = next.id;
+			long s = System.nanoTime();
+			boolean ok = commit(mc, next);
+			long took = System.nanoTime() - s;
+
+			spentThisTick += took;
+			avgRestoreNanos = (avgRestoreNanos * 7 + took) / 8;
+			if (ok) {
+				MultiworldMod.LOGGER.info("Restored world {} in {} ms", id, TimeUnit.NANOSECONDS.toMillis(took));
+			}
+			done++;
+			prefetch(mc);
+		}
+		register(mc);
+
+		report();
+	}
+
+	/**
+	 * Called at the end of every server tick
+	 */
+	public static void onTickEnd() {
+		if (tickStart == 0) {
+			return;
+		}
+		// Only count the server's own work, not ours
+		long mspt = System.nanoTime() - tickStart - spentThisTick;
+		avgMsptNanos = (avgMsptNanos * 15 + Math.max(0, mspt)) / 16;
+	}
+
+	/**
+	 * Time restores may use this tick
+	 */
+	public static long getBudgetNanos() {
+		long free = TICK_NANOS - RESERVE_NANOS - avgMsptNanos;
+		return Math.max(0, Math.min(MAX_BUDGET_NANOS, free));
+	}
+
+	/**
+	 * Start preparing queued worlds until {@link #PREFETCH} are in flight
+	 */
+	private static void prefetch(MinecraftServer mc) {
+		if (QUEUED.isEmpty() || IN_FLIGHT.size() >= PREFETCH) {
+			return;
+		}
+		WorldSpec.setupServer(mc);
+		while (!QUEUED.isEmpty() && IN_FLIGHT.size() < PREFETCH) {
+			String id = pollQueue();
+			WorldSpec spec = CreateCommand.spec_from_config(id);
+			if (null == spec) {
+				failed(id);
+				continue;
+			}
+			IN_FLIGHT.add(new InFlight(id, WorldSpec.getPreparePool().submit(() -> spec.prepare(mc))));
+		}
+	}
+
+	/**
+	 * Add the dimensions of every prepared world not added yet in one go
+	 */
+	private static void register(MinecraftServer mc) {
+		List<WorldSpec> specs = new ArrayList<>();
+		for (InFlight f : IN_FLIGHT) {
+			if (f.registered || !f.future.isDone() || f.future.isCancelled()) continue;
+			f.registered = true;
+			try {
+				specs.add(f.future.get());
+			} catch (Exception e) {
+				// Reported when the world is committed
+			}
+		}
+		if (specs.isEmpty()) {
+			return;
+		}
+		long s = System.nanoTime();
+		try {
+			WorldSpec.register(mc, specs);
+		} catch (Exception e) {
+			// Each world is still added on its own when committed
+			MultiworldMod.LOGGER.error("Failed to register " + specs.size() + " world(s) at once", e);
+		}
+		spentThisTick += System.nanoTime() - s;
+	}
+
+	private static boolean commit(MinecraftServer mc, InFlight next) {
+		String id = next.id;
+		ServerWorld world = null;
+		try {
+			world = next.future.get().commit(mc);
+		} catch (ExecutionException e) {
+			MultiworldMod.LOGGER.error("Failed to prepare world " + id, e.getCause());
+		} catch (Exception e) {
+			MultiworldMod.LOGGER.error("Failed to restore world " + id, e);
+		}
+		return done(id, world);
+	}
+
+	/**
+	 * Count a restore, and requeue or give up on the world if it failed
+	 */
+	private static boolean done(String id, ServerWorld world) {
+		if (null != world) {
+			restored++;
+			ATTEMPTS.remove(id);
+			Portal.refresh_portal_frames(world);
+
+			// Players will likely walk through the portals at its spawn next
+			for (String dest : getPortalDestinationsNearSpawn(world)) {
+				boost(dest, PORTAL);
+			}
+			return true;
+		}
+		failed(id);
+		return false;
+	}
+
+	/**
+	 * Restore a queued world now, ahead of the rest of the queue.
+	 * If it is already being prepared, waits briefly for that to finish.
+	 *
+	 * @return the world, or null if it could not be restored
+	 */
+	public static ServerWorld restoreNow(MinecraftServer mc, String id) {
+		WorldSpec spec = null;
+		if (null != QUEUED.remove(id)) {
+			spec = CreateCommand.spec_from_config(id);
+			if (null == spec) {
+				failed(id);
+				return null;
+			}
+		} else {
+			InFlight f = null;
+			Iterator<InFlight> it = IN_FLIGHT.iterator();
+			while (it.hasNext()) {
+				InFlight next = it.next();
+				if (next.id.equals(id)) {
+					f = next;
+					it.remove();
+					break;
+				}
+			}
+			if (null == f) {
+				// Not waiting to be restored
+				return WorldActivator.getLoaded(mc, id);
+			}
+
+			try {
+				spec = f.future.get(PREPARE_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException e) {
+				// Still waiting for the pool; prepare it here instead
+				f.future.cancel(false);
+				spec = CreateCommand.spec_from_config(id);
+			} catch (Exception e) {
+				MultiworldMod.LOGGER.error("Failed to prepare world " + id, e);
+			}
+			if (null == spec) {
+				failed(id);
+				return null;
+			}
+		}
+
+		long s = System.nanoTime();
+		ServerWorld world = null;
+		try {
+			// Prepares on this thread if it was not yet
+			world = spec.commit(mc);
+		} catch (Exception e) {
+			MultiworldMod.LOGGER.error("Failed to restore world " + id, e);
+		}
+		if (done(id, world)) {
+			MultiworldMod.LOGGER.info("Restored world {} ahead of the queue in {} ms", id,
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - s));
+		}
+		report();
+		return world;
+	}
+
+	private static void failed(String id) {
+		int attempts = ATTEMPTS.merge(id, 1, Integer::sum);
+		if (attempts < MAX_ATTEMPTS) {
+			MultiworldMod.LOGGER.warn("Will retry restoring world " + id + " later");
+			add(id, COLD);
+		} else {
+			MultiworldMod.LOGGER.error("Giving up on world " + id + " after " + attempts + " attempts");
+			ATTEMPTS.remove(id);
+			FAILED.add(id);
+		}
+	}
+
+	private static void report() {
+		long now = System.nanoTime();
+		if (isIdle()) {
+			long secs = (startedAt == 0) ? 0 : TimeUnit.NANOSECONDS.toSeconds(now - startedAt);
+			MultiworldMod.LOGGER.info("Restored " + restored + "/" + total + " worlds in " + secs + "s");
+			if (!FAILED.isEmpty()) {
+				MultiworldMod.LOGGER.error("Could not restore " + FAILED.size() + " world(s): " + FAILED);
+			}
+			startedAt = 0;
+			return;
+		}
+		if (now - lastReport >= REPORT_INTERVAL_NANOS) {
+			lastReport = now;
+			MultiworldMod.LOGGER.info(getStatus());
+		}
+	}
+
+	/**
+	 * @return restored/total, remaining count and estimated time left
+	 */
+	public static String getStatus() {
+		if (isIdle()) {
+			return FAILED.isEmpty() ? "No worlds waiting to restore" : "Could not restore: " + FAILED;
+		}
+		int left = QUEUED.size() + IN_FLIGHT.size();
+		String eta = "unknown";
+		if (startedAt != 0 && restored > 0) {
+			long perWorld = (System.nanoTime() - startedAt) / restored;
+			eta = TimeUnit.NANOSECONDS.toSeconds(perWorld * left) + "s";
+		}
+		return "Restoring worlds: " + restored + "/" + total + " done, " + left
+				+ " left, ETA " + eta + " (MSPT " + TimeUnit.NANOSECONDS.toMillis(avgMsptNanos) + "ms)";
+	}
+
+	/**
+	 * @return ids of worlds that could not be restored
+	 */
+	public static List<String> getFailed() {
+		return new ArrayList<>(FAILED);
+	}
+
+	/**
+	 * A world waiting in the queue
+	 */
+	private static final class Queued implements Comparable<Queued> {
+		final String id;
+		final int priority;
+		final long lastVisited;
+		final long sequence;
+
+		Queued(String id, int priority, long lastVisited, long sequence) {
+			this.id = id;
+			this.priority = priority;
+			this.lastVisited = lastVisited;
+			this.sequence = sequence;
+		}
+
+		@Override
+		public int compareTo(Queued o) {
+			if (priority != o.priority) {
+				return Integer.compare(priority, o.priority);
+			}
+			if (lastVisited != o.lastVisited) {
+				// Most recent first
+				return Long.compare(o.lastVisited, lastVisited);
+			}
+			return Long.compare(sequence, o.sequence);
+		}
+	}
+
+	/**
+	 * A world whose spec is being prepared
+	 */
+	private static final class InFlight {
+		final String id;
+		final Future<WorldSpec> future;
+		boolean registered;
+
+		InFlight(String id, Future<WorldSpec> future) {
+			this.id = id;
+			this.future = future;
+		}
+	}
+
+}
@@ -0,0 +1,63 @@
+package me.isaiah.multiworld.world;
+
+import java.util.Locale;
+
+/**
+ * Priority class of a world for the {@link TickScheduler}.
+ *
+ * <p>Each class lists the tick interval it is deferred to at every
+ * load level of the scheduler, from "a bit over budget" to "far over budget".
+ * Lobby worlds are never deferred.
+ */
+public enum TickPriority {
+
+	LOBBY(1, 1, 1),
+	SURVIVAL(1, 1, 2),
+	BUILD(1, 2, 4),
+	BACKGROUND(4, 10, 20);
+
+	/**
+	 * Highest load level of the scheduler
+	 */
+	public static final int MAX_LEVEL = 3;
+
+	private final int[] intervals;
+
+	TickPriority(int... intervals) {
+		this.intervals = intervals;
+	}
+
+	/**
+	 * @param level - load level of the scheduler, 0 when under budget
+	 * @return tick every this many server ticks
+	 */
+	public int getInterval(int level) {
+		if (level <= 0) {
+			return 1;
+		}
+		return intervals[Math.min(level, MAX_LEVEL) - 1];
+	}
+
+	/**
+	 * Name used in configs and commands, ex: "lobby"
+	 */
+	public String getName() {
+		return name().toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * @return the priority with this name, or null
+	 */
+	public static TickPriority of(String name) {
+		if (null == name) {
+			return null;
+		}
+		for (TickPriority p : values()) {
+			if (p.name().equalsIgnoreCase(name.trim())) {
+				return p;
+			}
+		}
+		return null;
+	}
+
+}
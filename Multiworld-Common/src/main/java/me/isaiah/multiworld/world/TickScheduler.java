@@ -0,0 +1,263 @@
+package me.isaiah.multiworld.world;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.Settings;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Defers low priority worlds when the server is over its tick budget
+ * ("tick_scheduler" in config.yml, off by default).
+ *
+ * <p>The length of every server tick is measured around
+ * {@code MinecraftServer#tick}. Once a second the average is compared
+ * to "tick_budget_ms": over budget the load level goes up by one, and after
+ * {@link #CALM_SECONDS} seconds under 80% of the budget it goes down by one.
+ * At each level a world is ticked at the interval of its {@link TickPriority},
+ * worlds of the same class are spread over different server ticks.
+ *
+ * <p>A world is never skipped for more than {@link #MAX_SKIP} server ticks (or its
+ * "tick_interval" if longer), so every world still ticks at least once a second
+ * however loaded the server is.
+ *
+ * <p>A world that takes more than "quarantine_mspt" per tick on average
+ * (ex: a lag machine) is quarantined: it ticks every {@link #QUARANTINE_INTERVAL}
+ * server ticks for {@link #QUARANTINE_SECONDS} seconds, whatever the load.
+ * Lobby and vanilla worlds are never deferred or quarantined.
+ *
+ * <p>Called on the server thread from {@link WorldTicks}.
+ */
+public final class TickScheduler {
+
+	public static final int MAX_SKIP = 20;
+	public static final int QUARANTINE_INTERVAL = 10;
+	public static final int QUARANTINE_SECONDS = 60;
+	public static final int CALM_SECONDS = 5;
+
+	private static final Map<ServerWorld, Entry> ENTRIES = new ConcurrentHashMap<>();
+
+	private static int level;
+	private static int calm;
+	private static long tickStart;
+	private static long windowNanos;
+	private static int windowTicks;
+	private static double lastAverage;
+
+	private TickScheduler() {
+	}
+
+	/**
+	 * @return false to skip the world this server tick
+	 */
+	static boolean shouldTick(ServerWorld world) {
+		if (!Settings.tickScheduler || isVanilla(world)) {
+			return true;
+		}
+		Entry e = ENTRIES.computeIfAbsent(world, Entry::new);
+		int now = world.getServer().getTicks();
+		// Only called on the server ticks of the world's "tick_interval", the deferred
+		// world ticks on one of every few of those, in the same slots as WorldTicks
+		int base = WorldTicks.getInterval(world);
+		int interval = getDeferral(e, base);
+		if (interval <= 1 || WorldTicks.isSlot(world, base * interval)
+				|| now - e.lastTick >= Math.max(MAX_SKIP, base)) {
+			e.lastTick = now;
+			return true;
+		}
+		e.deferred++;
+		return false;
+	}
+
+	/**
+	 * Called at the start of {@code MinecraftServer#tick}
+	 */
+	public static void onServerTickStart() {
+		tickStart = System.nanoTime();
+	}
+
+	/**
+	 * Called at the end of {@code MinecraftServer#tick}
+	 */
+	public static void onServerTickEnd(MinecraftServer mc) {
+		if (0 == tickStart) {
+			return;
+		}
+		windowNanos += System.nanoTime() - tickStart;
+		tickStart = 0;
+		if (++windowTicks < 20) {
+			return;
+		}
+
+		lastAverage = windowNanos / (double) windowTicks / 1_000_000D;
+		windowNanos = 0;
+		windowTicks = 0;
+		if (!Settings.tickScheduler) {
+			level = 0;
+			return;
+		}
+
+		if (lastAverage > Settings.tickBudgetMs) {
+			calm = 0;
+			if (level < TickPriority.MAX_LEVEL) {
+				level++;
+				MultiworldMod.LOGGER.info(String.format("Server ticks take %.1f ms, deferring low priority worlds (level %d)", lastAverage, level));
+			}
+		} else if (lastAverage < Settings.tickBudgetMs * 0.8D) {
+			if (level > 0 && ++calm >= CALM_SECONDS) {
+				calm = 0;
+				level--;
+				MultiworldMod.LOGGER.info("Server ticks are back under budget, scheduler level " + level);
+			}
+		} else {
+			calm = 0;
+		}
+
+		checkRunaways(mc);
+	}
+
+	/**
+	 * Quarantine worlds that take too long per tick, release the ones that served their time
+	 */
+	private static void checkRunaways(MinecraftServer mc) {
+		int now = mc.getTicks();
+		for (Entry e : ENTRIES.values()) {
+			if (e.quarantinedUntil != 0 && now >= e.quarantinedUntil) {
+				e.quarantinedUntil = 0;
+				MultiworldMod.LOGGER.info("World " + e.id + " is no longer quarantined");
+			}
+			if (Settings.quarantineMspt <= 0 || e.quarantinedUntil != 0 || e.priority == TickPriority.LOBBY) {
+				continue;
+			}
+			double mspt = WorldStats.getMspt(e.world, WorldStats.WINDOW / 2);
+			if (mspt >= Settings.quarantineMspt) {
+				e.quarantinedUntil = now + QUARANTINE_SECONDS * 20;
+				MultiworldMod.LOGGER.warn(String.format("World %s takes %.1f ms per tick, quarantined to every %d ticks for %ds",
+						e.id, mspt, QUARANTINE_INTERVAL, QUARANTINE_SECONDS));
+			}
+		}
+	}
+
+	private static int getInterval(Entry e) {
+		if (e.priority == TickPriority.LOBBY) {
+			return 1;
+		}
+		int interval = e.priority.getInterval(level);
+		return e.quarantinedUntil != 0 ? Math.max(interval, QUARANTINE_INTERVAL) : interval;
+	}
+
+	/**
+	 * @param base the world's "tick_interval"
+	 * @return on one of how many of its ticks the world is ticked
+	 */
+	private static int getDeferral(Entry e, int base) {
+		return Math.min(getInterval(e), Math.max(1, MAX_SKIP / base));
+	}
+
+	/**
+	 * Read the priority of a world again, after its config changed
+	 */
+	public static void refresh(ServerWorld world) {
+		Entry e = ENTRIES.get(world);
+		if (null != e) {
+			e.priority = getPriority(world);
+		}
+	}
+
+	/**
+	 * The priority of a world, from its config or "default_priority"
+	 */
+	public static TickPriority getPriority(ServerWorld world) {
+		WorldMeta meta = WorldMetaRegistry.get(world);
+		TickPriority p = null == meta ? null : TickPriority.of(meta.getPriority());
+		if (null == p) {
+			p = TickPriority.of(Settings.defaultPriority);
+		}
+		return null == p ? TickPriority.SURVIVAL : p;
+	}
+
+	/**
+	 * @return true if the world is quarantined
+	 */
+	public static boolean isQuarantined(ServerWorld world) {
+		Entry e = ENTRIES.get(world);
+		return null != e && e.quarantinedUntil != 0;
+	}
+
+	/**
+	 * Lift the quarantine of a world
+	 */
+	public static void release(ServerWorld world) {
+		Entry e = ENTRIES.get(world);
+		if (null != e) {
+			e.quarantinedUntil = 0;
+		}
+	}
+
+	/**
+	 * A short description for "/mw stats", ex: "deferred to every 4 ticks"
+	 */
+	public static String getState(ServerWorld world) {
+		if (!Settings.tickScheduler || isVanilla(world)) {
+			return "not scheduled";
+		}
+		Entry e = ENTRIES.get(world);
+		if (null == e) {
+			return "not ticked yet";
+		}
+		int interval = getDeferral(e, WorldTicks.getInterval(world));
+		String state = interval <= 1 ? "full rate" : "deferred to every " + interval + " ticks";
+		if (e.quarantinedUntil != 0) {
+			int left = Math.max(0, (e.quarantinedUntil - world.getServer().getTicks()) / 20);
+			state += ", quarantined for " + left + "s";
+		}
+		return state + ", " + e.deferred + " ticks deferred";
+	}
+
+	/**
+	 * @return the load level, 0 when the server is under budget
+	 */
+	public static int getLevel() {
+		return level;
+	}
+
+	/**
+	 * @return the average server tick time of the last second, in milliseconds
+	 */
+	public static double getAverageTickMs() {
+		return lastAverage;
+	}
+
+	/**
+	 * Forget a world that is being deleted or unloaded
+	 */
+	public static void forget(ServerWorld world) {
+		ENTRIES.remove(world);
+	}
+
+	private static boolean isVanilla(ServerWorld world) {
+		return world.getRegistryKey().getValue().getNamespace().equals("minecraft");
+	}
+
+	private static final class Entry {
+		final ServerWorld world;
+		final String id;
+		TickPriority priority;
+		/**
+		 * Server tick the world was last let through on
+		 */
+		int lastTick;
+		long deferred;
+		int quarantinedUntil;
+
+		Entry(ServerWorld world) {
+			this.world = world;
+			this.id = world.getRegistryKey().getValue().toString();
+			this.priority = getPriority(world);
+			this.lastTick = world.getServer().getTicks();
+		}
+	}
+
+}
@@ -0,0 +1,222 @@
+package me.isaiah.multiworld.world;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.command.CreateCommand;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * Saved worlds that are known but not created yet ("lazy_worlds" in config.yml).
+ *
+ * <p>A dormant world is only its {@link WorldMeta}: it is listed by
+ * "/mw list" and tab-complete, but no {@link ServerWorld} exists for it.
+ * The world is created through Fantasy the first time it is needed:
+ * "/mw tp", a portal leading to it, or a player logging in who left
+ * the server while in it.
+ *
+ * <p>The same is done for worlds still queued in the {@link RestoreScheduler},
+ * so a player never has to wait for the rest of the queue.
+ *
+ * <p>Worlds unloaded with "/mw unload" become dormant again once Fantasy
+ * has removed them, their files and config are kept.
+ *
+ * <p>All methods must be called on the server thread.
+ */
+public final class WorldActivator {
+
+	private static final Set<String> DORMANT = new LinkedHashSet<>();
+	private static final Map<String, ServerWorld> UNLOADING = new LinkedHashMap<>();
+
+	private WorldActivator() {
+	}
+
+	/**
+	 * Register saved worlds without creating them
+	 */
+	public static void addDormant(Collection<String> ids) {
+		DORMANT.addAll(ids);
+		MultiworldMod.LOGGER.info("Registered " + ids.size() + " world(s), they will be loaded on first use");
+	}
+
+	/**
+	 * Register one saved world without creating it
+	 */
+	public static void add(String id) {
+		DORMANT.add(id);
+	}
+
+	public static boolean isDormant(String id) {
+		return DORMANT.contains(id);
+	}
+
+	/**
+	 * @return ids of the worlds not created yet
+	 */
+	public static List<String> getDormant() {
+		return new ArrayList<>(DORMANT);
+	}
+
+	/**
+	 * Forget a dormant world, i.e. when it is deleted
+	 */
+	public static void remove(String id) {
+		DORMANT.remove(id);
+		UNLOADING.remove(id);
+	}
+
+	/**
+	 * @return true if "/mw unload" was used on the world and it is not removed yet
+	 */
+	public static boolean isUnloading(String id) {
+		return UNLOADING.containsKey(id);
+	}
+
+	/**
+	 * Unload a world but keep its files and config. Players in it are moved
+	 * to the overworld spawn and the world is saved. Fantasy removes it once
+	 * its chunks are unloaded, it is then dormant until used again.
+	 *
+	 * @return false if this version can not unload worlds
+	 */
+	public static boolean unload(MinecraftServer mc, ServerWorld world) {
+		String id = world.getRegistryKey().getValue().toString();
+		if (!MultiworldMod.get_world_creator().unload_world(id)) {
+			return false;
+		}
+		UNLOADING.put(id, world);
+
+		ServerWorld overworld = mc.getOverworld();
+		BlockPos spawn = MultiworldMod.get_world_creator().get_spawn(overworld);
+		for (ServerPlayerEntity plr : new ArrayList<>(world.getPlayers())) {
+			MultiworldMod.get_world_creator().teleleport(plr, overworld, spawn.getX() + 0.5, spawn.getY(), spawn.getZ() + 0.5);
+		}
+
+		// Chunks only unload while the world ticks
+		Hibernation.forget(world);
+		WorldTicks.forget(world);
+		WorldStats.forget(world);
+		TickScheduler.forget(world);
+		WorldQuotas.forget(world);
+		WorldDistances.forget(world);
+		world.save(null, false, false);
+
+		// Forced chunks never unload. Only their tickets are released, the chunks
+		// stay forced in the saved world and are loaded again with it
+		setForcedTickets(world, false);
+		return true;
+	}
+
+	private static void setForcedTickets(ServerWorld world, boolean forced) {
+		for (long pos : world.getForcedChunks().toLongArray()) {
+			world.getChunkManager().setChunkForced(new ChunkPos(pos), forced);
+		}
+	}
+
+	/**
+	 * Called at the end of every server tick, moves unloaded worlds to dormant
+	 */
+	public static void onTickEnd(MinecraftServer mc) {
+		if (UNLOADING.isEmpty()) {
+			return;
+		}
+		Iterator<Map.Entry<String, ServerWorld>> it = UNLOADING.entrySet().iterator();
+		while (it.hasNext()) {
+			Map.Entry<String, ServerWorld> e = it.next();
+			if (getLoaded(mc, e.getKey()) != e.getValue()) {
+				it.remove();
+				DORMANT.add(e.getKey());
+				MultiworldMod.LOGGER.info("Unloaded world " + e.getKey());
+			}
+		}
+	}
+
+	/**
+	 * Get a loaded world by id
+	 *
+	 * @return the world, or null if it is not loaded
+	 */
+	public static ServerWorld getLoaded(MinecraftServer mc, String id) {
+		for (ServerWorld world : mc.getWorlds()) {
+			if (world.getRegistryKey().getValue().toString().equals(id)) {
+				return world;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get a world by id, creating it first if it is dormant or still
+	 * waiting in the {@link RestoreScheduler} queue, and waking it
+	 * if it is hibernating (see {@link Hibernation}).
+	 *
+	 * @return the world, or null if there is no such world or it could not be created
+	 */
+	public static ServerWorld activate(MinecraftServer mc, String id) {
+		ServerWorld world = load(mc, id);
+		if (null != world) {
+			Hibernation.wake(world);
+		}
+		return world;
+	}
+
+	private static ServerWorld load(MinecraftServer mc, String id) {
+		if (WorldResets.isSwapping(id)) {
+			// Its files are being replaced by "/mw reset"
+			return null;
+		}
+		ServerWorld unloading = UNLOADING.remove(id);
+		if (null != unloading) {
+			// Opening it again takes it off Fantasy's unload queue
+			if (getLoaded(mc, id) == unloading) {
+				setForcedTickets(unloading, true);
+			}
+			DORMANT.add(id);
+		}
+		if (RestoreScheduler.isPending(id)) {
+			return RestoreScheduler.restoreNow(mc, id);
+		}
+		if (!DORMANT.remove(id)) {
+			return getLoaded(mc, id);
+		}
+
+		long start = System.nanoTime();
+		if (!CreateCommand.reinit_world_from_config(mc, id)) {
+			MultiworldMod.LOGGER.error("Could not load world " + id);
+			return null;
+		}
+		MultiworldMod.LOGGER.info("Loaded world {} on first use in {} ms", id,
+				TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+		return getLoaded(mc, id);
+	}
+
+	/**
+	 * Move a joining player back into the world they logged out in,
+	 * if it had to be created for them.
+	 */
+	public static void onPlayerJoin(MinecraftServer mc, ServerPlayerEntity plr) {
+		String last = PlayerWorlds.get(plr.getUuid());
+		if (null == last || !(isDormant(last) || RestoreScheduler.isPending(last))) {
+			return;
+		}
+
+		ServerWorld world = activate(mc, last);
+		if (null != world && world != plr.getWorld()) {
+			// The saved position is kept, only the world was missing
+			MultiworldMod.get_world_creator().teleleport(plr, world, plr.getX(), plr.getY(), plr.getZ());
+		}
+	}
+
+}
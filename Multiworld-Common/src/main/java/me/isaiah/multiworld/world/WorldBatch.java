@@ -0,0 +1,151 @@
+package me.isaiah.multiworld.world;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.command.CreateCommand;
+import me.isaiah.multiworld.portal.Portal;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Creates many worlds at once, ex: all plots of a plot server.
+ *
+ * <p>All specs are prepared on the {@link WorldSpec#getPreparePool() prepare pool}.
+ * Then, on the server thread, the dimensions of all of them are added with
+ * {@link WorldSpec#register(MinecraftServer, List)}, so the dimension registry
+ * is unfrozen once instead of once per world.
+ *
+ * <p>The worlds themselves are committed from {@link #onTickStart(MinecraftServer)},
+ * as many per tick as the {@link RestoreScheduler#getBudgetNanos() restore budget}
+ * allows and at least one, so a large batch does not stall the server.
+ */
+public final class WorldBatch {
+
+	private static final ArrayDeque<Batch> BATCHES = new ArrayDeque<>();
+
+	private WorldBatch() {
+	}
+
+	/**
+	 * Create worlds. Must be called on the server thread.
+	 *
+	 * <p>Worlds without a config get one written, like with "/mw create".
+	 * A world that fails to prepare or to be created is logged and left out.
+	 *
+	 * @return the created worlds in the order of specs, completed on the server thread
+	 *         once the last one is created
+	 */
+	public static CompletableFuture<List<ServerWorld>> createWorlds(MinecraftServer mc, List<WorldSpec> specs) {
+		Batch batch = new Batch(specs.size());
+		if (specs.isEmpty()) {
+			batch.result.complete(batch.worlds);
+			return batch.result;
+		}
+
+		WorldSpec.setupServer(mc);
+		List<CompletableFuture<WorldSpec>> prepared = new ArrayList<>();
+		for (WorldSpec spec : specs) {
+			CompletableFuture<WorldSpec> f = CompletableFuture.supplyAsync(() -> spec.prepare(mc), WorldSpec.getPreparePool());
+			prepared.add(f.exceptionally(e -> {
+				MultiworldMod.LOGGER.error("Failed to prepare world " + spec.id, e);
+				return null;
+			}));
+		}
+
+		CompletableFuture.allOf(prepared.toArray(new CompletableFuture[0])).thenRunAsync(() -> {
+			for (CompletableFuture<WorldSpec> f : prepared) {
+				WorldSpec spec = f.join();
+				if (null != spec) {
+					batch.pending.add(spec);
+				}
+			}
+			long s = System.nanoTime();
+			try {
+				WorldSpec.register(mc, new ArrayList<>(batch.pending));
+			} catch (Exception e) {
+				// Each world is still added on its own when committed
+				MultiworldMod.LOGGER.error("Failed to register " + batch.pending.size() + " world(s) at once", e);
+			}
+			MultiworldMod.LOGGER.info("Registered {} world(s) in {} ms", batch.pending.size(),
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - s));
+			BATCHES.add(batch);
+		}, mc);
+		return batch.result;
+	}
+
+	/**
+	 * Called at the start of every server tick
+	 */
+	public static void onTickStart(MinecraftServer mc) {
+		if (BATCHES.isEmpty()) {
+			return;
+		}
+		long budget = RestoreScheduler.getBudgetNanos();
+		long start = System.nanoTime();
+		int done = 0;
+		while (!BATCHES.isEmpty()) {
+			Batch batch = BATCHES.peek();
+			WorldSpec spec = batch.pending.poll();
+			if (null == spec) {
+				BATCHES.poll();
+				batch.finish();
+				continue;
+			}
+			if (done > 0 && System.nanoTime() - start > budget) {
+				batch.pending.addFirst(spec);
+				break;
+			}
+			commit(mc, batch, spec);
+			done++;
+		}
+	}
+
+	private static void commit(MinecraftServer mc, Batch batch, WorldSpec spec) {
+		try {
+			boolean hasConfig = null != WorldMetaRegistry.get(MultiworldMod.new_id(spec.id));
+			ServerWorld world = spec.commit(mc);
+			if (!hasConfig) {
+				CreateCommand.make_config(world, spec.environment, spec.seed,
+						null != spec.customGenerator && spec.isCustomGeneratorValid() ? spec.customGenerator : "");
+			}
+			Portal.refresh_portal_frames(world);
+			batch.worlds.add(world);
+		} catch (Exception e) {
+			MultiworldMod.LOGGER.error("Failed to create world " + spec.id, e);
+		}
+	}
+
+	/**
+	 * @return the number of worlds waiting to be created
+	 */
+	public static int getPendingCount() {
+		int pending = 0;
+		for (Batch batch : BATCHES) {
+			pending += batch.pending.size();
+		}
+		return pending;
+	}
+
+	private static final class Batch {
+		final ArrayDeque<WorldSpec> pending = new ArrayDeque<>();
+		final List<ServerWorld> worlds;
+		final CompletableFuture<List<ServerWorld>> result = new CompletableFuture<>();
+		final long startedAt = System.nanoTime();
+
+		Batch(int size) {
+			this.worlds = new ArrayList<>(size);
+		}
+
+		void finish() {
+			MultiworldMod.LOGGER.info("Created {} world(s) in {} ms", worlds.size(),
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+			result.complete(worlds);
+		}
+	}
+
+}
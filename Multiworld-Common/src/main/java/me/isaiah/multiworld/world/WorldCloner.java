@@ -0,0 +1,333 @@
+package me.isaiah.multiworld.world;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.command.CreateCommand;
+import multiworld.mixin.ServerEntityManagerAccessor;
+import multiworld.mixin.ServerWorldAccessor;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.world.storage.ChunkDataAccess;
+import net.minecraft.world.storage.NbtScannable;
+import net.minecraft.world.storage.StorageIoWorker;
+
+/**
+ * Copies a world to a new world, ex: a prepared plot or arena map to many plots.
+ *
+ * <p>On the server thread the source is saved, the worker thread waits for the
+ * chunks, entities and POIs to be written before copying. While it is copied it
+ * is not ticked and not autosaved, so its files do not change.
+ * A dormant source (see {@link WorldActivator}) is copied as it is on disk.
+ *
+ * <p>The dimension directory is copied on a worker thread into a temporary
+ * directory, which is then renamed to the target. On Linux the files are
+ * first cloned with reflinks ({@code cp --reflink=always}), which is near
+ * instant on Btrfs, XFS and ZFS. Otherwise they are copied.
+ * Hard links are not used: Minecraft writes region files in place,
+ * so a hard linked region file would be shared by both worlds.
+ *
+ * <p>Once the copy is done the clone gets the source's config, is created
+ * through the platform's {@code ICreator} and its config is written with
+ * {@link CreateCommand#make_config(ServerWorld, String, long, String)}.
+ */
+public final class WorldCloner {
+
+	static final ExecutorService COPY_POOL = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "Multiworld-Clone");
+		t.setDaemon(true);
+		return t;
+	});
+
+	/**
+	 * Sources being copied, and the number of copies of each
+	 */
+	private static final Map<ServerWorld, Integer> COPYING = new HashMap<>();
+	private static final Map<ServerWorld, Boolean> SAVING_DISABLED = new HashMap<>();
+	private static final Map<ServerWorld, CompletableFuture<Void>> WRITES = new HashMap<>();
+
+	/**
+	 * Targets being cloned
+	 */
+	private static final Set<String> TARGETS = new HashSet<>();
+
+	private static volatile boolean reflinks = System.getProperty("os.name", "").toLowerCase(Locale.ROOT).contains("linux");
+
+	private WorldCloner() {
+	}
+
+	/**
+	 * Clone a world. Must be called on the server thread.
+	 *
+	 * @param source - id of a Multiworld world, loaded or dormant
+	 * @param target - id of the new world
+	 * @return the new world, completed on the server thread.
+	 *         Fails with an {@link IllegalStateException} if the worlds can not be cloned.
+	 */
+	public static CompletableFuture<ServerWorld> clone(MinecraftServer mc, String source, String target) {
+		Identifier sourceId = MultiworldMod.new_id(source);
+		Identifier targetId = MultiworldMod.new_id(target);
+		CompletableFuture<ServerWorld> failed = new CompletableFuture<>();
+		if (null == sourceId || null == targetId) {
+			failed.completeExceptionally(new IllegalStateException("Invalid world id"));
+			return failed;
+		}
+		String problem = check(mc, sourceId, targetId);
+		if (null != problem) {
+			failed.completeExceptionally(new IllegalStateException(problem));
+			return failed;
+		}
+
+		WorldMeta meta;
+		try {
+			meta = WorldMetaRegistry.get(sourceId).copy(targetId, WorldMetaRegistry.getConfigFile(targetId));
+		} catch (IOException e) {
+			failed.completeExceptionally(e);
+			return failed;
+		}
+
+		ServerWorld world = WorldActivator.getLoaded(mc, sourceId.toString());
+		CompletableFuture<Void> writes = null != world ? hold(world) : CompletableFuture.completedFuture(null);
+		TARGETS.add(targetId.toString());
+
+		Path from = getDimensionDir(mc, sourceId);
+		Path to = getDimensionDir(mc, targetId);
+		WorldSpec spec = WorldSpec.of(meta);
+		WorldSpec.setupServer(mc);
+		long start = System.nanoTime();
+
+		return CompletableFuture.supplyAsync(() -> {
+			try {
+				writes.join();
+				String how = copy(from, to);
+				spec.prepare(mc);
+				return how;
+			} catch (IOException e) {
+				throw new CompletionException(e);
+			}
+		}, COPY_POOL).handleAsync((how, e) -> {
+			if (null != world) {
+				release(world);
+			}
+			TARGETS.remove(targetId.toString());
+			if (null != e) {
+				throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+			}
+
+			WorldMetaRegistry.add(meta);
+			ServerWorld clone;
+			try {
+				clone = spec.commit(mc);
+			} catch (RuntimeException ex) {
+				WorldMetaRegistry.remove(targetId);
+				throw ex;
+			}
+			CreateCommand.make_config(clone, meta.getEnvironment(), meta.getSeed(),
+					null == meta.getCustomGenerator() ? "" : meta.getCustomGenerator());
+			MultiworldMod.LOGGER.info("Cloned world {} to {} in {} ms ({})", sourceId, targetId,
+					TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), how);
+			return clone;
+		}, mc);
+	}
+
+	/**
+	 * @return why the worlds can not be cloned, or null if they can
+	 */
+	private static String check(MinecraftServer mc, Identifier source, Identifier target) {
+		String s = source.toString();
+		String t = target.toString();
+		if (source.getNamespace().equals("minecraft")) {
+			return "Vanilla worlds can not be cloned";
+		}
+		if (null == WorldMetaRegistry.get(source)) {
+			return "World '" + s + "' does not exist";
+		}
+		if (WorldActivator.isUnloading(s)) {
+			return "World '" + s + "' is unloading, try again in a moment";
+		}
+		if (WorldResets.isResetting(s)) {
+			return "World '" + s + "' is being reset, try again in a moment";
+		}
+		ServerWorld world = WorldActivator.getLoaded(mc, s);
+		if (null == world && !WorldActivator.isDormant(s)) {
+			return "World '" + s + "' is not restored yet, try again in a moment";
+		}
+		if (null != world && !world.getPlayers().isEmpty()) {
+			return "Players are in world '" + s + "', clone from a world nobody is in";
+		}
+		if (target.getNamespace().equals("minecraft") || null != WorldMetaRegistry.get(target)
+				|| null != WorldActivator.getLoaded(mc, t) || TARGETS.contains(t)) {
+			return "World '" + t + "' already exists";
+		}
+		if (Files.exists(getDimensionDir(mc, target))) {
+			return "The directory of world '" + t + "' already exists";
+		}
+		return null;
+	}
+
+	/**
+	 * The directory a world is saved in, "&lt;level&gt;/dimensions/&lt;namespace&gt;/&lt;path&gt;"
+	 */
+	public static Path getDimensionDir(MinecraftServer mc, Identifier id) {
+		return mc.getSavePath(WorldSavePath.ROOT).resolve("dimensions")
+				.resolve(id.getNamespace()).resolve(id.getPath()).normalize();
+	}
+
+	/**
+	 * @return true if the world's files are being copied. It is not ticked while it has no players.
+	 */
+	public static boolean isCopying(ServerWorld world) {
+		return COPYING.containsKey(world);
+	}
+
+	/**
+	 * Save the world and keep its files as they are until {@link #release(ServerWorld)}.
+	 * The server thread does not wait for the disk, the copy must wait for the returned writes.
+	 *
+	 * @return completed once the saved chunks, entities and POIs are written
+	 */
+	static CompletableFuture<Void> hold(ServerWorld world) {
+		if (COPYING.merge(world, 1, Integer::sum) > 1) {
+			return WRITES.get(world);
+		}
+		world.save(null, false, false);
+		SAVING_DISABLED.put(world, world.savingDisabled);
+		world.savingDisabled = true;
+
+		// Queued after the writes of the save, each storage has its own IO worker
+		NbtScannable io = world.getChunkManager().getChunkIoWorker();
+		CompletableFuture<Void> chunks = io instanceof StorageIoWorker
+				? ((StorageIoWorker) io).completeAll(false)
+				: CompletableFuture.completedFuture(null);
+		ChunkDataAccess<?> entities = ((ServerEntityManagerAccessor) ((ServerWorldAccessor) world).multiworld$getEntityManager()).multiworld$getDataAccess();
+		CompletableFuture<Void> writes = CompletableFuture.allOf(chunks,
+				((PendingWrites) entities).multiworld$completeAll(),
+				((PendingWrites) world.getPointOfInterestStorage()).multiworld$completeAll());
+		WRITES.put(world, writes);
+		return writes;
+	}
+
+	static void release(ServerWorld world) {
+		if (COPYING.merge(world, -1, Integer::sum) > 0) {
+			return;
+		}
+		COPYING.remove(world);
+		WRITES.remove(world);
+		Boolean disabled = SAVING_DISABLED.remove(world);
+		world.savingDisabled = null != disabled && disabled.booleanValue();
+	}
+
+	/**
+	 * Copy a directory through a temporary directory next to the target
+	 *
+	 * @return how the files were copied, for the log
+	 */
+	static String copy(Path from, Path to) throws IOException {
+		Path tmp = to.resolveSibling(to.getFileName() + "~cloning");
+		if (Files.exists(tmp)) {
+			deleteTree(tmp);
+		}
+		Files.createDirectories(tmp.getParent());
+		if (!Files.isDirectory(from)) {
+			// Nothing saved yet
+			Files.createDirectories(to);
+			return "empty";
+		}
+
+		String how = "reflink";
+		if (!reflinks || !reflink(from, tmp)) {
+			how = "copy";
+			try {
+				copyTree(from, tmp);
+			} catch (IOException e) {
+				deleteTree(tmp);
+				throw e;
+			}
+		}
+
+		try {
+			Files.move(tmp, to, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			deleteTree(tmp);
+			throw e;
+		}
+		return how;
+	}
+
+	/**
+	 * @return false if the filesystem or cp does not support reflinks
+	 */
+	private static boolean reflink(Path from, Path to) {
+		try {
+			Process p = new ProcessBuilder("cp", "-R", "--reflink=always", "--preserve=timestamps", from.toString(), to.toString())
+					.redirectErrorStream(true)
+					.redirectOutput(ProcessBuilder.Redirect.DISCARD)
+					.start();
+			if (p.waitFor() == 0) {
+				return true;
+			}
+		} catch (IOException e) {
+			// No cp
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		try {
+			deleteTree(to);
+		} catch (IOException e) {
+			MultiworldMod.LOGGER.warn("Could not delete " + to, e);
+		}
+		MultiworldMod.LOGGER.info("Reflinks are not supported here, cloned worlds are copied");
+		reflinks = false;
+		return false;
+	}
+
+	private static void copyTree(Path from, Path to) throws IOException {
+		Files.walkFileTree(from, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				Files.createDirectories(to.resolve(from.relativize(dir).toString()));
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				if (!file.getFileName().toString().equals("session.lock")) {
+					Files.copy(file, to.resolve(from.relativize(file).toString()), StandardCopyOption.COPY_ATTRIBUTES);
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	static void deleteTree(Path dir) throws IOException {
+		if (!Files.exists(dir)) {
+			return;
+		}
+		try (Stream<Path> paths = Files.walk(dir)) {
+			for (Path p : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+				Files.delete(p);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,137 @@
+package me.isaiah.multiworld.world;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import net.minecraft.network.packet.s2c.play.ChunkLoadDistanceS2CPacket;
+import net.minecraft.network.packet.s2c.play.SimulationDistanceS2CPacket;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Per world view and simulation distance, from "view_distance" and
+ * "simulation_distance" in the world's config (or {@code RuntimeWorldConfig}
+ * on the platforms that ship Fantasy). 0 uses the server's distance.
+ *
+ * <p>The distances are applied to the world's {@code ServerChunkManager}.
+ * The client is only told the view distance when it joins, so players
+ * entering a world are sent its distances, see {@link #onPlayerAdded}.
+ *
+ * <p>{@link WorldQuotas} may lower the view distance below this one
+ * while a world is over its chunk limit.
+ */
+public final class WorldDistances {
+
+	public static final int MIN_DISTANCE = 2;
+	public static final int MAX_DISTANCE = 32;
+
+	private static final Map<ServerWorld, int[]> DISTANCES = new ConcurrentHashMap<>();
+
+	/**
+	 * Distances last sent to each player, view in the high bits, simulation in the low bits
+	 */
+	private static final Map<UUID, Long> SENT = new ConcurrentHashMap<>();
+
+	private WorldDistances() {
+	}
+
+	/**
+	 * Apply the distances saved in the world's config
+	 */
+	public static void apply(ServerWorld world, WorldMeta meta) {
+		set(world, meta.getViewDistance(), meta.getSimulationDistance());
+	}
+
+	/**
+	 * @param view - view distance in chunks, 0 for the server's
+	 * @param simulation - simulation distance in chunks, 0 for the server's
+	 */
+	public static void set(ServerWorld world, int view, int simulation) {
+		view = view > 0 ? clamp(view) : 0;
+		simulation = simulation > 0 ? clamp(simulation) : 0;
+		if (view == 0 && simulation == 0) {
+			if (null == DISTANCES.remove(world)) {
+				return;
+			}
+		} else {
+			DISTANCES.put(world, new int[] {view, simulation});
+		}
+
+		int full = getViewDistance(world);
+		int lowered = WorldQuotas.getLoweredViewDistance(world);
+		world.getChunkManager().applyViewDistance(lowered > 0 && lowered < full ? lowered : full);
+		world.getChunkManager().applySimulationDistance(getSimulationDistance(world));
+		for (ServerPlayerEntity plr : world.getPlayers()) {
+			onPlayerAdded(world, plr);
+		}
+	}
+
+	/**
+	 * The view distance of the world, not counting {@link WorldQuotas}
+	 */
+	public static int getViewDistance(ServerWorld world) {
+		int[] d = DISTANCES.get(world);
+		return null != d && d[0] > 0 ? d[0] : world.getServer().getPlayerManager().getViewDistance();
+	}
+
+	/**
+	 */
+	public static int getSimulationDistance(ServerWorld world) {
+		int[] d = DISTANCES.get(world);
+		return null != d && d[1] > 0 ? d[1] : world.getServer().getPlayerManager().getSimulationDistance();
+	}
+
+	/**
+	 * @return true if the world has its own view or simulation distance
+	 */
+	public static boolean isSet(ServerWorld world) {
+		return DISTANCES.containsKey(world);
+	}
+
+	/**
+	 * Called when a player is added to a world (join, respawn or teleport),
+	 * sends the world's distances if the client has others.
+	 */
+	public static void onPlayerAdded(ServerWorld world, ServerPlayerEntity plr) {
+		int view = getViewDistance(world);
+		int simulation = getSimulationDistance(world);
+		long packed = ((long) view << 32) | simulation;
+
+		Long sent = SENT.get(plr.getUuid());
+		if (null == sent) {
+			// The join packet carries the server's distances
+			sent = ((long) world.getServer().getPlayerManager().getViewDistance() << 32)
+					| world.getServer().getPlayerManager().getSimulationDistance();
+		}
+		if (sent.longValue() == packed) {
+			return;
+		}
+		SENT.put(plr.getUuid(), packed);
+		if ((int) (sent.longValue() >>> 32) != view) {
+			plr.networkHandler.sendPacket(new ChunkLoadDistanceS2CPacket(view));
+		}
+		if ((int) sent.longValue() != simulation) {
+			plr.networkHandler.sendPacket(new SimulationDistanceS2CPacket(simulation));
+		}
+	}
+
+	/**
+	 * Forget a player that left, the next join packet resets their distances
+	 */
+	public static void forgetPlayer(UUID uuid) {
+		SENT.remove(uuid);
+	}
+
+	/**
+	 * Forget a world that is being deleted or unloaded
+	 */
+	public static void forget(ServerWorld world) {
+		DISTANCES.remove(world);
+	}
+
+	private static int clamp(int distance) {
+		return Math.max(MIN_DISTANCE, Math.min(MAX_DISTANCE, distance));
+	}
+
+}
@@ -0,0 +1,160 @@
+package me.isaiah.multiworld.world;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.command.Util;
+import me.isaiah.multiworld.config.ConfigWriter;
+import net.minecraft.util.Identifier;
+
+/**
+ * Binary index of every saved world ("config/multiworld/worlds.dat").
+ *
+ * <p>Holds the {@link WorldMeta} fields of each world, along with the size
+ * and modification time of its YAML and of the folders under
+ * "config/multiworld/worlds/". On startup this single file is read instead
+ * of parsing every world config; only YAMLs that were edited, added or
+ * removed since the manifest was written are looked at again.
+ *
+ * <p>The YAML files stay the source of truth: a missing or unreadable
+ * manifest is simply rebuilt from them.
+ */
+public final class WorldManifest {
+
+	private static final int MAGIC = 0x4D574D46; // "MWMF"
+	private static final int VERSION = 7;
+
+	private WorldManifest() {
+	}
+
+	/**
+	 * "config/multiworld/worlds.dat"
+	 */
+	public static File getFile() {
+		return new File(new File(Util.get_platform_config_dir(), "multiworld"), "worlds.dat");
+	}
+
+	/**
+	 * Contents of the manifest
+	 */
+	static final class Contents {
+		/**
+		 * Metas still matching their YAML, in saved order
+		 */
+		final List<WorldMeta> worlds = new ArrayList<>();
+
+		/**
+		 * Worlds whose YAML changed or disappeared since the manifest was written
+		 */
+		final List<Identifier> stale = new ArrayList<>();
+
+		/**
+		 * Folder name ("" for the worlds folder itself) to its modification time when written
+		 */
+		final Map<String, Long> folders = new HashMap<>();
+	}
+
+	/**
+	 * @return the manifest contents, or null if there is none or it can not be read
+	 */
+	static Contents read() {
+		File file = getFile();
+		if (!file.isFile()) {
+			return null;
+		}
+
+		try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				MultiworldMod.LOGGER.info("World manifest is from another version, rebuilding");
+				return null;
+			}
+
+			Contents c = new Contents();
+			int folders = in.readInt();
+			for (int i = 0; i < folders; i++) {
+				c.folders.put(in.readUTF(), in.readLong());
+			}
+
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				Identifier id = MultiworldMod.new_id(in.readUTF());
+				long length = in.readLong();
+				long modified = in.readLong();
+				if (null == id) {
+					return null;
+				}
+
+				File yml = WorldMetaRegistry.getConfigFile(id);
+				WorldMeta meta = WorldMeta.read(id, yml, in);
+				if (yml.length() == length && yml.lastModified() == modified) {
+					c.worlds.add(meta);
+				} else {
+					c.stale.add(id);
+				}
+			}
+			return c;
+		} catch (IOException e) {
+			MultiworldMod.LOGGER.warn("Could not read world manifest, rebuilding: " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Queue the manifest to be rewritten from {@link WorldMetaRegistry#getAll()}.
+	 */
+	public static void markDirty() {
+		ConfigWriter.markDerivedDirty(getFile(), WorldManifest::render);
+	}
+
+	private static byte[] render() {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+
+			// Folder times are read after the YAMLs of this batch were written
+			File dir = WorldMetaRegistry.getWorldsDir();
+			File[] namespaces = dir.listFiles(File::isDirectory);
+			int folders = (null == namespaces) ? 0 : namespaces.length;
+			out.writeInt(folders + 1);
+			out.writeUTF("");
+			out.writeLong(dir.lastModified());
+			for (int i = 0; i < folders; i++) {
+				out.writeUTF(namespaces[i].getName());
+				out.writeLong(namespaces[i].lastModified());
+			}
+
+			// Worlds that were never saved have nothing to describe
+			List<WorldMeta> saved = new ArrayList<>();
+			for (WorldMeta meta : WorldMetaRegistry.getAll()) {
+				if (meta.getFile().isFile()) saved.add(meta);
+			}
+
+			out.writeInt(saved.size());
+			for (WorldMeta meta : saved) {
+				File yml = meta.getFile();
+				out.writeUTF(meta.getId().toString());
+				out.writeLong(yml.length());
+				out.writeLong(yml.lastModified());
+				meta.write(out);
+			}
+			out.flush();
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+}
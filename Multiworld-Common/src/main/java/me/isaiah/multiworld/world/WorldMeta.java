@@ -0,0 +1,574 @@
+package me.isaiah.multiworld.world;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import me.isaiah.multiworld.config.ConfigWriter;
+import me.isaiah.multiworld.config.FileConfiguration;
+import net.minecraft.util.Identifier;
+
+/**
+ * Typed, in-memory copy of a saved world's config file
+ * ("config/multiworld/worlds/&lt;namespace&gt;/&lt;path&gt;.yml").
+ *
+ * <p>Reads are served from the fields below; the backing
+ * {@link FileConfiguration} is only written by {@link #save()}.
+ * Metas restored from the {@link WorldManifest} do not parse
+ * the YAML until it is needed.
+ *
+ * @see WorldMetaRegistry
+ */
+public class WorldMeta {
+
+	public static final String GAMERULE_PREFIX = "gamerule_";
+	public static final String MAX_ENTITIES_PREFIX = "max_entities_";
+
+	private final Identifier id;
+	private final File file;
+	private FileConfiguration config;
+
+	private String environment;
+	private long seed;
+	private boolean hasSpawnPos;
+	private long spawnPos;
+	private String difficulty;
+	private String customGenerator;
+	private long lastVisited;
+	private Boolean hibernate;
+	private int hibernateAfter;
+	private int tickInterval;
+	private boolean frozen;
+	private String priority;
+	private int softMaxChunks;
+	private int maxBlockEntities;
+	private int viewDistance;
+	private int simulationDistance;
+	private final LinkedHashMap<String, Integer> maxEntities = new LinkedHashMap<>();
+	private final LinkedHashMap<String, String> gamerules = new LinkedHashMap<>();
+
+	WorldMeta(Identifier id, File file) throws IOException {
+		this(id, file, new FileConfiguration(file));
+		this.readFields();
+	}
+
+	/**
+	 * @param config - null for metas read from the {@link WorldManifest};
+	 *                 the YAML is then only parsed if {@link #getConfig()} is called,
+	 *                 or on the IO thread by {@link #save()}.
+	 */
+	private WorldMeta(Identifier id, File file, FileConfiguration config) {
+		this.id = id;
+		this.file = file;
+		this.config = config;
+	}
+
+	/**
+	 * Copy the known keys out of the backing config
+	 */
+	private void readFields() {
+		this.environment = config.getString("environment");
+		this.seed = config.getLong("seed");
+		this.hasSpawnPos = config.is_set("spawnpos");
+		this.spawnPos = config.getLong("spawnpos");
+		this.difficulty = config.getString("difficulty");
+		this.customGenerator = config.getString("custom_generator");
+		this.lastVisited = config.getLong("last_visited");
+		this.hibernate = config.is_set("hibernate") ? config.getBoolean("hibernate") : null;
+		this.hibernateAfter = config.getInt("hibernate_after");
+		this.tickInterval = config.getInt("tick_interval");
+		this.frozen = config.getBoolean("frozen");
+		this.priority = config.getString("priority");
+		// "max_chunks" is the old name, it was never a hard limit
+		this.softMaxChunks = config.is_set("soft_max_chunks") ? config.getInt("soft_max_chunks") : config.getInt("max_chunks");
+		this.maxBlockEntities = config.getInt("max_block_entities");
+		this.viewDistance = config.getInt("view_distance");
+		this.simulationDistance = config.getInt("simulation_distance");
+
+		this.gamerules.clear();
+		this.maxEntities.clear();
+		for (String key : config.getKeys()) {
+			if (key.startsWith(GAMERULE_PREFIX)) {
+				this.gamerules.put(key.substring(GAMERULE_PREFIX.length()).trim(), config.getString(key));
+			} else if (key.startsWith(MAX_ENTITIES_PREFIX) && config.getInt(key) > 0) {
+				this.maxEntities.put(key.substring(MAX_ENTITIES_PREFIX.length()).trim(), config.getInt(key));
+			}
+		}
+	}
+
+	/**
+	 */
+	public Identifier getId() {
+		return this.id;
+	}
+
+	/**
+	 */
+	public File getFile() {
+		return this.file;
+	}
+
+	/**
+	 * The backing config, parsed on first use. Changes made directly to it are
+	 * not seen by the typed getters or the manifest, prefer the setters on this class.
+	 */
+	public synchronized FileConfiguration getConfig() throws IOException {
+		if (null == this.config) {
+			this.config = new FileConfiguration(file);
+		}
+		return this.config;
+	}
+
+	/**
+	 * The environment the world was created with (ex: "NORMAL", "NETHER", "FLAT"), or null.
+	 */
+	public String getEnvironment() {
+		return this.environment;
+	}
+
+	/**
+	 */
+	public long getSeed() {
+		return this.seed;
+	}
+
+	/**
+	 */
+	public boolean hasSpawnPos() {
+		return this.hasSpawnPos;
+	}
+
+	/**
+	 * The spawn set by "/mw setspawn", in {@code BlockPos#asLong} form.
+	 */
+	public long getSpawnPos() {
+		return this.spawnPos;
+	}
+
+	/**
+	 * The difficulty name (ex: "HARD"), or null if never set.
+	 */
+	public String getDifficulty() {
+		return this.difficulty;
+	}
+
+	/**
+	 * The "-g=" generator name, or null.
+	 */
+	public String getCustomGenerator() {
+		return this.customGenerator;
+	}
+
+	/**
+	 * When a player was last seen in this world (epoch millis), or 0.
+	 */
+	public long getLastVisited() {
+		return this.lastVisited;
+	}
+
+	/**
+	 * If this world hibernates when empty, or null to use "hibernate_idle_worlds" from config.yml.
+	 */
+	public Boolean getHibernate() {
+		return this.hibernate;
+	}
+
+	/**
+	 * Seconds this world must be empty before it hibernates, or 0 to use the config.yml value.
+	 */
+	public int getHibernateAfter() {
+		return this.hibernateAfter;
+	}
+
+	/**
+	 * The world is ticked every this many server ticks, 0 or 1 for every tick.
+	 */
+	public int getTickInterval() {
+		return this.tickInterval;
+	}
+
+	/**
+	 * If entities and blocks of this world are not ticked, see {@link WorldTicks}
+	 */
+	public boolean isFrozen() {
+		return this.frozen;
+	}
+
+	/**
+	 * The {@link TickPriority} name (ex: "lobby"), or null to use "default_priority" from config.yml.
+	 */
+	public String getPriority() {
+		return this.priority;
+	}
+
+	/**
+	 * Loaded chunks above which the view distance is lowered, or 0 for none. See {@link WorldQuotas}
+	 */
+	public int getSoftMaxChunks() {
+		return this.softMaxChunks;
+	}
+
+	/**
+	 * Most ticking block entities, or 0 for no limit
+	 */
+	public int getMaxBlockEntities() {
+		return this.maxBlockEntities;
+	}
+
+	/**
+	 * View distance of the world in chunks, or 0 for the server's. See {@link WorldDistances}
+	 */
+	public int getViewDistance() {
+		return this.viewDistance;
+	}
+
+	/**
+	 * Simulation distance of the world in chunks, or 0 for the server's
+	 */
+	public int getSimulationDistance() {
+		return this.simulationDistance;
+	}
+
+	/**
+	 * Most entities per spawn group, group name (ex: "monster") to limit
+	 */
+	public Map<String, Integer> getMaxEntities() {
+		return Collections.unmodifiableMap(this.maxEntities);
+	}
+
+	/**
+	 * Saved gamerules, name to value (ex: "doDaylightCycle" = "false")
+	 */
+	public Map<String, String> getGamerules() {
+		return Collections.unmodifiableMap(this.gamerules);
+	}
+
+	/**
+	 * A meta for another world with all of this world's settings, for "/mw clone".
+	 * It is not registered or saved, see {@link WorldCloner}.
+	 */
+	synchronized WorldMeta copy(Identifier id, File file) throws IOException {
+		FileConfiguration from = getConfig();
+		writeFields(from);
+
+		FileConfiguration to = new FileConfiguration(file);
+		for (String key : from.getKeys()) {
+			to.set(key, from.getObject(key));
+		}
+		to.remove("last_visited");
+
+		WorldMeta meta = new WorldMeta(id, file, to);
+		meta.readFields();
+		return meta;
+	}
+
+	/**
+	 * Set the values written by "/mw create"
+	 */
+	public synchronized void setCreated(String environment, long seed, String customGenerator) {
+		this.environment = environment;
+		this.seed = seed;
+		if (null != customGenerator && customGenerator.length() > 0) {
+			this.customGenerator = customGenerator;
+		}
+	}
+
+	/**
+	 */
+	public synchronized void setSpawnPos(long pos) {
+		this.hasSpawnPos = true;
+		this.spawnPos = pos;
+	}
+
+	/**
+	 */
+	public synchronized void setDifficulty(String difficulty) {
+		this.difficulty = difficulty;
+	}
+
+	/**
+	 */
+	public synchronized void setLastVisited(long lastVisited) {
+		this.lastVisited = lastVisited;
+	}
+
+	/**
+	 * @param hibernate - null to use the config.yml value
+	 */
+	public synchronized void setHibernate(Boolean hibernate) {
+		this.hibernate = hibernate;
+	}
+
+	/**
+	 * @param seconds - 0 to use the config.yml value
+	 */
+	public synchronized void setHibernateAfter(int seconds) {
+		this.hibernateAfter = Math.max(0, seconds);
+	}
+
+	/**
+	 * @param interval - 1 to tick every server tick
+	 */
+	public synchronized void setTickInterval(int interval) {
+		this.tickInterval = Math.max(1, interval);
+	}
+
+	/**
+	 */
+	public synchronized void setFrozen(boolean frozen) {
+		this.frozen = frozen;
+	}
+
+	/**
+	 * @param priority - null to use the config.yml value
+	 */
+	public synchronized void setPriority(String priority) {
+		this.priority = priority;
+	}
+
+	/**
+	 * @param max - 0 for no limit
+	 */
+	public synchronized void setSoftMaxChunks(int max) {
+		this.softMaxChunks = Math.max(0, max);
+	}
+
+	/**
+	 * @param max - 0 for no limit
+	 */
+	public synchronized void setMaxBlockEntities(int max) {
+		this.maxBlockEntities = Math.max(0, max);
+	}
+
+	/**
+	 * @param distance - 0 to use the server's
+	 */
+	public synchronized void setViewDistance(int distance) {
+		this.viewDistance = Math.max(0, distance);
+	}
+
+	/**
+	 * @param distance - 0 to use the server's
+	 */
+	public synchronized void setSimulationDistance(int distance) {
+		this.simulationDistance = Math.max(0, distance);
+	}
+
+	/**
+	 * @param group - spawn group name, ex: "monster"
+	 * @param max - 0 for no limit
+	 */
+	public synchronized void setMaxEntities(String group, int max) {
+		if (max > 0) {
+			this.maxEntities.put(group, max);
+		} else {
+			this.maxEntities.remove(group);
+		}
+	}
+
+	/**
+	 */
+	public synchronized void setGamerule(String name, String value) {
+		this.gamerules.put(name, value);
+	}
+
+	/**
+	 * Copy the typed fields into the backing config
+	 */
+	private void writeFields(FileConfiguration config) {
+		if (null != environment) {
+			config.set("namespace", id.getNamespace());
+			config.set("path", id.getPath());
+			config.set("environment", environment);
+			config.set("seed", seed);
+		}
+		if (null != customGenerator) {
+			config.set("custom_generator", customGenerator);
+		}
+		if (hasSpawnPos) {
+			config.set("spawnpos", spawnPos);
+		}
+		if (null != difficulty) {
+			config.set("difficulty", difficulty);
+		}
+		if (lastVisited > 0) {
+			config.set("last_visited", lastVisited);
+		}
+		if (null != hibernate) {
+			config.set("hibernate", hibernate.booleanValue());
+		} else if (config.is_set("hibernate")) {
+			config.remove("hibernate");
+		}
+		if (hibernateAfter > 0) {
+			config.set("hibernate_after", hibernateAfter);
+		} else if (config.is_set("hibernate_after")) {
+			config.remove("hibernate_after");
+		}
+		if (tickInterval > 1) {
+			config.set("tick_interval", tickInterval);
+		} else if (config.is_set("tick_interval")) {
+			config.remove("tick_interval");
+		}
+		if (frozen) {
+			config.set("frozen", true);
+		} else if (config.is_set("frozen")) {
+			config.remove("frozen");
+		}
+		if (null != priority) {
+			config.set("priority", priority);
+		} else if (config.is_set("priority")) {
+			config.remove("priority");
+		}
+		if (softMaxChunks > 0) {
+			config.set("soft_max_chunks", softMaxChunks);
+		} else if (config.is_set("soft_max_chunks")) {
+			config.remove("soft_max_chunks");
+		}
+		if (config.is_set("max_chunks")) {
+			config.remove("max_chunks");
+		}
+		if (maxBlockEntities > 0) {
+			config.set("max_block_entities", maxBlockEntities);
+		} else if (config.is_set("max_block_entities")) {
+			config.remove("max_block_entities");
+		}
+		if (viewDistance > 0) {
+			config.set("view_distance", viewDistance);
+		} else if (config.is_set("view_distance")) {
+			config.remove("view_distance");
+		}
+		if (simulationDistance > 0) {
+			config.set("simulation_distance", simulationDistance);
+		} else if (config.is_set("simulation_distance")) {
+			config.remove("simulation_distance");
+		}
+		for (String key : new ArrayList<>(config.getKeys())) {
+			if (key.startsWith(MAX_ENTITIES_PREFIX) && !maxEntities.containsKey(key.substring(MAX_ENTITIES_PREFIX.length()))) {
+				config.remove(key);
+			}
+		}
+		for (Map.Entry<String, Integer> max : maxEntities.entrySet()) {
+			config.set(MAX_ENTITIES_PREFIX + max.getKey(), max.getValue().intValue());
+		}
+		if (!gamerules.isEmpty() && !config.is_set("gamerules")) {
+			config.set("gamerules", new ArrayList<String>());
+		}
+		for (Map.Entry<String, String> rule : gamerules.entrySet()) {
+			config.set(GAMERULE_PREFIX + rule.getKey(), rule.getValue());
+		}
+	}
+
+	/**
+	 * Queue the config (and the {@link WorldManifest}) to be written to disk.
+	 * The write happens in the background, see {@link ConfigWriter}.
+	 * A config that is not parsed yet is parsed there too, not on the calling thread.
+	 */
+	public synchronized void save() throws IOException {
+		if (null != this.config) {
+			writeFields(this.config);
+			this.config.saveAsync();
+		} else {
+			ConfigWriter.markDirty(file, this::render);
+		}
+		WorldManifest.markDirty();
+	}
+
+	/**
+	 * Parse the config if needed and render it with the typed fields, called on the IO thread
+	 */
+	private synchronized byte[] render() {
+		try {
+			FileConfiguration config = getConfig();
+			writeFields(config);
+			return config.saveToString().getBytes(StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Write the typed fields, for the {@link WorldManifest}
+	 */
+	synchronized void write(DataOutput out) throws IOException {
+		writeNullable(out, environment);
+		out.writeLong(seed);
+		out.writeBoolean(hasSpawnPos);
+		out.writeLong(spawnPos);
+		writeNullable(out, difficulty);
+		writeNullable(out, customGenerator);
+		out.writeLong(lastVisited);
+		out.writeBoolean(null != hibernate);
+		out.writeBoolean(null != hibernate && hibernate.booleanValue());
+		out.writeInt(hibernateAfter);
+		out.writeInt(tickInterval);
+		out.writeBoolean(frozen);
+		writeNullable(out, priority);
+		out.writeInt(softMaxChunks);
+		out.writeInt(maxBlockEntities);
+		out.writeInt(viewDistance);
+		out.writeInt(simulationDistance);
+		out.writeInt(maxEntities.size());
+		for (Map.Entry<String, Integer> max : maxEntities.entrySet()) {
+			out.writeUTF(max.getKey());
+			out.writeInt(max.getValue().intValue());
+		}
+		out.writeInt(gamerules.size());
+		for (Map.Entry<String, String> rule : gamerules.entrySet()) {
+			out.writeUTF(rule.getKey());
+			writeNullable(out, rule.getValue());
+		}
+	}
+
+	/**
+	 * Read a meta written by {@link #write(DataOutput)}
+	 */
+	static WorldMeta read(Identifier id, File file, DataInput in) throws IOException {
+		WorldMeta meta = new WorldMeta(id, file, null);
+		meta.environment = readNullable(in);
+		meta.seed = in.readLong();
+		meta.hasSpawnPos = in.readBoolean();
+		meta.spawnPos = in.readLong();
+		meta.difficulty = readNullable(in);
+		meta.customGenerator = readNullable(in);
+		meta.lastVisited = in.readLong();
+		boolean hasHibernate = in.readBoolean();
+		boolean hibernate = in.readBoolean();
+		meta.hibernate = hasHibernate ? Boolean.valueOf(hibernate) : null;
+		meta.hibernateAfter = in.readInt();
+		meta.tickInterval = in.readInt();
+		meta.frozen = in.readBoolean();
+		meta.priority = readNullable(in);
+		meta.softMaxChunks = in.readInt();
+		meta.maxBlockEntities = in.readInt();
+		meta.viewDistance = in.readInt();
+		meta.simulationDistance = in.readInt();
+		int maxEntities = in.readInt();
+		for (int i = 0; i < maxEntities; i++) {
+			meta.maxEntities.put(in.readUTF(), in.readInt());
+		}
+		int rules = in.readInt();
+		for (int i = 0; i < rules; i++) {
+			meta.gamerules.put(in.readUTF(), readNullable(in));
+		}
+		return meta;
+	}
+
+	private static void writeNullable(DataOutput out, String str) throws IOException {
+		out.writeBoolean(null != str);
+		if (null != str) {
+			out.writeUTF(str);
+		}
+	}
+
+	private static String readNullable(DataInput in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+}
@@ -0,0 +1,207 @@
+package me.isaiah.multiworld.world;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.command.Util;
+import me.isaiah.multiworld.config.ConfigWriter;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.World;
+
+/**
+ * Central store of {@link WorldMeta} for every world that has a
+ * config in "config/multiworld/worlds/".
+ *
+ * <p>All configs are read once by {@link #loadAll()} on server start;
+ * lookups (spawn, environment, difficulty, ...) are then answered from
+ * memory and the disk is only touched when something is written.
+ */
+public final class WorldMetaRegistry {
+
+	private static final LinkedHashMap<Identifier, WorldMeta> WORLDS = new LinkedHashMap<>();
+
+	private WorldMetaRegistry() {
+	}
+
+	/**
+	 * "config/multiworld/worlds"
+	 */
+	public static File getWorldsDir() {
+		return new File(new File(Util.get_platform_config_dir(), "multiworld"), "worlds");
+	}
+
+	/**
+	 * "config/multiworld/worlds/&lt;namespace&gt;/&lt;path&gt;.yml"
+	 */
+	public static File getConfigFile(Identifier id) {
+		return new File(new File(getWorldsDir(), id.getNamespace()), id.getPath() + ".yml");
+	}
+
+	/**
+	 * (Re)load every saved world config.
+	 *
+	 * <p>Worlds are read from the {@link WorldManifest} when possible;
+	 * only YAMLs that changed since it was written are parsed.
+	 *
+	 * @return the ids of all worlds found
+	 */
+	public static synchronized List<Identifier> loadAll() {
+		WORLDS.clear();
+
+		WorldManifest.Contents manifest = WorldManifest.read();
+		if (null == manifest) {
+			File[] namespaces = getWorldsDir().listFiles(File::isDirectory);
+			if (null != namespaces) {
+				for (File ns : namespaces) {
+					scanNamespace(ns);
+				}
+			}
+			WorldManifest.markDirty();
+			return new ArrayList<>(WORLDS.keySet());
+		}
+
+		for (WorldMeta meta : manifest.worlds) {
+			WORLDS.put(meta.getId(), meta);
+		}
+		boolean changed = !manifest.stale.isEmpty();
+		for (Identifier id : manifest.stale) {
+			File f = getConfigFile(id);
+			if (f.isFile()) {
+				loadFile(id, f);
+			}
+		}
+
+		// A file added to or removed from a folder changes the folder's time
+		File dir = getWorldsDir();
+		Long dirTime = manifest.folders.get("");
+		if (null == dirTime || dirTime != dir.lastModified()) {
+			File[] namespaces = dir.listFiles(File::isDirectory);
+			if (null != namespaces) {
+				for (File ns : namespaces) {
+					Long time = manifest.folders.get(ns.getName());
+					if (null == time || time != ns.lastModified()) {
+						changed |= scanNamespace(ns);
+					}
+				}
+			}
+			changed = true;
+		} else {
+			for (Map.Entry<String, Long> folder : manifest.folders.entrySet()) {
+				if (folder.getKey().isEmpty()) continue;
+				File ns = new File(dir, folder.getKey());
+				if (ns.lastModified() != folder.getValue()) {
+					scanNamespace(ns);
+					changed = true;
+				}
+			}
+		}
+
+		if (changed) {
+			WorldManifest.markDirty();
+		}
+		return new ArrayList<>(WORLDS.keySet());
+	}
+
+	/**
+	 * Load the YAMLs of a namespace folder that are not known yet
+	 *
+	 * @return true if any were found
+	 */
+	private static boolean scanNamespace(File ns) {
+		File[] files = ns.listFiles();
+		if (null == files) {
+			return false;
+		}
+
+		boolean found = false;
+		for (File f : files) {
+			String name = f.getName();
+			if (!name.endsWith(".yml")) continue;
+
+			Identifier id = MultiworldMod.new_id(ns.getName() + ":" + name.substring(0, name.length() - 4));
+			if (null == id) {
+				MultiworldMod.LOGGER.warn("Ignoring world config with invalid id: {}", f.getPath());
+				continue;
+			}
+			if (!WORLDS.containsKey(id)) {
+				found |= loadFile(id, f);
+			}
+		}
+		return found;
+	}
+
+	private static boolean loadFile(Identifier id, File f) {
+		try {
+			WORLDS.put(id, new WorldMeta(id, f));
+			return true;
+		} catch (IOException e) {
+			MultiworldMod.LOGGER.error("Failed to read world config {}", f.getPath(), e);
+			return false;
+		}
+	}
+
+	/**
+	 * @return the cached meta for a world, or null if it has no config.
+	 */
+	public static synchronized WorldMeta get(Identifier id) {
+		return WORLDS.get(id);
+	}
+
+	/**
+	 * @return the cached meta for a world, or null if it has no config.
+	 */
+	public static WorldMeta get(World world) {
+		return get(world.getRegistryKey().getValue());
+	}
+
+	/**
+	 * Get the meta for a world, creating an empty (unsaved) one if none exists yet.
+	 */
+	public static synchronized WorldMeta getOrCreate(Identifier id) throws IOException {
+		WorldMeta meta = WORLDS.get(id);
+		if (null == meta) {
+			meta = new WorldMeta(id, getConfigFile(id));
+			WORLDS.put(id, meta);
+		}
+		return meta;
+	}
+
+	/**
+	 */
+	public static WorldMeta getOrCreate(World world) throws IOException {
+		return getOrCreate(world.getRegistryKey().getValue());
+	}
+
+	/**
+	 * Register a meta made by {@link WorldMeta#copy(Identifier, File)}
+	 */
+	static synchronized void add(WorldMeta meta) {
+		WORLDS.put(meta.getId(), meta);
+	}
+
+	/**
+	 * Forget a world and delete its config file.
+	 */
+	public static synchronized void remove(Identifier id) {
+		WORLDS.remove(id);
+		File f = getConfigFile(id);
+		ConfigWriter.cancel(f);
+		if (f.exists() && !f.delete()) {
+			MultiworldMod.LOGGER.warn("Could not delete world config {}", f.getPath());
+		}
+		WorldManifest.markDirty();
+	}
+
+	/**
+	 * @return a copy of all known metas
+	 */
+	public static synchronized List<WorldMeta> getAll() {
+		return new ArrayList<>(WORLDS.values());
+	}
+
+}
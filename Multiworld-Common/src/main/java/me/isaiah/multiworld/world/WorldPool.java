@@ -0,0 +1,452 @@
+package me.isaiah.multiworld.world;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.command.Util;
+import me.isaiah.multiworld.config.FileConfiguration;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.WorldSavePath;
+import net.minecraft.util.math.BlockPos;
+import net.minecraft.util.math.ChunkPos;
+import net.minecraft.world.World;
+
+/**
+ * Pools of pre-created temporary worlds, for minigame arenas that must be
+ * ready the moment a match starts.
+ *
+ * <p>Each template is a file in "config/multiworld/pools/", with the same keys
+ * as a world's config (environment, seed, custom_generator, difficulty,
+ * gamerule_*, view_distance, ...) and:
+ * <ul>
+ * <li>"pool_size": worlds kept ready, default {@link #DEFAULT_SIZE}</li>
+ * <li>"spawn_radius": chunks around spawn kept loaded, default {@link #DEFAULT_SPAWN_RADIUS}</li>
+ * <li>"reuse": restore the files of returned worlds instead of generating new ones.
+ *     Default false.</li>
+ * </ul>
+ *
+ * <p>Pools are filled in the background: the {@link WorldSpec} is prepared on the
+ * prepare pool, the server thread commits at most one world per tick and only
+ * when the server has time left (see {@link RestoreScheduler#getBudgetNanos()}),
+ * then the spawn chunks are forced and generate on the chunk workers.
+ * A warm world hibernates while it waits in the pool, see {@link Hibernation}.
+ *
+ * <p>A returned world is deleted and replaced. With "reuse" the first world of the
+ * pool to warm up is copied to "&lt;level&gt;/multiworld_pools/&lt;template&gt;", like a
+ * {@link WorldResets} snapshot, and the files of every world that replaces a returned one
+ * are restored from that copy before its spawn chunks are forced, so they are loaded
+ * instead of generated. Until the copy is taken, returned worlds are replaced with
+ * freshly generated ones. Temporary worlds get a new id when they are opened, which is
+ * why the files are restored in the replacement and not in the returned world.
+ *
+ * <p>{@link #lease(MinecraftServer, String)} takes a world out of the pool, and
+ * {@link #giveBack(MinecraftServer, ServerWorld)} returns it after the match.
+ * All methods must be called on the server thread.
+ */
+public final class WorldPool {
+
+	public static final int DEFAULT_SIZE = 2;
+	public static final int DEFAULT_SPAWN_RADIUS = 1;
+
+	private static final Map<String, Pool> POOLS = new LinkedHashMap<>();
+	private static final Map<ServerWorld, Pool> LEASED = new HashMap<>();
+	private static int ticks;
+
+	private WorldPool() {
+	}
+
+	/**
+	 * "config/multiworld/pools/"
+	 */
+	public static File getDir() {
+		return new File(new File(Util.get_platform_config_dir(), "multiworld"), "pools");
+	}
+
+	/**
+	 * Read the templates. Called on server start.
+	 */
+	public static void load(MinecraftServer mc) {
+		clear();
+		File[] files = getDir().listFiles((dir, name) -> name.endsWith(".yml"));
+		if (null == files) {
+			return;
+		}
+		Arrays.sort(files);
+		for (File file : files) {
+			String name = file.getName().substring(0, file.getName().length() - 4).toLowerCase(Locale.ROOT);
+			Identifier id = MultiworldMod.new_id("pool:" + name);
+			if (null == id) {
+				MultiworldMod.LOGGER.warn("Invalid world pool template name '{}', use a-z, 0-9, _ and -", name);
+				continue;
+			}
+			try {
+				WorldMeta meta = new WorldMeta(id, file);
+				FileConfiguration cfg = meta.getConfig();
+				Pool pool = new Pool(name, meta);
+				pool.size = cfg.is_set("pool_size") ? Math.max(0, cfg.getInt("pool_size")) : DEFAULT_SIZE;
+				pool.spawnRadius = cfg.is_set("spawn_radius") ? Math.max(0, Math.min(8, cfg.getInt("spawn_radius"))) : DEFAULT_SPAWN_RADIUS;
+				pool.reuse = cfg.getBoolean("reuse");
+				POOLS.put(name, pool);
+			} catch (Exception e) {
+				MultiworldMod.LOGGER.error("Could not read world pool template " + file, e);
+			}
+		}
+		if (!POOLS.isEmpty()) {
+			MultiworldMod.LOGGER.info("Loaded " + POOLS.size() + " world pool template(s): " + POOLS.keySet());
+		}
+	}
+
+	/**
+	 * Called at the start of every server tick
+	 */
+	public static void onTickStart(MinecraftServer mc) {
+		if (POOLS.isEmpty()) {
+			return;
+		}
+		if (++ticks >= 20) {
+			ticks = 0;
+			for (Pool pool : POOLS.values()) {
+				pool.promoteWarm();
+			}
+		}
+
+		// Matches and restores come first
+		if (TickScheduler.getLevel() > 0 || RestoreScheduler.getBudgetNanos() <= 0) {
+			return;
+		}
+		for (Pool pool : POOLS.values()) {
+			if (pool.fill(mc)) {
+				// One world per tick
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Take a world out of a pool. If the pool is empty the world is created now,
+	 * which is what the pool is there to avoid, so it is logged.
+	 *
+	 * @return the world, or null if there is no such template or this
+	 *         Minecraft version can not open temporary worlds
+	 */
+	public static ServerWorld lease(MinecraftServer mc, String template) {
+		Pool pool = POOLS.get(template.toLowerCase(Locale.ROOT));
+		if (null == pool) {
+			return null;
+		}
+		ServerWorld world = pool.ready.poll();
+		if (null == world) {
+			Warming warm = pool.warming.poll();
+			world = null == warm ? null : warm.world;
+		}
+		if (null == world) {
+			MultiworldMod.LOGGER.warn("World pool '{}' is empty, creating a world now. Consider a larger pool_size", pool.name);
+			world = pool.create(mc, WorldSpec.of(pool.meta));
+			if (null == world) {
+				return null;
+			}
+		}
+		Hibernation.wake(world);
+		LEASED.put(world, pool);
+		pool.leases++;
+		return world;
+	}
+
+	/**
+	 * Return a leased world. Players still in it are sent to the overworld spawn.
+	 * The world is deleted and a fresh one is warmed up in its place,
+	 * with "reuse" from the pool's snapshot.
+	 *
+	 * @return false if the world was not leased from a pool
+	 */
+	public static boolean giveBack(MinecraftServer mc, ServerWorld world) {
+		Pool pool = LEASED.remove(world);
+		if (null == pool) {
+			return false;
+		}
+
+		ServerWorld overworld = mc.getWorld(World.OVERWORLD);
+		BlockPos spawn = MultiworldMod.get_world_creator().get_spawn(overworld);
+		for (ServerPlayerEntity plr : new ArrayList<>(world.getPlayers())) {
+			MultiworldMod.get_world_creator().teleleport(plr, overworld, spawn.getX(), spawn.getY(), spawn.getZ());
+		}
+		delete(world);
+		return true;
+	}
+
+	/**
+	 * "&lt;level&gt;/multiworld_pools/&lt;template&gt;", the files the worlds of a "reuse" pool are restored from
+	 */
+	public static Path getSnapshotDir(MinecraftServer mc, String template) {
+		return mc.getSavePath(WorldSavePath.ROOT).resolve("multiworld_pools").resolve(template).normalize();
+	}
+
+	/**
+	 * @return true if the world was leased from a pool and not returned yet
+	 */
+	public static boolean isLeased(ServerWorld world) {
+		return LEASED.containsKey(world);
+	}
+
+	/**
+	 * Names of the templates
+	 */
+	public static List<String> getTemplates() {
+		return new ArrayList<>(POOLS.keySet());
+	}
+
+	/**
+	 * A line per template for "/mw pool"
+	 */
+	public static List<String> describe() {
+		Map<Pool, Integer> leased = new HashMap<>();
+		for (Pool pool : LEASED.values()) {
+			leased.merge(pool, 1, Integer::sum);
+		}
+		List<String> lines = new ArrayList<>();
+		for (Pool pool : POOLS.values()) {
+			lines.add(pool.name + ": " + pool.ready.size() + " ready, "
+					+ (pool.warming.size() + pool.restoring + (null == pool.preparing ? 0 : 1))
+					+ " warming, " + leased.getOrDefault(pool, 0) + " leased (pool_size " + pool.size
+					+ (!pool.reuse ? "" : null != pool.snapshot ? ", restored" : ", reused") + ", " + pool.leases + " leases)");
+		}
+		return lines;
+	}
+
+	/**
+	 * Forget all pools, the temporary worlds are deleted by Fantasy when the server stops
+	 */
+	public static void clear() {
+		for (Pool pool : POOLS.values()) {
+			if (null != pool.preparing) {
+				pool.preparing.cancel(false);
+			}
+		}
+		POOLS.clear();
+		LEASED.clear();
+	}
+
+	private static void delete(ServerWorld world) {
+		Hibernation.forget(world);
+		WorldTicks.forget(world);
+		WorldStats.forget(world);
+		TickScheduler.forget(world);
+		WorldQuotas.forget(world);
+		WorldDistances.forget(world);
+		// The spawn chunks forced in Pool#create would keep the world loaded, and Fantasy waits
+		// for all of its chunks to unload before removing it
+		for (long pos : world.getForcedChunks().toLongArray()) {
+			world.setChunkForced(ChunkPos.getPackedX(pos), ChunkPos.getPackedZ(pos), false);
+		}
+		MultiworldMod.get_world_creator().delete_temporary_world(world);
+	}
+
+	private static final class Pool {
+		final String name;
+		final WorldMeta meta;
+		int size;
+		int spawnRadius;
+		boolean reuse;
+
+		final ArrayDeque<ServerWorld> ready = new ArrayDeque<>();
+		final ArrayDeque<Warming> warming = new ArrayDeque<>();
+		Future<WorldSpec> preparing;
+		long leases;
+
+		/**
+		 * The copy new worlds are restored from, null until it is taken
+		 */
+		Path snapshot;
+		boolean snapshotting;
+		int restoring;
+
+		Pool(String name, WorldMeta meta) {
+			this.name = name;
+			this.meta = meta;
+		}
+
+		/**
+		 * Move worlds whose spawn chunks are loaded to the ready queue
+		 */
+		void promoteWarm() {
+			for (int i = warming.size(); i > 0; i--) {
+				Warming warm = warming.poll();
+				if (warm.isLoaded(spawnRadius)) {
+					ready.add(warm.world);
+					Hibernation.hibernate(warm.world);
+					if (reuse && null == snapshot && !snapshotting) {
+						snapshot(warm.world);
+					}
+				} else {
+					warming.add(warm);
+				}
+			}
+		}
+
+		/**
+		 * Start preparing, or commit, the next world of the pool
+		 *
+		 * @return true if a world was committed
+		 */
+		boolean fill(MinecraftServer mc) {
+			if (null != preparing) {
+				if (!preparing.isDone()) {
+					return false;
+				}
+				Future<WorldSpec> done = preparing;
+				preparing = null;
+				try {
+					ServerWorld world = open(mc, done.get());
+					if (null != world) {
+						if (null != snapshot) {
+							restore(mc, world);
+						} else {
+							warm(world);
+						}
+						return true;
+					}
+					MultiworldMod.LOGGER.warn("This Minecraft version can not open temporary worlds, world pools are disabled");
+					size = 0;
+				} catch (ExecutionException e) {
+					MultiworldMod.LOGGER.error("Failed to prepare a world of pool " + name, e.getCause());
+				} catch (Exception e) {
+					MultiworldMod.LOGGER.error("Failed to create a world of pool " + name, e);
+				}
+				return false;
+			}
+			if (ready.size() + warming.size() + restoring < size) {
+				WorldSpec.setupServer(mc);
+				WorldSpec spec = WorldSpec.of(meta);
+				preparing = WorldSpec.getPreparePool().submit(() -> spec.prepare(mc));
+			}
+			return false;
+		}
+
+		/**
+		 * Commit a world and force the chunks around its spawn
+		 */
+		ServerWorld create(MinecraftServer mc, WorldSpec spec) {
+			ServerWorld world = open(mc, spec);
+			if (null != world) {
+				warm(world);
+			}
+			return world;
+		}
+
+		private ServerWorld open(MinecraftServer mc, WorldSpec spec) {
+			ServerWorld world = spec.commitTemporary(mc);
+			if (null == world) {
+				return null;
+			}
+			WorldDistances.apply(world, meta);
+			WorldQuotas.apply(world, meta);
+			return world;
+		}
+
+		/**
+		 * Force the chunks around the spawn of a world, it is ready once they are loaded
+		 */
+		private void warm(ServerWorld world) {
+			BlockPos spawn = MultiworldMod.get_world_creator().get_spawn(world);
+			int cx = spawn.getX() >> 4;
+			int cz = spawn.getZ() >> 4;
+			for (int x = -spawnRadius; x <= spawnRadius; x++) {
+				for (int z = -spawnRadius; z <= spawnRadius; z++) {
+					world.setChunkForced(cx + x, cz + z, true);
+				}
+			}
+			warming.add(new Warming(world, cx, cz));
+		}
+
+		/**
+		 * Copy the files of a warm world, its spawn chunks are saved first
+		 */
+		private void snapshot(ServerWorld world) {
+			MinecraftServer mc = world.getServer();
+			Path to = getSnapshotDir(mc, name);
+			snapshotting = true;
+			WorldResets.snapshot(mc, world, WorldCloner.getDimensionDir(mc, world.getRegistryKey().getValue()), to)
+					.whenComplete((v, e) -> {
+						snapshotting = false;
+						if (null != e) {
+							MultiworldMod.LOGGER.warn("Could not copy a world of pool " + name + ", returned worlds are generated again", e);
+						} else if (POOLS.get(name) == this) {
+							snapshot = to;
+						}
+					});
+		}
+
+		/**
+		 * Restore the snapshot in a world that has no chunks loaded yet, then warm it up.
+		 * The world is not saved meanwhile, so the copy does not race its writes.
+		 */
+		private void restore(MinecraftServer mc, ServerWorld world) {
+			Path from = snapshot;
+			Path to = WorldCloner.getDimensionDir(mc, world.getRegistryKey().getValue());
+			boolean disabled = world.savingDisabled;
+			world.savingDisabled = true;
+			restoring++;
+			CompletableFuture.runAsync(() -> {
+				try {
+					WorldCloner.deleteTree(to);
+					WorldCloner.copy(from, to);
+				} catch (IOException e) {
+					throw new CompletionException(e);
+				}
+			}, WorldCloner.COPY_POOL).whenCompleteAsync((v, e) -> {
+				restoring--;
+				world.savingDisabled = disabled;
+				if (null != e) {
+					// The copy goes through a temporary directory, the world is left empty
+					MultiworldMod.LOGGER.warn("Could not restore a world of pool " + name + ", generating it instead", e);
+					snapshot = null;
+				}
+				if (POOLS.get(name) != this) {
+					return;
+				}
+				warm(world);
+			}, mc);
+		}
+	}
+
+	private static final class Warming {
+		final ServerWorld world;
+		final int cx;
+		final int cz;
+
+		Warming(ServerWorld world, int cx, int cz) {
+			this.world = world;
+			this.cx = cx;
+			this.cz = cz;
+		}
+
+		boolean isLoaded(int radius) {
+			for (int x = -radius; x <= radius; x++) {
+				for (int z = -radius; z <= radius; z++) {
+					if (!world.getChunkManager().isChunkLoaded(cx + x, cz + z)) {
+						return false;
+					}
+				}
+			}
+			return true;
+		}
+	}
+
+}
@@ -0,0 +1,280 @@
+package me.isaiah.multiworld.world;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import me.isaiah.multiworld.MultiworldMod;
+import multiworld.mixin.WorldAccessor;
+import net.minecraft.entity.Entity;
+import net.minecraft.entity.SpawnGroup;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Per world limits on entities and ticking block entities, and a soft limit on
+ * loaded chunks, from "max_entities_&lt;group&gt;", "max_block_entities" and
+ * "soft_max_chunks" in the world's config.
+ *
+ * <ul>
+ * <li>Entities: spawning a new entity of a spawn group (ex: "monster") that is
+ *     at its limit is refused. Entities loaded with their chunk are not.
+ *     Entities are counted once a second, spawns in between are added.</li>
+ * <li>Block entities: a block entity that would start ticking while the world
+ *     is at its limit stays idle until its chunk is loaded again.</li>
+ * <li>Chunks: a view distance throttle, not a hard limit. While a world has more
+ *     chunks loaded than "soft_max_chunks", its view distance is lowered by one every
+ *     second (down to {@link #MIN_VIEW_DISTANCE}), so the chunks furthest from players,
+ *     the least likely to be used, are unloaded first and no new ones are loaded at
+ *     the edge. It is raised again once the world is back under 80% of the limit.
+ *     Chunk loads are never refused, players at the minimum distance and chunks
+ *     loaded by game logic can keep the world above it. Forced chunks do not count.</li>
+ * </ul>
+ *
+ * The refusals are counted for "/mw stats".
+ */
+public final class WorldQuotas {
+
+	public static final int MIN_VIEW_DISTANCE = 2;
+
+	private static final SpawnGroup[] GROUPS = SpawnGroup.values();
+	private static final Map<ServerWorld, Quota> QUOTAS = new ConcurrentHashMap<>();
+
+	private static int ticks;
+
+	private WorldQuotas() {
+	}
+
+	/**
+	 * Apply the limits saved in the world's config
+	 */
+	public static void apply(ServerWorld world, WorldMeta meta) {
+		Quota old = QUOTAS.get(world);
+		Quota q = new Quota();
+		q.softMaxChunks = meta.getSoftMaxChunks();
+		q.maxBlockEntities = meta.getMaxBlockEntities();
+		for (Map.Entry<String, Integer> max : meta.getMaxEntities().entrySet()) {
+			SpawnGroup group = getGroup(max.getKey());
+			if (null == group) {
+				MultiworldMod.LOGGER.warn("Unknown spawn group '{}' in the config of '{}'", max.getKey(), meta.getId());
+				continue;
+			}
+			q.maxEntities[group.ordinal()] = max.getValue();
+			q.hasEntityLimit = true;
+		}
+		if (null != old) {
+			q.refusedSpawns = old.refusedSpawns;
+			q.refusedBlockEntities = old.refusedBlockEntities;
+			if (q.softMaxChunks > 0) {
+				q.viewDistance = old.viewDistance;
+			} else if (old.viewDistance > 0) {
+				world.getChunkManager().applyViewDistance(getViewDistance(world));
+			}
+		}
+
+		if (q.softMaxChunks <= 0 && q.maxBlockEntities <= 0 && !q.hasEntityLimit) {
+			QUOTAS.remove(world);
+			return;
+		}
+		if (q.hasEntityLimit) {
+			count(world, q);
+		}
+		QUOTAS.put(world, q);
+	}
+
+	/**
+	 * Called when an entity is spawned in the world, on the thread ticking the world
+	 *
+	 * @return false to refuse the spawn
+	 */
+	public static boolean allowSpawn(ServerWorld world, Entity entity) {
+		Quota q = QUOTAS.get(world);
+		if (null == q || !q.hasEntityLimit || entity instanceof ServerPlayerEntity) {
+			return true;
+		}
+		int group = entity.getType().getSpawnGroup().ordinal();
+		int max = q.maxEntities[group];
+		if (max > 0 && q.entities[group] >= max) {
+			q.refusedSpawns++;
+			return false;
+		}
+		q.entities[group]++;
+		return true;
+	}
+
+	/**
+	 * Called when a block entity of the world would start ticking
+	 *
+	 * @return false to leave it idle
+	 */
+	public static boolean allowBlockEntityTicker(ServerWorld world) {
+		Quota q = QUOTAS.get(world);
+		if (null == q || q.maxBlockEntities <= 0) {
+			return true;
+		}
+		if (((WorldAccessor) world).multiworld$getBlockEntityTickers().size() >= q.maxBlockEntities) {
+			q.refusedBlockEntities++;
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Called at the end of every server tick
+	 */
+	public static void onTickEnd(MinecraftServer mc) {
+		if (++ticks < 20 || QUOTAS.isEmpty()) {
+			return;
+		}
+		ticks = 0;
+
+		for (Map.Entry<ServerWorld, Quota> e : QUOTAS.entrySet()) {
+			ServerWorld world = e.getKey();
+			Quota q = e.getValue();
+			if (q.hasEntityLimit) {
+				count(world, q);
+			}
+			if (q.softMaxChunks > 0) {
+				limitChunks(world, q);
+			}
+		}
+	}
+
+	private static void limitChunks(ServerWorld world, Quota q) {
+		int loaded = countChunks(world);
+		int full = getViewDistance(world);
+		int current = q.viewDistance > 0 ? Math.min(q.viewDistance, full) : full;
+
+		if (loaded > q.softMaxChunks && current > MIN_VIEW_DISTANCE) {
+			q.viewDistance = current - 1;
+			world.getChunkManager().applyViewDistance(q.viewDistance);
+		} else if (q.viewDistance > 0 && loaded < q.softMaxChunks * 0.8D) {
+			q.viewDistance = current + 1 >= full ? 0 : current + 1;
+			world.getChunkManager().applyViewDistance(q.viewDistance > 0 ? q.viewDistance : full);
+		}
+	}
+
+	private static void count(ServerWorld world, Quota q) {
+		int[] counts = new int[GROUPS.length];
+		for (Entity entity : world.iterateEntities()) {
+			if (!(entity instanceof ServerPlayerEntity)) {
+				counts[entity.getType().getSpawnGroup().ordinal()]++;
+			}
+		}
+		q.entities = counts;
+	}
+
+	/**
+	 * Loaded chunks counted against "soft_max_chunks". Forced chunks are left out,
+	 * lowering the view distance does not unload them.
+	 */
+	private static int countChunks(ServerWorld world) {
+		return world.getChunkManager().getLoadedChunkCount() - world.getForcedChunks().size();
+	}
+
+	/**
+	 * The view distance of the world when it is not over its chunk limit
+	 */
+	private static int getViewDistance(ServerWorld world) {
+		return WorldDistances.getViewDistance(world);
+	}
+
+	/**
+	 * @return the view distance the world was lowered to, 0 when it is not over its chunk limit
+	 */
+	public static int getLoweredViewDistance(ServerWorld world) {
+		Quota q = QUOTAS.get(world);
+		return null == q ? 0 : q.viewDistance;
+	}
+
+	/**
+	 * @return the spawn group with this name (ex: "monster"), or null
+	 */
+	public static SpawnGroup getGroup(String name) {
+		for (SpawnGroup group : GROUPS) {
+			if (group.getName().equalsIgnoreCase(name) || group.name().equalsIgnoreCase(name)) {
+				return group;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Names of the spawn groups, for "max_entities_&lt;group&gt;"
+	 */
+	public static String[] getGroupNames() {
+		String[] names = new String[GROUPS.length];
+		for (int i = 0; i < GROUPS.length; i++) {
+			names[i] = GROUPS[i].getName();
+		}
+		return names;
+	}
+
+	/**
+	 * Lines for "/mw stats", empty if the world has no limits
+	 */
+	public static String[] describe(ServerWorld world) {
+		Quota q = QUOTAS.get(world);
+		if (null == q) {
+			return new String[0];
+		}
+		StringBuilder entities = new StringBuilder();
+		for (SpawnGroup group : GROUPS) {
+			int max = q.maxEntities[group.ordinal()];
+			if (max > 0) {
+				if (entities.length() > 0) entities.append(", ");
+				entities.append(group.getName()).append(' ').append(q.entities[group.ordinal()]).append('/').append(max);
+			}
+		}
+		return new String[] {
+				"Soft chunk limit: " + (q.softMaxChunks > 0 ? countChunks(world) + "/" + q.softMaxChunks
+						+ (q.viewDistance > 0 ? ", view distance lowered to " + q.viewDistance : "") : "no limit"),
+				"Quota entities: " + (entities.length() > 0 ? entities + ", " + q.refusedSpawns + " spawns refused" : "no limit"),
+				"Quota block entities: " + (q.maxBlockEntities > 0 ? ((WorldAccessor) world).multiworld$getBlockEntityTickers().size()
+						+ "/" + q.maxBlockEntities + ", " + q.refusedBlockEntities + " refused" : "no limit")
+		};
+	}
+
+	/**
+	 * @return true if the world is at one of its limits right now
+	 */
+	public static boolean isAtLimit(ServerWorld world) {
+		Quota q = QUOTAS.get(world);
+		if (null == q) {
+			return false;
+		}
+		if (q.viewDistance > 0) {
+			return true;
+		}
+		if (q.maxBlockEntities > 0 && ((WorldAccessor) world).multiworld$getBlockEntityTickers().size() >= q.maxBlockEntities) {
+			return true;
+		}
+		for (int i = 0; i < GROUPS.length; i++) {
+			if (q.maxEntities[i] > 0 && q.entities[i] >= q.maxEntities[i]) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Forget a world that is being deleted or unloaded
+	 */
+	public static void forget(ServerWorld world) {
+		QUOTAS.remove(world);
+	}
+
+	private static final class Quota {
+		int softMaxChunks;
+		int maxBlockEntities;
+		final int[] maxEntities = new int[GROUPS.length];
+		boolean hasEntityLimit;
+
+		int[] entities = new int[GROUPS.length];
+		long refusedSpawns;
+		long refusedBlockEntities;
+		/** Lowered view distance, 0 when not lowered */
+		int viewDistance;
+	}
+
+}
@@ -0,0 +1,392 @@
+package me.isaiah.multiworld.world;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import me.isaiah.multiworld.MultiworldMod;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.util.WorldSavePath;
+
+/**
+ * Resets worlds to a snapshot of their files, ex: an arena after every match.
+ *
+ * <p>{@link #snapshot(MinecraftServer, String)} copies the world's dimension directory
+ * to "&lt;level&gt;/multiworld_snapshots/&lt;namespace&gt;/&lt;path&gt;", the same way
+ * {@link WorldCloner} copies worlds. The copies keep the modified time of the files.
+ *
+ * <p>A file changed since the snapshot if its size or modified time is different.
+ * {@link #reset(MinecraftServer, String)} goes through these stages:
+ * <ol>
+ * <li>Staging, on a worker thread while the world still runs: the snapshot copy of
+ *     every file that changed is copied to "&lt;world dir&gt;~reset".</li>
+ * <li>Unloading: the world is unloaded like "/mw unload", players are sent to the
+ *     overworld spawn.</li>
+ * <li>Swapping, on a worker thread: files that did not change are moved from the world
+ *     to the staging directory, files that changed after staging are copied from the
+ *     snapshot, then the directories are swapped with atomic renames. Files that are
+ *     not in the snapshot, ex: regions generated since, are dropped.</li>
+ * <li>The world is loaded again, if it was loaded before.</li>
+ * </ol>
+ *
+ * Only the world's files are reset, its config is kept. A world can not be loaded
+ * while it is swapped. All methods must be called on the server thread.
+ */
+public final class WorldResets {
+
+	public static final String SNAPSHOTS_DIR = "multiworld_snapshots";
+
+	private static final Map<String, Reset> RESETS = new LinkedHashMap<>();
+
+	private WorldResets() {
+	}
+
+	/**
+	 * "&lt;level&gt;/multiworld_snapshots/&lt;namespace&gt;/&lt;path&gt;"
+	 */
+	public static Path getSnapshotDir(MinecraftServer mc, Identifier id) {
+		return mc.getSavePath(WorldSavePath.ROOT).resolve(SNAPSHOTS_DIR)
+				.resolve(id.getNamespace()).resolve(id.getPath()).normalize();
+	}
+
+	/**
+	 */
+	public static boolean hasSnapshot(MinecraftServer mc, Identifier id) {
+		return Files.isDirectory(getSnapshotDir(mc, id));
+	}
+
+	/**
+	 * Take (or replace) the snapshot of a world. A loaded world must be empty,
+	 * it is flushed and not ticked or saved while it is copied.
+	 *
+	 * @return completed on the server thread. Fails with an {@link IllegalStateException}
+	 *         if the world can not be snapshotted.
+	 */
+	public static CompletableFuture<Void> snapshot(MinecraftServer mc, String id) {
+		CompletableFuture<Void> failed = new CompletableFuture<>();
+		String problem = check(mc, id);
+		if (null != problem) {
+			failed.completeExceptionally(new IllegalStateException(problem));
+			return failed;
+		}
+		Identifier key = MultiworldMod.new_id(id);
+		ServerWorld world = WorldActivator.getLoaded(mc, id);
+		if (null != world && !world.getPlayers().isEmpty()) {
+			failed.completeExceptionally(new IllegalStateException("Players are in world '" + id + "', snapshot a world nobody is in"));
+			return failed;
+		}
+		long start = System.nanoTime();
+		return snapshot(mc, world, WorldCloner.getDimensionDir(mc, key), getSnapshotDir(mc, key)).whenComplete((v, e) -> {
+			if (null == e) {
+				MultiworldMod.LOGGER.info("Took a snapshot of world {} in {} ms", id,
+						TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+			}
+		});
+	}
+
+	/**
+	 * Replace a snapshot with a copy of a world's directory, see {@link WorldPool}
+	 *
+	 * @param world - the loaded world, or null if it is dormant
+	 * @return completed on the server thread
+	 */
+	static CompletableFuture<Void> snapshot(MinecraftServer mc, ServerWorld world, Path from, Path to) {
+		CompletableFuture<Void> writes = null != world ? WorldCloner.hold(world) : CompletableFuture.completedFuture(null);
+		return CompletableFuture.runAsync(() -> {
+			try {
+				writes.join();
+				WorldCloner.deleteTree(to);
+				WorldCloner.copy(from, to);
+			} catch (IOException e) {
+				throw new CompletionException(e);
+			}
+		}, WorldCloner.COPY_POOL).whenCompleteAsync((v, e) -> {
+			if (null != world) {
+				WorldCloner.release(world);
+			}
+		}, mc);
+	}
+
+	/**
+	 * Reset a world to its snapshot
+	 *
+	 * @return the world once it is loaded again (null if it was not loaded),
+	 *         completed on the server thread. Fails with an {@link IllegalStateException}
+	 *         if the world can not be reset.
+	 */
+	public static CompletableFuture<ServerWorld> reset(MinecraftServer mc, String id) {
+		CompletableFuture<ServerWorld> failed = new CompletableFuture<>();
+		String problem = check(mc, id);
+		if (null == problem && !hasSnapshot(mc, MultiworldMod.new_id(id))) {
+			problem = "World '" + id + "' has no snapshot, take one with /mw reset snapshot " + id;
+		}
+		if (null != problem) {
+			failed.completeExceptionally(new IllegalStateException(problem));
+			return failed;
+		}
+
+		Identifier key = MultiworldMod.new_id(id);
+		Reset r = new Reset(id, WorldCloner.getDimensionDir(mc, key), getSnapshotDir(mc, key),
+				null != WorldActivator.getLoaded(mc, id));
+		r.work = CompletableFuture.runAsync(() -> {
+			try {
+				r.stage();
+			} catch (IOException e) {
+				throw new CompletionException(e);
+			}
+		}, WorldCloner.COPY_POOL);
+		RESETS.put(id, r);
+		return r.result;
+	}
+
+	/**
+	 * @return why the world can not be snapshotted or reset, or null if it can
+	 */
+	private static String check(MinecraftServer mc, String id) {
+		Identifier key = MultiworldMod.new_id(id);
+		if (null == key || key.getNamespace().equals("minecraft")) {
+			return "Vanilla worlds can not be reset";
+		}
+		if (null == WorldMetaRegistry.get(key)) {
+			return "World '" + id + "' does not exist";
+		}
+		if (RESETS.containsKey(id)) {
+			return "World '" + id + "' is already being reset";
+		}
+		if (WorldActivator.isUnloading(id)) {
+			return "World '" + id + "' is unloading, try again in a moment";
+		}
+		if (null == WorldActivator.getLoaded(mc, id) && !WorldActivator.isDormant(id)) {
+			return "World '" + id + "' is not restored yet, try again in a moment";
+		}
+		return null;
+	}
+
+	/**
+	 * @return true if the world is being reset
+	 */
+	public static boolean isResetting(String id) {
+		return RESETS.containsKey(id);
+	}
+
+	/**
+	 * @return true if the world's files are being replaced, it must not be loaded
+	 */
+	public static boolean isSwapping(String id) {
+		Reset r = RESETS.get(id);
+		return null != r && r.stage != Stage.STAGING;
+	}
+
+	/**
+	 * Called at the end of every server tick, moves the resets to their next stage
+	 */
+	public static void onTickEnd(MinecraftServer mc) {
+		if (RESETS.isEmpty()) {
+			return;
+		}
+		Iterator<Reset> it = RESETS.values().iterator();
+		while (it.hasNext()) {
+			Reset r = it.next();
+			if (null != r.work && !r.work.isDone()) {
+				continue;
+			}
+			try {
+				if (null == WorldMetaRegistry.get(MultiworldMod.new_id(r.id))) {
+					throw new IllegalStateException("World '" + r.id + "' was deleted");
+				}
+				if (null != r.work) {
+					r.work.get();
+					r.work = null;
+				}
+				if (r.stage == Stage.STAGING) {
+					ServerWorld world = WorldActivator.getLoaded(mc, r.id);
+					if (null != world && !WorldActivator.unload(mc, world)) {
+						throw new IllegalStateException("Unloading worlds is not supported on Minecraft " + mc.getVersion());
+					}
+					r.stage = Stage.UNLOADING;
+				}
+				if (r.stage == Stage.UNLOADING) {
+					if (null != WorldActivator.getLoaded(mc, r.id)) {
+						// Fantasy waits for its chunks to unload
+						continue;
+					}
+					r.stage = Stage.SWAPPING;
+					r.work = CompletableFuture.runAsync(() -> {
+						try {
+							r.swap();
+						} catch (IOException e) {
+							throw new CompletionException(e);
+						}
+					}, WorldCloner.COPY_POOL);
+					continue;
+				}
+
+				it.remove();
+				ServerWorld world = r.reload ? WorldActivator.activate(mc, r.id) : null;
+				MultiworldMod.LOGGER.info("Reset world {} in {} ms, {} file(s) replaced and {} kept", r.id,
+						TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - r.start), r.replaced, r.kept);
+				r.result.complete(world);
+			} catch (ExecutionException e) {
+				fail(it, r, e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause());
+			} catch (Exception e) {
+				fail(it, r, e);
+			}
+		}
+	}
+
+	private static void fail(Iterator<Reset> it, Reset r, Throwable e) {
+		it.remove();
+		if (r.stage == Stage.STAGING) {
+			WorldCloner.COPY_POOL.execute(() -> {
+				try {
+					WorldCloner.deleteTree(r.staging);
+				} catch (IOException ex) {
+					MultiworldMod.LOGGER.warn("Could not delete " + r.staging, ex);
+				}
+			});
+		} else if (r.stage == Stage.SWAPPING) {
+			MultiworldMod.LOGGER.error("Reset of world {} failed while its files were replaced, check {} and {}", r.id, r.live, r.staging);
+		}
+		r.result.completeExceptionally(e);
+	}
+
+	/**
+	 * Delete the snapshot of a world, i.e. when it is deleted
+	 */
+	public static void deleteSnapshot(MinecraftServer mc, String id) {
+		Identifier key = MultiworldMod.new_id(id);
+		if (null == key || !hasSnapshot(mc, key)) {
+			return;
+		}
+		Path dir = getSnapshotDir(mc, key);
+		WorldCloner.COPY_POOL.execute(() -> {
+			try {
+				WorldCloner.deleteTree(dir);
+			} catch (IOException e) {
+				MultiworldMod.LOGGER.warn("Could not delete snapshot " + dir, e);
+			}
+		});
+	}
+
+	/**
+	 * A line per reset in progress, for "/mw reset"
+	 */
+	public static List<String> describe() {
+		List<String> lines = new ArrayList<>();
+		for (Reset r : RESETS.values()) {
+			lines.add(r.id + ": " + r.stage.name().toLowerCase(Locale.ROOT) + " ("
+					+ TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - r.start) + "s)");
+		}
+		return lines;
+	}
+
+	/**
+	 * @return true if the file has the size and modified time it had when the snapshot was taken
+	 */
+	private static boolean unchanged(Path snapshot, Path file) {
+		try {
+			BasicFileAttributes a = Files.readAttributes(snapshot, BasicFileAttributes.class);
+			BasicFileAttributes b = Files.readAttributes(file, BasicFileAttributes.class);
+			return a.size() == b.size() && a.lastModifiedTime().equals(b.lastModifiedTime());
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static List<Path> listFiles(Path dir) throws IOException {
+		try (Stream<Path> paths = Files.walk(dir)) {
+			return paths.filter(Files::isRegularFile).collect(Collectors.toList());
+		}
+	}
+
+	private enum Stage {
+		STAGING, UNLOADING, SWAPPING
+	}
+
+	private static final class Reset {
+		final String id;
+		final Path live;
+		final Path snapshot;
+		final Path staging;
+		final boolean reload;
+		final long start = System.nanoTime();
+		final CompletableFuture<ServerWorld> result = new CompletableFuture<>();
+
+		Stage stage = Stage.STAGING;
+		CompletableFuture<Void> work;
+		int replaced;
+		int kept;
+
+		Reset(String id, Path live, Path snapshot, boolean reload) {
+			this.id = id;
+			this.live = live;
+			this.snapshot = snapshot;
+			this.staging = live.resolveSibling(live.getFileName() + "~reset");
+			this.reload = reload;
+		}
+
+		/**
+		 * Copy the snapshot of the files that changed, the world is still running
+		 */
+		void stage() throws IOException {
+			WorldCloner.deleteTree(staging);
+			Files.createDirectories(staging);
+			for (Path file : listFiles(snapshot)) {
+				String rel = snapshot.relativize(file).toString();
+				if (!unchanged(file, live.resolve(rel))) {
+					Path to = staging.resolve(rel);
+					Files.createDirectories(to.getParent());
+					Files.copy(file, to, StandardCopyOption.COPY_ATTRIBUTES);
+					replaced++;
+				}
+			}
+		}
+
+		/**
+		 * Fill in the rest of the staging directory and swap it with the world's, the world is unloaded
+		 */
+		void swap() throws IOException {
+			for (Path file : listFiles(snapshot)) {
+				String rel = snapshot.relativize(file).toString();
+				Path to = staging.resolve(rel);
+				if (Files.exists(to)) {
+					continue;
+				}
+				Files.createDirectories(to.getParent());
+				Path current = live.resolve(rel);
+				if (unchanged(file, current)) {
+					Files.move(current, to);
+					kept++;
+				} else {
+					Files.copy(file, to, StandardCopyOption.COPY_ATTRIBUTES);
+					replaced++;
+				}
+			}
+
+			Path old = live.resolveSibling(live.getFileName() + "~old");
+			WorldCloner.deleteTree(old);
+			if (Files.exists(live)) {
+				Files.move(live, old, StandardCopyOption.ATOMIC_MOVE);
+			}
+			Files.move(staging, live, StandardCopyOption.ATOMIC_MOVE);
+			WorldCloner.deleteTree(old);
+		}
+	}
+
+}
@@ -0,0 +1,326 @@
+package me.isaiah.multiworld.world;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.command.CreateCommand;
+import me.isaiah.multiworld.command.GameruleCommand;
+import me.isaiah.multiworld.command.Util;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
+import net.minecraft.world.Difficulty;
+import net.minecraft.world.GameRules;
+import net.minecraft.world.GameRules.BooleanRule;
+import net.minecraft.world.GameRules.IntRule;
+import net.minecraft.world.gen.chunk.ChunkGenerator;
+
+/**
+ * Everything needed to create a world, resolved ahead of time.
+ *
+ * <p>Creating a world happens in two stages:
+ * <ol>
+ * <li>{@link #prepare(MinecraftServer)} may run on a worker thread. It
+ *     resolves the environment, dimension, difficulty and gamerules, and
+ *     builds flat, void or custom chunk generators.</li>
+ * <li>{@link #commit(MinecraftServer)} runs on the server thread and only
+ *     creates the world through Fantasy and applies the prepared values.</li>
+ * </ol>
+ *
+ * Generators of the vanilla worlds are read from the running overworld,
+ * nether or end, so they are looked up in the commit stage.
+ */
+public class WorldSpec {
+
+	private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+	private static final ExecutorService PREPARE_POOL = Executors.newFixedThreadPool(
+			Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1)),
+			new ThreadFactory() {
+				@Override
+				public Thread newThread(Runnable r) {
+					Thread t = new Thread(r, "Multiworld-Prepare-" + THREAD_ID.incrementAndGet());
+					t.setDaemon(true);
+					return t;
+				}
+			});
+
+	public final String id;
+	public final String environment;
+	public final long seed;
+	public final String customGenerator;
+
+	private Identifier dim;
+	private Difficulty difficulty = Difficulty.NORMAL;
+	private ChunkGenerator generator;
+	private boolean customGeneratorValid = true;
+	private final List<PreparedRule> gamerules = new ArrayList<>();
+	private Map<String, String> rawGamerules;
+	private int tickInterval = 1;
+	private boolean frozen;
+	private boolean prepared;
+	private boolean resolved;
+
+	/**
+	 * @param customGenerator - the "-g=" name, or null
+	 */
+	public WorldSpec(String id, String environment, long seed, String customGenerator) {
+		this.id = id;
+		this.environment = (null == environment || environment.isEmpty()) ? "NORMAL" : environment;
+		this.seed = seed;
+		this.customGenerator = (null == customGenerator || customGenerator.isEmpty()) ? null : customGenerator;
+	}
+
+	/**
+	 * Spec of a saved world
+	 */
+	public static WorldSpec of(WorldMeta meta) {
+		String env = meta.getEnvironment();
+		if (env == null || env.isEmpty()) {
+			MultiworldMod.LOGGER.warn("Missing 'environment' in config for '{}', defaulting to NORMAL", meta.getId());
+		}
+
+		WorldSpec spec = new WorldSpec(meta.getId().toString(), env, meta.getSeed(), meta.getCustomGenerator());
+		String di = meta.getDifficulty();
+		if (di != null) {
+			if (di.equalsIgnoreCase("EASY"))          spec.difficulty = Difficulty.EASY;
+			else if (di.equalsIgnoreCase("HARD"))     spec.difficulty = Difficulty.HARD;
+			else if (di.equalsIgnoreCase("NORMAL"))   spec.difficulty = Difficulty.NORMAL;
+			else if (di.equalsIgnoreCase("PEACEFUL")) spec.difficulty = Difficulty.PEACEFUL;
+		}
+		// Copied, prepare() may run on another thread
+		spec.rawGamerules = new LinkedHashMap<>(meta.getGamerules());
+		spec.tickInterval = meta.getTickInterval();
+		spec.frozen = meta.isFrozen();
+		return spec;
+	}
+
+	/**
+	 * Pool that runs {@link #prepare(MinecraftServer)}
+	 */
+	public static ExecutorService getPreparePool() {
+		return PREPARE_POOL;
+	}
+
+	/**
+	 * Make sure everything {@link #prepare(MinecraftServer)} reads is set up.
+	 * Must be called on the server thread before submitting prepares.
+	 */
+	public static void setupServer(MinecraftServer mc) {
+		if (GameruleCommand.keys.size() == 0) {
+			GameruleCommand.setupServer(mc);
+		}
+	}
+
+	/**
+	 * The off-thread stage. Safe to call from any thread
+	 * once {@link #setupServer(MinecraftServer)} was called.
+	 */
+	public WorldSpec prepare(MinecraftServer mc) {
+		this.dim = CreateCommand.get_dim_id(environment);
+		if (null == dim) {
+			dim = Util.OVERWORLD_ID;
+		}
+
+		if (!isVanilla(environment)) {
+			this.generator = CreateCommand.get_chunk_gen(mc, environment);
+		}
+		if (null != customGenerator && !isVanilla(customGenerator)) {
+			ChunkGenerator gen = CreateCommand.get_chunk_gen(mc, customGenerator);
+			if (null != gen) {
+				this.generator = gen;
+			} else {
+				this.customGeneratorValid = false;
+			}
+		}
+
+		if (null != rawGamerules) {
+			for (Map.Entry<String, String> rule : rawGamerules.entrySet()) {
+				PreparedRule p = PreparedRule.parse(rule.getKey(), rule.getValue());
+				if (null != p) {
+					gamerules.add(p);
+				}
+			}
+		}
+
+		this.prepared = true;
+		return this;
+	}
+
+	/**
+	 * Prepare if needed and look up the generators of the running vanilla worlds.
+	 * Must be called on the server thread.
+	 */
+	private void resolve(MinecraftServer mc) {
+		if (!prepared) {
+			setupServer(mc);
+			prepare(mc);
+		}
+		if (resolved) {
+			return;
+		}
+		resolved = true;
+
+		if (null == generator) {
+			generator = CreateCommand.get_chunk_gen(mc, environment);
+		}
+		if (null != customGenerator && isVanilla(customGenerator)) {
+			ChunkGenerator gen = CreateCommand.get_chunk_gen(mc, customGenerator);
+			if (null != gen) {
+				generator = gen;
+			} else {
+				customGeneratorValid = false;
+			}
+		}
+		if (!customGeneratorValid) {
+			MultiworldMod.LOGGER.warn("Invalid custom_generator '{}' for '{}', using default generator", customGenerator, id);
+		}
+	}
+
+	/**
+	 * Add the dimensions of many worlds in one go, before they are committed
+	 * one by one (see {@link me.isaiah.multiworld.ICreator#register_worlds(List)}). Must be called on the server thread.
+	 */
+	public static void register(MinecraftServer mc, List<WorldSpec> specs) {
+		if (specs.isEmpty()) {
+			return;
+		}
+		for (WorldSpec spec : specs) {
+			spec.resolve(mc);
+		}
+		MultiworldMod.get_world_creator().register_worlds(specs);
+	}
+
+	/**
+	 * The server thread stage: create the world and apply the prepared values.
+	 */
+	public ServerWorld commit(MinecraftServer mc) {
+		ServerWorld world = create(mc, false);
+		WorldMeta meta = WorldMetaRegistry.get(world);
+		if (null != meta) {
+			WorldDistances.apply(world, meta);
+			WorldQuotas.apply(world, meta);
+		}
+		return world;
+	}
+
+	/**
+	 * Like {@link #commit(MinecraftServer)}, but the world is a temporary world:
+	 * it gets a random id, has no config and is deleted when the server stops.
+	 * See {@link WorldPool}
+	 *
+	 * @return null if this Minecraft version can not open temporary worlds
+	 */
+	public ServerWorld commitTemporary(MinecraftServer mc) {
+		return create(mc, true);
+	}
+
+	@SuppressWarnings("unchecked")
+	private ServerWorld create(MinecraftServer mc, boolean temporary) {
+		resolve(mc);
+
+		ServerWorld world;
+		if (temporary) {
+			world = MultiworldMod.get_world_creator().create_temporary_world(dim, generator, difficulty, seed);
+			if (null == world) {
+				return null;
+			}
+		} else {
+			world = MultiworldMod.create_world(id, dim, generator, difficulty, seed);
+			MultiworldMod.get_world_creator().set_difficulty(id, difficulty);
+		}
+
+		GameRules rules = GameruleCommand.getGameRules(world);
+		for (PreparedRule rule : gamerules) {
+			if (rule.bool) {
+				((BooleanRule) rules.get(rule.key)).set(rule.boolValue, mc);
+			} else {
+				((IntRule) rules.get(rule.key)).set(rule.intValue, mc);
+			}
+		}
+		WorldTicks.set(world, tickInterval, frozen);
+		return world;
+	}
+
+	/**
+	 * The dimension type, once prepared
+	 */
+	public Identifier getDimension() {
+		return dim;
+	}
+
+	/**
+	 * The chunk generator, once prepared. Generators of vanilla worlds are set by {@link #register}
+	 * or {@link #commit}.
+	 */
+	public ChunkGenerator getGenerator() {
+		return generator;
+	}
+
+	/**
+	 */
+	public Difficulty getDifficulty() {
+		return difficulty;
+	}
+
+	/**
+	 * @return false if a "-g=" generator was given but does not exist
+	 */
+	public boolean isCustomGeneratorValid() {
+		return customGeneratorValid;
+	}
+
+	/**
+	 * Environments whose generator comes from a running vanilla world
+	 */
+	private static boolean isVanilla(String env) {
+		String e = env.toUpperCase(Locale.ROOT);
+		if (e.contains("FLAT") || e.contains("VOID")) {
+			return false;
+		}
+		return e.contains("NORMAL") || e.contains("DEFAULT") || e.contains("NETHER") || e.contains("END");
+	}
+
+	/**
+	 * A gamerule value, already matched to its key and parsed
+	 */
+	@SuppressWarnings("rawtypes")
+	private static final class PreparedRule {
+		GameRules.Key key;
+		boolean bool;
+		boolean boolValue;
+		int intValue;
+
+		static PreparedRule parse(String name, String value) {
+			GameRules.Key key = GameruleCommand.keys.get(name);
+			if (null == key || null == value) {
+				return null;
+			}
+
+			PreparedRule rule = new PreparedRule();
+			rule.key = key;
+			String v = value.trim();
+			if (v.equalsIgnoreCase("true") || v.equalsIgnoreCase("false")) {
+				rule.bool = true;
+				rule.boolValue = Boolean.parseBoolean(v);
+				return rule;
+			}
+			try {
+				rule.intValue = Integer.parseInt(v);
+			} catch (NumberFormatException e) {
+				MultiworldMod.LOGGER.warn("Ignoring gamerule {} with invalid value '{}'", name, value);
+				return null;
+			}
+			return rule;
+		}
+	}
+
+}
@@ -0,0 +1,164 @@
+package me.isaiah.multiworld.world;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import multiworld.mixin.WorldAccessor;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Times the tick of every world, for "/mw stats".
+ *
+ * <p>{@link #begin(ServerWorld)} and {@link #end(ServerWorld)} are called by the
+ * platform mixins around {@code ServerWorld#tick}, on the thread that runs the
+ * tick (the server thread, or a pool thread with {@link ParallelTicks}).
+ * Ticks skipped by {@link WorldTicks} are not counted.
+ *
+ * <p>The last {@link #WINDOW} tick times of each world are kept, two
+ * {@code System.nanoTime()} calls and an array store per tick. Averages and
+ * percentiles are only worked out when asked for.
+ */
+public final class WorldStats {
+
+	/**
+	 * Number of ticks kept per world, 5 seconds at the full tick rate
+	 */
+	public static final int WINDOW = 100;
+
+	private static final Map<ServerWorld, Timings> TIMINGS = new ConcurrentHashMap<>();
+
+	private WorldStats() {
+	}
+
+	public static void begin(ServerWorld world) {
+		TIMINGS.computeIfAbsent(world, w -> new Timings()).start = System.nanoTime();
+	}
+
+	public static void end(ServerWorld world) {
+		Timings t = TIMINGS.get(world);
+		if (null == t || t.start == 0) {
+			return;
+		}
+		t.samples[t.next] = System.nanoTime() - t.start;
+		t.next = (t.next + 1) % WINDOW;
+		if (t.count < WINDOW) {
+			t.count++;
+		}
+		t.start = 0;
+		t.lastTick = world.getServer().getTicks();
+	}
+
+	/**
+	 * Forget a world that is being deleted or unloaded
+	 */
+	public static void forget(ServerWorld world) {
+		TIMINGS.remove(world);
+	}
+
+	/**
+	 * @param minTicks - ticks the world must have been timed for, or 0 is returned
+	 * @return the average tick time of a world in milliseconds
+	 */
+	public static double getMspt(ServerWorld world, int minTicks) {
+		Timings t = TIMINGS.get(world);
+		if (null == t || t.count == 0 || t.count < minTicks) {
+			return 0;
+		}
+		long total = 0;
+		for (int i = 0; i < t.count; i++) {
+			total += t.samples[i];
+		}
+		return total / (double) t.count / 1_000_000D;
+	}
+
+	/**
+	 * @return the stats of a world, call on the server thread
+	 */
+	public static Snapshot get(ServerWorld world) {
+		Snapshot s = new Snapshot();
+		s.world = world;
+		s.id = world.getRegistryKey().getValue().toString();
+
+		Timings t = TIMINGS.get(world);
+		if (null != t && t.count > 0) {
+			long[] sorted = Arrays.copyOf(t.samples, t.count);
+			Arrays.sort(sorted);
+			long total = 0;
+			for (long n : sorted) {
+				total += n;
+			}
+			s.ticks = t.count;
+			s.mspt = total / (double) t.count / 1_000_000D;
+			s.p50 = percentile(sorted, 50) / 1_000_000D;
+			s.p99 = percentile(sorted, 99) / 1_000_000D;
+			s.max = sorted[sorted.length - 1] / 1_000_000D;
+			s.lastTick = t.lastTick;
+		}
+
+		s.chunks = world.getChunkManager().getLoadedChunkCount();
+		int entities = 0;
+		for (Entity e : world.iterateEntities()) {
+			entities++;
+		}
+		s.entities = entities;
+		s.blockEntities = ((WorldAccessor) world).multiworld$getBlockEntityTickers().size();
+		return s;
+	}
+
+	/**
+	 * @return the stats of all loaded worlds, most expensive first
+	 */
+	public static List<Snapshot> getAll(MinecraftServer mc) {
+		List<Snapshot> list = new ArrayList<>();
+		List<ServerWorld> loaded = new ArrayList<>();
+		for (ServerWorld world : mc.getWorlds()) {
+			loaded.add(world);
+			list.add(get(world));
+		}
+		TIMINGS.keySet().retainAll(loaded);
+		list.sort(Comparator.comparingDouble((Snapshot s) -> s.mspt).reversed());
+		return list;
+	}
+
+	private static long percentile(long[] sorted, int p) {
+		int i = (int) Math.ceil(p / 100D * sorted.length) - 1;
+		return sorted[Math.max(0, Math.min(i, sorted.length - 1))];
+	}
+
+	private static final class Timings {
+		final long[] samples = new long[WINDOW];
+		int next;
+		int count;
+		long start;
+		int lastTick;
+	}
+
+	/**
+	 * The stats of one world at the time it was asked for
+	 */
+	public static final class Snapshot {
+		public ServerWorld world;
+		public String id;
+
+		/** Ticks in the window, 0 if the world was not ticked yet */
+		public int ticks;
+		public double mspt;
+		public double p50;
+		public double p99;
+		public double max;
+		/** Server tick of the last tick of this world */
+		public int lastTick;
+
+		public int chunks;
+		public int entities;
+		/** Ticking block entities */
+		public int blockEntities;
+	}
+
+}
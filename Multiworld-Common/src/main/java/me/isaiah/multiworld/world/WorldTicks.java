@@ -0,0 +1,130 @@
+package me.isaiah.multiworld.world;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Decides if a world is ticked this server tick.
+ *
+ * <p>Called at the head of {@code ServerWorld#tick} by the platform mixins
+ * ({@code multiworld.mixin.MixinServerWorld} on Fabric, the bundled
+ * Fantasy ServerWorldMixin on Forge and NeoForge).
+ *
+ * <p>A world is skipped when it is hibernating ({@link Hibernation}),
+ * while it is copied by the {@link WorldCloner},
+ * on the server ticks between its "tick_interval", when it is
+ * "frozen", or when the {@link TickScheduler} defers it. A frozen world still runs its chunk manager, so its chunks
+ * stay loaded and are sent to players, but entities, blocks, weather and
+ * time are not ticked.
+ *
+ * <p>A world that is ticked may be handed to {@link ParallelTicks} instead.
+ */
+public final class WorldTicks {
+
+	private static final Map<ServerWorld, Rate> RATES = new ConcurrentHashMap<>();
+
+	private WorldTicks() {
+	}
+
+	/**
+	 * @return false if the caller must not tick the world
+	 */
+	public static boolean shouldTick(ServerWorld world, BooleanSupplier shouldKeepTicking) {
+		if (ParallelTicks.isTicking(world)) {
+			// Already decided on the server thread, this is the pool running the tick
+			return true;
+		}
+		if (WorldCloner.isCopying(world) && world.getPlayers().isEmpty()) {
+			// Its files are being copied by "/mw clone"
+			return false;
+		}
+		if (Hibernation.isHibernating(world)) {
+			if (world.getPlayers().isEmpty()) {
+				return false;
+			}
+			// A player got in without "/mw tp" or a portal, ex: vanilla "/tp"
+			Hibernation.wake(world);
+		}
+
+		Rate rate = RATES.get(world);
+		if (null != rate) {
+			if (rate.interval > 1 && !isSlot(world, rate.interval)) {
+				return false;
+			}
+			if (rate.frozen) {
+				world.getChunkManager().tick(shouldKeepTicking, false);
+				return false;
+			}
+		}
+		if (!TickScheduler.shouldTick(world)) {
+			return false;
+		}
+		return !ParallelTicks.fork(world, shouldKeepTicking);
+	}
+
+	/**
+	 * Apply the "tick_interval" and "frozen" values of a world
+	 *
+	 * @param interval - tick every this many server ticks, 1 for every tick
+	 */
+	public static void set(ServerWorld world, int interval, boolean frozen) {
+		if (interval <= 1 && !frozen) {
+			RATES.remove(world);
+			return;
+		}
+		Rate rate = new Rate();
+		rate.interval = Math.max(1, interval);
+		rate.frozen = frozen;
+		RATES.put(world, rate);
+	}
+
+	/**
+	 * Spreads worlds with the same interval over different server ticks. The slots of
+	 * a multiple of an interval are among the slots of that interval, so the
+	 * {@link TickScheduler} can defer a world to one of every few of its ticks.
+	 *
+	 * @return true if this server tick is one of the world's ticks at this interval
+	 */
+	static boolean isSlot(ServerWorld world, int interval) {
+		int offset = Math.floorMod(world.getRegistryKey().getValue().hashCode(), interval);
+		return (world.getServer().getTicks() + offset) % interval == 0;
+	}
+
+	/**
+	 * Apply the values saved in the world's config
+	 */
+	public static void apply(ServerWorld world, WorldMeta meta) {
+		set(world, meta.getTickInterval(), meta.isFrozen());
+	}
+
+	/**
+	 * @return the tick interval of the world, 1 if it ticks every server tick
+	 */
+	public static int getInterval(ServerWorld world) {
+		Rate rate = RATES.get(world);
+		return null == rate ? 1 : rate.interval;
+	}
+
+	/**
+	 */
+	public static boolean isFrozen(ServerWorld world) {
+		Rate rate = RATES.get(world);
+		return null != rate && rate.frozen;
+	}
+
+	/**
+	 * Forget a world that is being deleted or unloaded
+	 */
+	public static void forget(ServerWorld world) {
+		RATES.remove(world);
+	}
+
+	private static final class Rate {
+		int interval;
+		boolean frozen;
+	}
+
+}
@@ -0,0 +1,29 @@
+package multiworld.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import me.isaiah.multiworld.world.ParallelTicks;
+import net.minecraft.world.CommandBlockExecutor;
+import net.minecraft.world.World;
+
+/**
+ * Runs command blocks and command block minecarts of a world ticked in parallel
+ * on the server thread, see {@link ParallelTicks}.
+ * Their commands can reach other worlds, ex: "/tp" or "/execute in".
+ */
+@Mixin(CommandBlockExecutor.class)
+public class MixinCommandBlockExecutor {
+
+	@Inject(at = @At("HEAD"), method = "execute", cancellable = true)
+	private void multiworld$execute(World world, CallbackInfoReturnable<Boolean> ci) {
+		if (ParallelTicks.isWorkerThread()) {
+			CommandBlockExecutor executor = (CommandBlockExecutor) (Object) this;
+			ParallelTicks.runOnMain(() -> executor.execute(world));
+			ci.setReturnValue(true);
+		}
+	}
+
+}
@@ -0,0 +1,47 @@
+package multiworld.mixin;
+
+import java.util.function.BooleanSupplier;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import me.isaiah.multiworld.world.ParallelTicks;
+import me.isaiah.multiworld.world.TickScheduler;
+import net.minecraft.server.MinecraftServer;
+
+/**
+ * Waits for worlds ticked in parallel before the network and players are ticked.
+ * See {@link ParallelTicks}. Measures server ticks for the {@link TickScheduler}.
+ */
+@Mixin(MinecraftServer.class)
+public class MixinMinecraftServer {
+
+	@Inject(at = @At("HEAD"), method = "tick")
+	private void multiworld$startTick(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
+		TickScheduler.onServerTickStart();
+	}
+
+	@Inject(at = @At("RETURN"), method = "tick")
+	private void multiworld$endTick(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
+		TickScheduler.onServerTickEnd((MinecraftServer) (Object) this);
+	}
+
+	@Inject(at = @At("HEAD"), method = "tickWorlds")
+	private void multiworld$startTickWorlds(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
+		ParallelTicks.begin();
+	}
+
+	@Inject(at = @At(value = "INVOKE", target = "Lnet/minecraft/server/MinecraftServer;getNetworkIo()Lnet/minecraft/server/ServerNetworkIo;"), method = "tickWorlds", require = 0)
+	private void multiworld$afterWorlds(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
+		ParallelTicks.join((MinecraftServer) (Object) this);
+	}
+
+	@Inject(at = @At("RETURN"), method = "tickWorlds")
+	private void multiworld$endTickWorlds(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
+		// In case the first barrier was not found on this version
+		ParallelTicks.join((MinecraftServer) (Object) this);
+	}
+
+}
@@ -9,6 +9,7 @@ import me.isaiah.multiworld.I18n;
 import me.isaiah.multiworld.MultiworldMod;
 import me.isaiah.multiworld.command.PortalCommand;
 import me.isaiah.multiworld.portal.Portal;
+import me.isaiah.multiworld.world.ParallelTicks;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.NetherPortalBlock;
 import net.minecraft.entity.Entity;
@@ -51,15 +52,18 @@ public class MixinNetherPortalBlock {
 				if (isInside) {
 					I18n.message((ServerPlayerEntity) entity, I18n.TELEPORTING);
 					
-					BlockPos dest = p.getDestLocation();
-					
-					MultiworldMod.get_world_creator().teleleport(
-							(ServerPlayerEntity) entity,
-							p.getDestWorld(),
-							dest.getX(),
-							dest.getY(),
-							dest.getZ()
-					);
+					// Cross-world, so on the server thread when this world is ticked in parallel.
+					// Finding the destination can load or restore the destination world.
+					ParallelTicks.runOnMain(() -> {
+						BlockPos dest = p.getDestLocation();
+						MultiworldMod.get_world_creator().teleleport(
+								(ServerPlayerEntity) entity,
+								p.getDestWorld(),
+								dest.getX(),
+								dest.getY(),
+								dest.getZ()
+						);
+					});
 					
 					ci.cancel();
 					return;
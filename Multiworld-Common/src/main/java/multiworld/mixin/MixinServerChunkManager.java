@@ -0,0 +1,40 @@
+package multiworld.mixin;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+import me.isaiah.multiworld.world.ParallelTicks;
+import net.minecraft.server.world.ServerChunkManager;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Lets the pool thread ticking a world load its chunks like the server thread would,
+ * and wait for chunks of other worlds without blocking them. See {@link ParallelTicks}
+ */
+@Mixin(ServerChunkManager.class)
+public class MixinServerChunkManager {
+
+	@Shadow
+	@Final
+	ServerWorld world;
+
+	@Shadow
+	@Final
+	Thread serverThread;
+
+	@Redirect(method = {"getChunk", "getWorldChunk"}, at = @At(value = "INVOKE", target = "Ljava/lang/Thread;currentThread()Ljava/lang/Thread;"))
+	private Thread multiworld$currentThread() {
+		return ParallelTicks.isTicking(this.world) ? this.serverThread : Thread.currentThread();
+	}
+
+	@Redirect(method = "getChunk", at = @At(value = "INVOKE", target = "Ljava/util/concurrent/CompletableFuture;join()Ljava/lang/Object;"))
+	private Object multiworld$join(CompletableFuture<?> future) {
+		return ParallelTicks.await(future);
+	}
+
+}
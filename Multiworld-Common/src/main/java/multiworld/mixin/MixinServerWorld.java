@@ -0,0 +1,54 @@
+package multiworld.mixin;
+
+import java.util.function.BooleanSupplier;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import me.isaiah.multiworld.world.WorldDistances;
+import me.isaiah.multiworld.world.WorldStats;
+import me.isaiah.multiworld.world.WorldQuotas;
+import me.isaiah.multiworld.world.WorldTicks;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Skips ticking worlds, ex: hibernating or throttled worlds. See {@link WorldTicks}
+ * and times the ticks that do run, see {@link WorldStats}.
+ * Refuses spawns over the world's entity limits, see {@link WorldQuotas}
+ * and sends players entering the world its distances, see {@link WorldDistances}.
+ */
+@Mixin(ServerWorld.class)
+public class MixinServerWorld {
+
+	@Inject(at = @At("HEAD"), method = "tick", cancellable = true)
+	private void multiworld$tick(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
+		if (!WorldTicks.shouldTick((ServerWorld) (Object) this, shouldKeepTicking)) {
+			ci.cancel();
+			return;
+		}
+		WorldStats.begin((ServerWorld) (Object) this);
+	}
+
+	@Inject(at = @At("HEAD"), method = "spawnEntity", cancellable = true)
+	private void multiworld$spawnEntity(Entity entity, CallbackInfoReturnable<Boolean> ci) {
+		if (!WorldQuotas.allowSpawn((ServerWorld) (Object) this, entity)) {
+			ci.setReturnValue(false);
+		}
+	}
+
+	@Inject(at = @At("HEAD"), method = "addPlayer")
+	private void multiworld$addPlayer(ServerPlayerEntity player, CallbackInfo ci) {
+		WorldDistances.onPlayerAdded((ServerWorld) (Object) this, player);
+	}
+
+	@Inject(at = @At("RETURN"), method = "tick")
+	private void multiworld$tickEnd(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
+		WorldStats.end((ServerWorld) (Object) this);
+	}
+
+}
@@ -0,0 +1,26 @@
+package multiworld.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+import me.isaiah.multiworld.world.WorldQuotas;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.World;
+
+/**
+ * Leaves block entities idle when a world is at its ticking block entity limit.
+ * See {@link WorldQuotas}
+ */
+@Mixin(World.class)
+public class MixinWorld {
+
+	@Inject(at = @At("HEAD"), method = "addBlockEntityTicker", cancellable = true)
+	private void multiworld$addBlockEntityTicker(CallbackInfo ci) {
+		if ((Object) this instanceof ServerWorld && !WorldQuotas.allowBlockEntityTicker((ServerWorld) (Object) this)) {
+			ci.cancel();
+		}
+	}
+
+}
@@ -0,0 +1,18 @@
+package multiworld.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import net.minecraft.server.world.ServerEntityManager;
+import net.minecraft.world.storage.ChunkDataAccess;
+
+/**
+ * Where the entities of a world are saved, see {@link me.isaiah.multiworld.world.PendingWrites}
+ */
+@Mixin(ServerEntityManager.class)
+public interface ServerEntityManagerAccessor {
+
+	@Accessor("dataAccess")
+	ChunkDataAccess<?> multiworld$getDataAccess();
+
+}
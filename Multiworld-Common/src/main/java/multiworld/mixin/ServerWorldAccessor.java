@@ -0,0 +1,19 @@
+package multiworld.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import net.minecraft.entity.Entity;
+import net.minecraft.server.world.ServerEntityManager;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * The entities of a world, to wait for their writes in {@link me.isaiah.multiworld.world.WorldCloner}
+ */
+@Mixin(ServerWorld.class)
+public interface ServerWorldAccessor {
+
+	@Accessor("entityManager")
+	ServerEntityManager<Entity> multiworld$getEntityManager();
+
+}
@@ -0,0 +1,19 @@
+package multiworld.mixin;
+
+import java.util.List;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.gen.Accessor;
+
+import net.minecraft.world.World;
+
+/**
+ * Ticking block entities of a world, for {@link me.isaiah.multiworld.world.WorldStats}
+ */
+@Mixin(World.class)
+public interface WorldAccessor {
+
+	@Accessor("blockEntityTickers")
+	List<?> multiworld$getBlockEntityTickers();
+
+}
@@ -4,6 +4,8 @@ import me.isaiah.multiworld.MultiworldMod;
 import net.fabricmc.api.ModInitializer;
 import net.fabricmc.fabric.api.command.v1.CommandRegistrationCallback;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 
 public class MultiworldModFabric implements ModInitializer {
 
@@ -15,6 +17,21 @@ public class MultiworldModFabric implements ModInitializer {
         ServerLifecycleEvents.SERVER_STARTED.register(mc -> {
             MultiworldMod.on_server_started(mc);
         });
+        ServerLifecycleEvents.SERVER_STOPPING.register(mc -> {
+            MultiworldMod.on_server_stopping(mc);
+        });
+        ServerTickEvents.START_SERVER_TICK.register(mc -> {
+            MultiworldMod.on_server_tick_start(mc);
+        });
+        ServerTickEvents.END_SERVER_TICK.register(mc -> {
+            MultiworldMod.on_server_tick_end(mc);
+        });
+        ServerPlayConnectionEvents.JOIN.register((handler, sender, mc) -> {
+            MultiworldMod.on_player_join(handler.player);
+        });
+        ServerPlayConnectionEvents.DISCONNECT.register((handler, mc) -> {
+            MultiworldMod.on_player_leave(handler.player);
+        });
         
         CommandRegistrationCallback.EVENT.register((dispatcher, dedicated) -> {
             MultiworldMod.register_commands(dispatcher);
@@ -0,0 +1,29 @@
+package multiworld.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import me.isaiah.multiworld.world.ParallelTicks;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.world.ServerWorld;
+
+/**
+ * Moves entities of a world ticked in parallel to another world on the server thread,
+ * ex: through a nether or end portal. See {@link ParallelTicks}
+ */
+@Mixin(Entity.class)
+public class MixinEntity {
+
+    @Inject(at = @At("HEAD"), method = "moveToWorld", cancellable = true)
+    private void multiworld$moveToWorld(ServerWorld destination, CallbackInfoReturnable<Entity> ci) {
+        if (ParallelTicks.isWorkerThread()) {
+            Entity entity = (Entity) (Object) this;
+            ParallelTicks.runOnMain(() -> entity.moveToWorld(destination));
+            // Callers only use the moved entity when it is not null
+            ci.setReturnValue(null);
+        }
+    }
+
+}
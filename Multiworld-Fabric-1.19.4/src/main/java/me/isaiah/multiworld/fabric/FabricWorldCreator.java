@@ -35,6 +35,7 @@ import xyz.nucleoid.fantasy.util.VoidChunkGenerator;
 public class FabricWorldCreator implements ICreator {
     
 	public HashMap<String, RuntimeWorldConfig> worldConfigs;
+	private final HashMap<ServerWorld, RuntimeWorldHandle> temporaryWorlds = new HashMap<>();
 	
 	public FabricWorldCreator() {
 		this.worldConfigs = new HashMap<>();
@@ -58,6 +59,30 @@ public class FabricWorldCreator implements ICreator {
         this.worldConfigs.put(id, config);
         return worldHandle.asWorld();
     }
+
+    @Override
+    public ServerWorld create_temporary_world(Identifier dim, ChunkGenerator gen, Difficulty dif, long seed) {
+        RuntimeWorldConfig config = new RuntimeWorldConfig()
+                .setDimensionType(dim_of(dim))
+                .setGenerator(gen)
+                .setDifficulty(dif)
+				.setSeed(seed)
+				.setShouldTickTime(true)
+                ;
+
+        Fantasy fantasy = Fantasy.get(MultiworldMod.mc);
+        RuntimeWorldHandle worldHandle = fantasy.openTemporaryWorld(config);
+        this.temporaryWorlds.put(worldHandle.asWorld(), worldHandle);
+        return worldHandle.asWorld();
+    }
+
+    @Override
+    public void delete_temporary_world(ServerWorld world) {
+        RuntimeWorldHandle worldHandle = this.temporaryWorlds.remove(world);
+        if (null != worldHandle) {
+            worldHandle.delete();
+        }
+    }
     
     @Override
     public void set_difficulty(String id, Difficulty dif) {
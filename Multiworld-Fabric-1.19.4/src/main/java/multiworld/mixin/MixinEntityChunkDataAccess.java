@@ -0,0 +1,28 @@
+package multiworld.mixin;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+
+import me.isaiah.multiworld.world.PendingWrites;
+import net.minecraft.world.storage.EntityChunkDataAccess;
+import net.minecraft.world.storage.StorageIoWorker;
+
+/**
+ * The entity writes of a world, see {@link PendingWrites}
+ */
+@Mixin(EntityChunkDataAccess.class)
+public class MixinEntityChunkDataAccess implements PendingWrites {
+
+    @Shadow
+    @Final
+    private StorageIoWorker dataLoadWorker;
+
+    @Override
+    public CompletableFuture<Void> multiworld$completeAll() {
+        return this.dataLoadWorker.completeAll(false);
+    }
+
+}
@@ -0,0 +1,28 @@
+package multiworld.mixin;
+
+import java.util.concurrent.CompletableFuture;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+
+import me.isaiah.multiworld.world.PendingWrites;
+import net.minecraft.world.storage.SerializingRegionBasedStorage;
+import net.minecraft.world.storage.StorageIoWorker;
+
+/**
+ * The POI writes of a world, see {@link PendingWrites}
+ */
+@Mixin(SerializingRegionBasedStorage.class)
+public class MixinSerializingRegionBasedStorage implements PendingWrites {
+
+    @Shadow
+    @Final
+    private StorageIoWorker worker;
+
+    @Override
+    public CompletableFuture<Void> multiworld$completeAll() {
+        return this.worker.completeAll(false);
+    }
+
+}
@@ -0,0 +1,50 @@
+package multiworld.mixin;
+
+import org.jetbrains.annotations.Nullable;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import me.isaiah.multiworld.world.ParallelTicks;
+import net.minecraft.entity.Entity;
+import net.minecraft.world.TeleportTarget;
+import net.minecraft.world.dimension.PortalManager;
+
+/**
+ * Moves entities of a world ticked in parallel to another world on the server thread,
+ * ex: through a nether or end portal or with an ender pearl. See {@link ParallelTicks}
+ */
+@Mixin(Entity.class)
+public abstract class MixinEntity {
+
+    @Shadow
+    @Nullable
+    public PortalManager portalManager;
+
+    @Shadow
+    protected abstract void tickPortalTeleportation();
+
+    @Inject(at = @At("HEAD"), method = "tickPortalTeleportation", cancellable = true)
+    private void multiworld$tickPortalTeleportation(CallbackInfo ci) {
+        // Finding the destination can create a portal in the other world
+        if (null != this.portalManager && ParallelTicks.isWorkerThread()) {
+            ParallelTicks.runOnMain(() -> this.tickPortalTeleportation());
+            ci.cancel();
+        }
+    }
+
+    @Inject(at = @At("HEAD"), method = "teleportTo", cancellable = true)
+    private void multiworld$teleportTo(TeleportTarget target, CallbackInfoReturnable<Entity> ci) {
+        Entity entity = (Entity) (Object) this;
+        // Same world teleports are safe here, and callers like ender pearls need the entity back
+        if (ParallelTicks.isWorkerThread() && target.world() != entity.getWorld()) {
+            ParallelTicks.runOnMain(() -> entity.teleportTo(target));
+            // Like a failed teleport, the entity is moved once the worlds are ticked
+            ci.setReturnValue(null);
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package multiworld.mixin;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+import me.isaiah.multiworld.world.ParallelTicks;
+import net.minecraft.entity.Entity;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.world.TeleportTarget;
+
+/**
+ * Players override {@link Entity#teleportTo(TeleportTarget)}, ex: when their
+ * ender pearl takes them out of a world ticked in parallel. See {@link MixinEntity}
+ */
+@Mixin(ServerPlayerEntity.class)
+public class MixinServerPlayerEntity {
+
+    @Inject(at = @At("HEAD"), method = "teleportTo", cancellable = true)
+    private void multiworld$teleportTo(TeleportTarget target, CallbackInfoReturnable<Entity> ci) {
+        ServerPlayerEntity player = (ServerPlayerEntity) (Object) this;
+        // Same world teleports are safe here, and callers like ender pearls need the entity back
+        if (ParallelTicks.isWorkerThread() && target.world() != player.getWorld()) {
+            ParallelTicks.runOnMain(() -> player.teleportTo(target));
+            ci.setReturnValue(null);
+        }
+    }
+
+}
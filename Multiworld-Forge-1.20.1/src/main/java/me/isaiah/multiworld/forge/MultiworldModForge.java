@@ -7,8 +7,11 @@ import me.isaiah.multiworld.MultiworldMod;
 import me.isaiah.multiworld.portal.WandEventHandler;
 import net.minecraftforge.common.MinecraftForge;
 import net.minecraftforge.event.RegisterCommandsEvent;
+import net.minecraftforge.event.TickEvent;
+import net.minecraftforge.event.entity.player.PlayerEvent;
 import net.minecraftforge.event.entity.player.PlayerInteractEvent;
 import net.minecraftforge.event.server.ServerStartingEvent;
+import net.minecraftforge.event.server.ServerStoppingEvent;
 import net.minecraftforge.eventbus.api.SubscribeEvent;
 import net.minecraftforge.fml.common.Mod;
 import net.minecraftforge.fml.event.lifecycle.FMLCommonSetupEvent;
@@ -34,6 +37,30 @@ public class MultiworldModForge {
 		MultiworldMod.on_server_started(event.getServer());
 	}
 
+	@SubscribeEvent
+	public void onServerStopping(ServerStoppingEvent event) {
+		MultiworldMod.on_server_stopping(event.getServer());
+	}
+
+	@SubscribeEvent
+	public void onServerTick(TickEvent.ServerTickEvent event) {
+		if (event.phase == TickEvent.Phase.START) {
+			MultiworldMod.on_server_tick_start(event.getServer());
+		} else {
+			MultiworldMod.on_server_tick_end(event.getServer());
+		}
+	}
+
+	@SubscribeEvent
+	public void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+		MultiworldMod.on_player_join(event.getEntity());
+	}
+
+	@SubscribeEvent
+	public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+		MultiworldMod.on_player_leave(event.getEntity());
+	}
+
 	@SubscribeEvent
 	public void onCommandsRegister(RegisterCommandsEvent event) {
 		MultiworldMod.register_commands(event.getDispatcher());
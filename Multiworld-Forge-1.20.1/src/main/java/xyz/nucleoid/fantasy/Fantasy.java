@@ -2,8 +2,10 @@ package xyz.nucleoid.fantasy;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.RandomStringUtils;
@@ -12,7 +14,7 @@ import org.apache.logging.log4j.Logger;
 
 import com.google.common.base.Preconditions;
 
-import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.registry.RegistryKeys;
 //import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
@@ -26,6 +28,7 @@ import net.minecraft.world.World;
 import net.minecraft.world.dimension.DimensionType;
 import net.minecraft.world.level.storage.LevelStorage;
 import xyz.nucleoid.fantasy.mixin.MinecraftServerAccess;
+import xyz.nucleoid.fantasy.util.TombstoneDeleter;
 
 /**
  * Fantasy is a library that allows for dimensions to be created and destroyed at runtime on the server.
@@ -48,7 +51,12 @@ public final class Fantasy {
 
     public final RuntimeWorldManager worldManager;
 
-    private final Set<ServerWorld> deletionQueue = new ReferenceOpenHashSet<>();
+    // Multiworld: time all deletions and unloads may use each tick to unload chunks,
+    // see RuntimeWorldDeletion and RuntimeWorldUnloading
+    private static final long DELETION_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(4);
+
+    private final Map<ServerWorld, RuntimeWorldDeletion> deletionQueue = new Reference2ObjectLinkedOpenHashMap<>();
+    private final Map<ServerWorld, RuntimeWorldUnloading> unloadingQueue = new Reference2ObjectLinkedOpenHashMap<>();
 
   /*  static {
         ServerTickEvents.START_SERVER_TICK.register(server -> {
@@ -67,6 +75,9 @@ public final class Fantasy {
         this.serverAccess = (MinecraftServerAccess) server;
 
         this.worldManager = new RuntimeWorldManager(server);
+
+        // Multiworld: finish deletes interrupted by the last shutdown or a crash
+        TombstoneDeleter.recover(this.worldManager.getTrashDirectory());
     }
 
     /**
@@ -86,9 +97,27 @@ public final class Fantasy {
     }
 
     public void tick() {
-        Set<ServerWorld> deletionQueue = this.deletionQueue;
-        if (!deletionQueue.isEmpty()) {
-            deletionQueue.removeIf(this::tickDeleteWorld);
+        long deadline = System.nanoTime() + DELETION_BUDGET_NANOS;
+        if (!this.deletionQueue.isEmpty()) {
+            Iterator<RuntimeWorldDeletion> iterator = this.deletionQueue.values().iterator();
+            while (iterator.hasNext()) {
+                RuntimeWorldDeletion deletion = iterator.next();
+                if (deletion.tick(deadline)) {
+                    iterator.remove();
+                    this.worldManager.delete(deletion.world);
+                }
+            }
+        }
+
+        if (!this.unloadingQueue.isEmpty()) {
+            Iterator<RuntimeWorldUnloading> iterator = this.unloadingQueue.values().iterator();
+            while (iterator.hasNext()) {
+                RuntimeWorldUnloading unloading = iterator.next();
+                if (unloading.tick(deadline)) {
+                    iterator.remove();
+                    this.worldManager.unload(unloading.world);
+                }
+            }
         }
     }
 
@@ -132,12 +161,30 @@ public final class Fantasy {
         if (world == null) {
             world = this.addPersistentWorld(key, config);
         } else {
-            this.deletionQueue.remove(world);
+            RuntimeWorldDeletion deletion = this.deletionQueue.remove(world);
+            if (deletion != null) {
+                deletion.cancel();
+            }
+            RuntimeWorldUnloading unloading = this.unloadingQueue.remove(world);
+            if (unloading != null) {
+                unloading.cancel();
+            }
         }
 
         return new RuntimeWorldHandle(this, world);
     }
 
+    /**
+     * Multiworld: adds the dimensions of many persistent worlds at once, so the dimension
+     * registry is unfrozen a single time. The worlds are then opened one by one with
+     * {@link #getOrOpenPersistentWorld}, ex: spread over several ticks.
+     *
+     * @param configs the configs of the worlds, by identifier
+     */
+    public void registerPersistentWorlds(Map<Identifier, RuntimeWorldConfig> configs) {
+        this.worldManager.registerAll(configs);
+    }
+
     private RuntimeWorld addPersistentWorld(Identifier key, RuntimeWorldConfig config) {
 		RegistryKey<World> worldKey = RegistryKey.of(RegistryKeys.WORLD, key);
         return this.worldManager.add(worldKey, config, RuntimeWorld.Style.PERSISTENT);
@@ -157,21 +204,17 @@ public final class Fantasy {
 
     void enqueueWorldDeletion(ServerWorld world) {
         this.server.submit(() -> {
-            this.deletionQueue.add(world);
+            this.deletionQueue.computeIfAbsent(world, w -> new RuntimeWorldDeletion(this, w));
         });
     }
 
-    private boolean tickDeleteWorld(ServerWorld world) {
-        if (this.isWorldUnloaded(world)) {
-            this.worldManager.delete(world);
-            return true;
-        } else {
-            this.kickPlayers(world);
-            return false;
-        }
+    void enqueueWorldUnloading(ServerWorld world) {
+        this.server.submit(() -> {
+            this.unloadingQueue.computeIfAbsent(world, w -> new RuntimeWorldUnloading(this, w));
+        });
     }
 
-    private void kickPlayers(ServerWorld world) {
+    void kickPlayers(ServerWorld world) {
         if (world.getPlayers().isEmpty()) {
             return;
         }
@@ -186,11 +229,25 @@ public final class Fantasy {
         }
     }
 
-    private boolean isWorldUnloaded(ServerWorld world) {
-        return world.getPlayers().isEmpty() && world.getChunkManager().getLoadedChunkCount() <= 0;
+    /**
+     * Multiworld: the progress of the worlds being deleted, for "/mw stats"
+     */
+    public List<String> getDeletionStatus() {
+        List<String> status = new ArrayList<>(this.deletionQueue.size());
+        for (RuntimeWorldDeletion deletion : this.deletionQueue.values()) {
+            status.add(deletion.describe());
+        }
+        return status;
     }
 
     public void onServerStopping() {
+        // Multiworld: finish the deletions right away, their chunks are not saved
+        for (RuntimeWorldDeletion deletion : this.deletionQueue.values()) {
+            this.kickPlayers(deletion.world);
+            this.worldManager.delete(deletion.world);
+        }
+        this.deletionQueue.clear();
+
         List<RuntimeWorld> temporaryWorlds = this.collectTemporaryWorlds();
         for (RuntimeWorld temporary : temporaryWorlds) {
             this.kickPlayers(temporary);
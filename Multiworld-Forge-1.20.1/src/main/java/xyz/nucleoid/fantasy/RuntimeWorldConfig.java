@@ -35,6 +35,10 @@ public final class RuntimeWorldConfig {
     private boolean thundering;
     private int thunderTime;
 
+    // Multiworld: 0 uses the server's distance, see WorldDistances
+    private int viewDistance;
+    private int simulationDistance;
+
     public RuntimeWorldConfig setSeed(long seed) {
         this.seed = seed;
         return this;
@@ -118,6 +122,16 @@ public final class RuntimeWorldConfig {
         return this;
     }
 
+    public RuntimeWorldConfig setViewDistance(int viewDistance) {
+        this.viewDistance = viewDistance;
+        return this;
+    }
+
+    public RuntimeWorldConfig setSimulationDistance(int simulationDistance) {
+        this.simulationDistance = simulationDistance;
+        return this;
+    }
+
     public long getSeed() {
         return this.seed;
     }
@@ -176,4 +190,12 @@ public final class RuntimeWorldConfig {
     public boolean isThundering() {
         return this.thundering;
     }
+
+    public int getViewDistance() {
+        return this.viewDistance;
+    }
+
+    public int getSimulationDistance() {
+        return this.simulationDistance;
+    }
 }
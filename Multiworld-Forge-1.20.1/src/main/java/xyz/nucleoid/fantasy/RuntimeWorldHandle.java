@@ -27,6 +27,17 @@ public final class RuntimeWorldHandle {
         }
     }
 
+    /**
+     * Unloads the world. It only deletes the files if world is temporary.
+     */
+    public void unload() {
+        if (this.world instanceof RuntimeWorld runtimeWorld && runtimeWorld.style == RuntimeWorld.Style.TEMPORARY) {
+            this.fantasy.enqueueWorldDeletion(this.world);
+        } else {
+            this.fantasy.enqueueWorldUnloading(this.world);
+        }
+    }
+
     public ServerWorld asWorld() {
         return this.world;
     }
@@ -1,5 +1,6 @@
 package xyz.nucleoid.fantasy;
 
+import me.isaiah.multiworld.world.WorldDistances;
 import com.mojang.serialization.Lifecycle;
 // import net.fabricmc.fabric.api.event.lifecycle.v1.ServerWorldEvents;
 import net.minecraft.registry.DynamicRegistryManager;
@@ -8,22 +9,28 @@ import net.minecraft.registry.RegistryKeys;
 import net.minecraft.registry.SimpleRegistry;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.Identifier;
 import net.minecraft.world.World;
 import net.minecraft.world.dimension.DimensionOptions;
 import net.minecraft.world.level.storage.LevelStorage;
-import org.apache.commons.io.FileUtils;
 import xyz.nucleoid.fantasy.mixin.MinecraftServerAccess;
+import xyz.nucleoid.fantasy.util.TombstoneDeleter;
 
 import java.io.File;
 import java.io.IOException;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 final class RuntimeWorldManager {
     private final MinecraftServer server;
     private final MinecraftServerAccess serverAccess;
 
     public Map<RegistryKey<World>, ServerWorld> worldss;
+
+    // Multiworld: dimensions added by registerAll, waiting for their world
+    private final Set<Identifier> registered = new HashSet<>();
     
     RuntimeWorldManager(MinecraftServer server) {
         this.server = server;
@@ -38,17 +45,25 @@ final class RuntimeWorldManager {
             ((FantasyDimensionOptions) (Object) options).fantasy$setSave(false);
         }
 
-        SimpleRegistry<DimensionOptions> dimensionsRegistry = getDimensionsRegistry(this.server);
-        boolean isFrozen = ((RemoveFromRegistry<?>) dimensionsRegistry).fantasy$isFrozen();
-        ((RemoveFromRegistry<?>) dimensionsRegistry).fantasy$setFrozen(false);
-        dimensionsRegistry.add(RegistryKey.of(RegistryKeys.DIMENSION, worldKey.getValue()), options, Lifecycle.stable());
-        ((RemoveFromRegistry<?>) dimensionsRegistry).fantasy$setFrozen(isFrozen);
+        // Multiworld: skip the registry if the dimension was added by registerAll
+        if (!this.registered.remove(worldKey.getValue())) {
+            SimpleRegistry<DimensionOptions> dimensionsRegistry = getDimensionsRegistry(this.server);
+            boolean isFrozen = ((RemoveFromRegistry<?>) dimensionsRegistry).fantasy$isFrozen();
+            ((RemoveFromRegistry<?>) dimensionsRegistry).fantasy$setFrozen(false);
+            dimensionsRegistry.add(RegistryKey.of(RegistryKeys.DIMENSION, worldKey.getValue()), options, Lifecycle.stable());
+            ((RemoveFromRegistry<?>) dimensionsRegistry).fantasy$setFrozen(isFrozen);
+        }
 
         RuntimeWorld world = new RuntimeWorld(this.server, worldKey, config, style);
 
         IMC imc = (IMC) this.server;
         imc.add_world(world.getRegistryKey(), world);
 
+        // Multiworld: per world view and simulation distance
+        if (config.getViewDistance() > 0 || config.getSimulationDistance() > 0) {
+            WorldDistances.set(world, config.getViewDistance(), config.getSimulationDistance());
+        }
+
         if (FantasyInitializer.after_tick_start) {
         	worldss.put(world.getRegistryKey(), world);
         }
@@ -62,29 +77,77 @@ final class RuntimeWorldManager {
         return world;
     }
 
+    /**
+     * Multiworld: add the dimensions of many persistent worlds with a single unfreeze
+     * of the dimension registry. {@link #add} then skips the registry for these worlds.
+     */
+    void registerAll(Map<Identifier, RuntimeWorldConfig> configs) {
+        SimpleRegistry<DimensionOptions> dimensionsRegistry = getDimensionsRegistry(this.server);
+        boolean isFrozen = ((RemoveFromRegistry<?>) dimensionsRegistry).fantasy$isFrozen();
+        ((RemoveFromRegistry<?>) dimensionsRegistry).fantasy$setFrozen(false);
+        try {
+            for (Map.Entry<Identifier, RuntimeWorldConfig> entry : configs.entrySet()) {
+                Identifier key = entry.getKey();
+                if (this.registered.contains(key) || dimensionsRegistry.containsId(key)) {
+                    continue;
+                }
+                DimensionOptions options = entry.getValue().createDimensionOptions(this.server);
+                dimensionsRegistry.add(RegistryKey.of(RegistryKeys.DIMENSION, key), options, Lifecycle.stable());
+                this.registered.add(key);
+            }
+        } finally {
+            ((RemoveFromRegistry<?>) dimensionsRegistry).fantasy$setFrozen(isFrozen);
+        }
+    }
+
     void delete(ServerWorld world) {
         RegistryKey<World> dimensionKey = world.getRegistryKey();
 
-        if (this.serverAccess.getWorlds().remove(dimensionKey, world)) {
+        if (((IMC) this.server).remove_world(dimensionKey, world)) {
             // ServerWorldEvents.UNLOAD.invoker().onWorldUnload(this.server, world);
 
+            // Multiworld: close the storage, without saving what is still loaded
+            ((FantasyWorldAccess) world).fantasy$setDeleting(true);
+            try {
+                world.close();
+            } catch (IOException e) {
+                Fantasy.LOGGER.warn("Failed to close world storage", e);
+            }
+
             SimpleRegistry<DimensionOptions> dimensionsRegistry = getDimensionsRegistry(this.server);
             RemoveFromRegistry.remove(dimensionsRegistry, dimensionKey.getValue());
 
+            // Multiworld: renamed now, deleted on a background thread
             LevelStorage.Session session = this.serverAccess.getSession();
             File worldDirectory = session.getWorldDirectory(dimensionKey).toFile();
-            if (worldDirectory.exists()) {
-                try {
-                    FileUtils.deleteDirectory(worldDirectory);
-                } catch (IOException e) {
-                    Fantasy.LOGGER.warn("Failed to delete world directory", e);
-                    try {
-                        FileUtils.forceDeleteOnExit(worldDirectory);
-                    } catch (IOException ignored) {
-                    }
-                }
+            TombstoneDeleter.delete(worldDirectory, this.getTrashDirectory());
+        }
+    }
+
+    void unload(ServerWorld world) {
+        RegistryKey<World> dimensionKey = world.getRegistryKey();
+
+        if (((IMC) this.server).remove_world(dimensionKey, world)) {
+            // Files are kept, so the world can be opened again with getOrOpenPersistentWorld
+            world.save(null, true, false);
+            try {
+                world.close();
+            } catch (IOException e) {
+                Fantasy.LOGGER.warn("Failed to close world storage", e);
             }
+
+            SimpleRegistry<DimensionOptions> dimensionsRegistry = getDimensionsRegistry(this.server);
+            RemoveFromRegistry.remove(dimensionsRegistry, dimensionKey.getValue());
         }
+        this.worldss.remove(dimensionKey);
+    }
+
+    /**
+     * Where deleted worlds wait to be removed from disk, see {@link TombstoneDeleter}
+     */
+    File getTrashDirectory() {
+        LevelStorage.Session session = this.serverAccess.getSession();
+        return new File(session.getWorldDirectory(World.OVERWORLD).toFile(), TombstoneDeleter.TRASH_DIR);
     }
 
     private static SimpleRegistry<DimensionOptions> getDimensionsRegistry(MinecraftServer server) {
@@ -1,5 +1,10 @@
 package xyz.nucleoid.fantasy.mixin;
 
+import me.isaiah.multiworld.world.WorldDistances;
+import me.isaiah.multiworld.world.WorldStats;
+import me.isaiah.multiworld.world.WorldQuotas;
+import me.isaiah.multiworld.world.WorldTicks;
+import net.minecraft.entity.Entity;
 import net.minecraft.network.packet.Packet;
 import net.minecraft.server.PlayerManager;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -12,6 +17,7 @@ import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import xyz.nucleoid.fantasy.FantasyWorldAccess;
 
 import java.util.List;
@@ -25,6 +31,8 @@ public abstract class ServerWorldMixin implements FantasyWorldAccess {
     private boolean fantasy$tickWhenEmpty = true;
     @Unique
     private int fantasy$tickTimeout;
+    @Unique
+    private boolean fantasy$deleting;
 
     @Shadow
     public abstract List<ServerPlayerEntity> getPlayers();
@@ -37,17 +45,62 @@ public abstract class ServerWorldMixin implements FantasyWorldAccess {
         this.fantasy$tickWhenEmpty = tickWhenEmpty;
     }
 
+    @Override
+    public void fantasy$setDeleting(boolean deleting) {
+        this.fantasy$deleting = deleting;
+    }
+
+    @Override
+    public boolean fantasy$isDeleting() {
+        return this.fantasy$deleting;
+    }
+
     @Inject(method = "tick", at = @At("HEAD"), cancellable = true)
     private void tick(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
+        // Multiworld: a world being deleted only has its chunks unloaded, see RuntimeWorldDeletion
+        if (this.fantasy$deleting) {
+            ci.cancel();
+            return;
+        }
+
+        // Multiworld: hibernating, throttled and frozen worlds
+        if (!WorldTicks.shouldTick((ServerWorld) (Object) this, shouldKeepTicking)) {
+            ci.cancel();
+            return;
+        }
+
         boolean shouldTick = this.fantasy$tickWhenEmpty || !this.isWorldEmpty();
 
         if (shouldTick) {
             this.fantasy$tickTimeout = TICK_TIMEOUT;
         } else if (this.fantasy$tickTimeout-- <= 0) {
             ci.cancel();
+            return;
+        }
+
+        // Multiworld: "/mw stats"
+        WorldStats.begin((ServerWorld) (Object) this);
+    }
+
+    // Multiworld: entity limits, see WorldQuotas
+    @Inject(method = "spawnEntity", at = @At("HEAD"), cancellable = true)
+    private void multiworld$spawnEntity(Entity entity, CallbackInfoReturnable<Boolean> ci) {
+        if (!WorldQuotas.allowSpawn((ServerWorld) (Object) this, entity)) {
+            ci.setReturnValue(false);
         }
     }
 
+    // Multiworld: send the world's view and simulation distance, see WorldDistances
+    @Inject(method = "addPlayer", at = @At("HEAD"))
+    private void multiworld$addPlayer(ServerPlayerEntity player, CallbackInfo ci) {
+        WorldDistances.onPlayerAdded((ServerWorld) (Object) this, player);
+    }
+
+    @Inject(method = "tick", at = @At("RETURN"))
+    private void multiworld$tickEnd(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
+        WorldStats.end((ServerWorld) (Object) this);
+    }
+
     @Override
     public boolean fantasy$shouldTick() {
         boolean shouldTick = this.fantasy$tickWhenEmpty || !this.isWorldEmpty();
@@ -12,8 +12,11 @@ import net.neoforged.fml.common.Mod;
 import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.neoforged.neoforge.common.NeoForge;
 import net.neoforged.neoforge.event.RegisterCommandsEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
 import net.neoforged.neoforge.event.entity.player.PlayerInteractEvent;
 import net.neoforged.neoforge.event.server.ServerStartingEvent;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
 
 
 @Mod(MultiworldMod.MOD_ID)
@@ -38,6 +41,31 @@ public class MultiworldModNeoForge {
 		MultiworldMod.on_server_started(event.getServer());
 	}
 
+	@SubscribeEvent
+	public void onServerStopping(ServerStoppingEvent event) {
+		MultiworldMod.on_server_stopping(event.getServer());
+	}
+
+	@SubscribeEvent
+	public void onServerTickPre(ServerTickEvent.Pre event) {
+		MultiworldMod.on_server_tick_start(event.getServer());
+	}
+
+	@SubscribeEvent
+	public void onServerTickPost(ServerTickEvent.Post event) {
+		MultiworldMod.on_server_tick_end(event.getServer());
+	}
+
+	@SubscribeEvent
+	public void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+		MultiworldMod.on_player_join(event.getEntity());
+	}
+
+	@SubscribeEvent
+	public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+		MultiworldMod.on_player_leave(event.getEntity());
+	}
+
 	@SubscribeEvent
 	public void onCommandsRegister(RegisterCommandsEvent event) {
 		MultiworldMod.register_commands(event.getDispatcher());
@@ -2,11 +2,14 @@ package me.isaiah.multiworld.neoforge;
 
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import me.isaiah.multiworld.ICreator;
 import me.isaiah.multiworld.MultiworldMod;
+import me.isaiah.multiworld.world.WorldSpec;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.registry.RegistryKeys;
 import net.minecraft.server.MinecraftServer;
@@ -32,6 +35,7 @@ import xyz.nucleoid.fantasy.RuntimeWorldHandle;
 public class NeoForgeWorldCreator implements ICreator {
     
 	public HashMap<String, RuntimeWorldConfig> worldConfigs;
+	private final HashMap<ServerWorld, RuntimeWorldHandle> temporaryWorlds = new HashMap<>();
 	
 	public NeoForgeWorldCreator() {
 		this.worldConfigs = new HashMap<>();
@@ -55,6 +59,51 @@ public class NeoForgeWorldCreator implements ICreator {
         this.worldConfigs.put(id, config);
         return worldHandle.asWorld();
     }
+
+    @Override
+    public ServerWorld create_temporary_world(Identifier dim, ChunkGenerator gen, Difficulty dif, long seed) {
+        RuntimeWorldConfig config = new RuntimeWorldConfig()
+                .setDimensionType(dim_of(dim))
+                .setGenerator(gen)
+                .setDifficulty(dif)
+				.setSeed(seed)
+				.setShouldTickTime(true)
+                ;
+
+        Fantasy fantasy = Fantasy.get(MultiworldMod.mc);
+        RuntimeWorldHandle worldHandle = fantasy.openTemporaryWorld(config);
+        this.temporaryWorlds.put(worldHandle.asWorld(), worldHandle);
+        return worldHandle.asWorld();
+    }
+
+    @Override
+    public void register_worlds(List<WorldSpec> specs) {
+        Map<Identifier, RuntimeWorldConfig> configs = new LinkedHashMap<>();
+        for (WorldSpec spec : specs) {
+            RuntimeWorldConfig config = new RuntimeWorldConfig()
+                    .setDimensionType(dim_of(spec.getDimension()))
+                    .setGenerator(spec.getGenerator())
+                    .setDifficulty(spec.getDifficulty())
+                    .setSeed(spec.seed)
+                    .setShouldTickTime(true)
+                    ;
+            configs.put(Identifier.of(spec.id), config);
+        }
+        Fantasy.get(MultiworldMod.mc).registerPersistentWorlds(configs);
+    }
+
+    @Override
+    public List<String> get_deletion_status() {
+        return Fantasy.get(MultiworldMod.mc).getDeletionStatus();
+    }
+
+    @Override
+    public void delete_temporary_world(ServerWorld world) {
+        RuntimeWorldHandle worldHandle = this.temporaryWorlds.remove(world);
+        if (null != worldHandle) {
+            worldHandle.delete();
+        }
+    }
     
     @Override
     public void set_difficulty(String id, Difficulty dif) {
@@ -71,6 +120,14 @@ public class NeoForgeWorldCreator implements ICreator {
         worldHandle.delete();
     }
 
+    @Override
+    public boolean unload_world(String id) {
+        Fantasy fantasy = Fantasy.get(MultiworldMod.mc);
+        RuntimeWorldHandle worldHandle = fantasy.getOrOpenPersistentWorld(Identifier.of(id), null);
+        worldHandle.unload();
+        return true;
+    }
+
 	@Override
 	public boolean is_the_end(ServerWorld world) {
 		return world.getDimensionEntry() == DimensionTypes.THE_END;
@@ -8,8 +8,6 @@ import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.neoforged.neoforge.common.NeoForge;
 import net.neoforged.neoforge.event.RegisterCommandsEvent;
 import net.neoforged.neoforge.event.server.*;
-import net.neoforged.neoforge.event.tick.ServerTickEvent;
-import me.isaiah.multiworld.MultiworldMod;
 
 //@Mod("fantasy")
 public final class FantasyInitializer {
@@ -51,14 +49,6 @@ public final class FantasyInitializer {
     	after_tick_start = true;
     }
     
-    @SubscribeEvent
-    public void handleTickEvent(ServerTickEvent.Pre event) {
-        // Removed duplicated ticking. MixinMinecraftServer already calls Fantasy.tick(),
-        // and the base server loop ticks all ServerWorld instances.
-        // Process pending world restores gradually to avoid heavy work in a single tick
-        MultiworldMod.processPendingRestores(1);
-    }
-    
     @SubscribeEvent
     public void handleServerStop(ServerStoppingEvent event) {
         Fantasy fantasy = Fantasy.get(event.getServer());
@@ -7,4 +7,9 @@ public interface FantasyWorldAccess {
     void fantasy$setTickWhenEmpty(boolean tickWhenEmpty);
 
     boolean fantasy$shouldTick();
+
+    // Multiworld: see RuntimeWorldDeletion
+    void fantasy$setDeleting(boolean deleting);
+
+    boolean fantasy$isDeleting();
 }
@@ -9,18 +9,21 @@ import java.util.function.BooleanSupplier;
 import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
+import me.isaiah.multiworld.world.ParallelTicks;
+import me.isaiah.multiworld.world.TickScheduler;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.world.ServerWorld;
 import net.minecraft.world.World;
 import xyz.nucleoid.fantasy.Fantasy;
 import xyz.nucleoid.fantasy.IMC;
-import xyz.nucleoid.fantasy.util.SafeIterator;
+import xyz.nucleoid.fantasy.util.SnapshotIterator;
 
 @Mixin(MinecraftServer.class)
 public class MixinMinecraftServer implements IMC {
@@ -30,6 +33,7 @@ public class MixinMinecraftServer implements IMC {
 	@Redirect(method = "createWorlds", at = @At(value = "INVOKE", target = "Ljava/util/Map;put(Ljava/lang/Object;Ljava/lang/Object;)Ljava/lang/Object;"))
 	private <K, V> V onLoadWorld(Map<K, V> worlds, K registryKey, V serverWorld) {
 		final V result = worlds.put(registryKey, serverWorld);
+		this.fantasy$worldsVersion++;
 		// ServerWorldEvents.LOAD.invoker().onWorldLoad((MinecraftServer) (Object) this, (ServerWorld) serverWorld);
 		
 		// System.out.println("LOADING WORLD!: " + registryKey);
@@ -39,7 +43,34 @@ public class MixinMinecraftServer implements IMC {
 	
 	@Redirect(method = "tickWorlds", at = @At(value = "INVOKE", target = "Ljava/lang/Iterable;iterator()Ljava/util/Iterator;", ordinal = 0), require = 0)
 	private Iterator<ServerWorld> fantasy$copyBeforeTicking(Iterable<ServerWorld> instance) {
-		return new SafeIterator<>((Collection<ServerWorld>) instance);
+		return this.fantasy$worldsSnapshot.iterate((Collection<ServerWorld>) instance, this.fantasy$worldsVersion);
+	}
+
+	// Multiworld: server tick length for the TickScheduler
+	@Inject(at = @At("HEAD"), method = "tick")
+	private void multiworld$startTick(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
+		TickScheduler.onServerTickStart();
+	}
+
+	@Inject(at = @At("RETURN"), method = "tick")
+	private void multiworld$endTick(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
+		TickScheduler.onServerTickEnd((MinecraftServer) (Object) this);
+	}
+
+	// Multiworld: parallel world ticking, see ParallelTicks
+	@Inject(at = @At("HEAD"), method = "tickWorlds")
+	private void multiworld$startTickWorlds(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
+		ParallelTicks.begin();
+	}
+
+	@Inject(at = @At(value = "INVOKE", target = "Lnet/minecraft/server/MinecraftServer;getNetworkIo()Lnet/minecraft/server/ServerNetworkIo;"), method = "tickWorlds", require = 0)
+	private void multiworld$afterWorlds(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
+		ParallelTicks.join((MinecraftServer) (Object) this);
+	}
+
+	@Inject(at = @At("RETURN"), method = "tickWorlds")
+	private void multiworld$endTickWorlds(BooleanSupplier shouldKeepTicking, CallbackInfo ci) {
+		ParallelTicks.join((MinecraftServer) (Object) this);
 	}
 
 	@Inject(at = @At(value = "INVOKE", target = "Lnet/minecraft/server/MinecraftServer;tickWorlds(Ljava/util/function/BooleanSupplier;)V"), method = "tick")
@@ -58,10 +89,26 @@ public class MixinMinecraftServer implements IMC {
 	@Shadow
     private Map<RegistryKey<World>, ServerWorld> worlds;
 
+	// Changes every time a world is added or removed, see SnapshotIterator
+	@Unique
+	private int fantasy$worldsVersion;
+
+	@Unique
+	private final SnapshotIterator<ServerWorld> fantasy$worldsSnapshot = new SnapshotIterator<>();
+
 	@Override
 	public void add_world(RegistryKey<World> key, ServerWorld value) {
-		// TODO Auto-generated method stub
 		worlds.put(key, value);
+		this.fantasy$worldsVersion++;
+	}
+
+	@Override
+	public boolean remove_world(RegistryKey<World> key, ServerWorld value) {
+		if (worlds.remove(key, value)) {
+			this.fantasy$worldsVersion++;
+			return true;
+		}
+		return false;
 	}
 
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package xyz.nucleoid.fantasy.mixin;
+
+import net.minecraft.server.world.ServerChunkLoadingManager;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.world.chunk.Chunk;
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+import xyz.nucleoid.fantasy.FantasyWorldAccess;
+
+@Mixin(ServerChunkLoadingManager.class)
+public class ServerChunkLoadingManagerMixin {
+    @Shadow
+    @Final
+    ServerWorld world;
+
+    // Multiworld: chunks of a world being deleted are unloaded without being saved, see RuntimeWorldDeletion
+    @Inject(method = "save(Lnet/minecraft/world/chunk/Chunk;)Z", at = @At("HEAD"), cancellable = true)
+    private void multiworld$save(Chunk chunk, CallbackInfoReturnable<Boolean> ci) {
+        if (((FantasyWorldAccess) this.world).fantasy$isDeleting()) {
+            ci.setReturnValue(false);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package xyz.nucleoid.fantasy.util;
+
+import org.apache.commons.io.FileUtils;
+import xyz.nucleoid.fantasy.Fantasy;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Deletes world directories without blocking the server thread.
+ *
+ * <p>The directory is first moved into the trash directory of the save
+ * ({@link #TRASH_DIR}). That is a rename on the same file system, so it takes
+ * the same time for a world of ten region files or ten thousand, and the
+ * world's name can be used again right away. The recursive delete then runs
+ * on a single background thread.
+ *
+ * <p>If the directory can not be moved to the trash it is renamed next to
+ * itself with {@link #SIBLING_SUFFIX}, so the name is still free right away.
+ *
+ * <p>Anything still waiting when the server stops or crashes is deleted
+ * by {@link #recover(File)} at the next start.
+ */
+public final class TombstoneDeleter {
+    public static final String TRASH_DIR = "fantasy_deleted";
+
+    /**
+     * Suffix of a directory renamed next to itself, when it could not be moved to the trash
+     */
+    public static final String SIBLING_SUFFIX = "~deleted_";
+
+    private static final AtomicInteger PENDING = new AtomicInteger();
+    private static final ExecutorService WORKER = Executors.newSingleThreadExecutor(r -> {
+        Thread thread = new Thread(r, "Fantasy-Delete");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private TombstoneDeleter() {
+    }
+
+    /**
+     * Move a world directory to the trash and delete it in the background
+     *
+     * @param trash the trash directory of the save, see {@link #TRASH_DIR}
+     */
+    public static void delete(File directory, File trash) {
+        if (!directory.exists()) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        File tombstone = new File(trash, directory.getParentFile().getName() + "_" + directory.getName() + "_" + now);
+        try {
+            trash.mkdirs();
+            Files.move(directory.toPath(), tombstone.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UnsupportedOperationException e) {
+            // Ex: the trash is on another drive. Still free the world's name, a world created
+            // again with it must not lose its files to the delete
+            File sibling = new File(directory.getParentFile(), directory.getName() + SIBLING_SUFFIX + now);
+            try {
+                Files.move(directory.toPath(), sibling.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                Fantasy.LOGGER.warn("Could not move world directory {} to the trash, deleting it as {}", directory, sibling, e);
+                tombstone = sibling;
+            } catch (IOException | UnsupportedOperationException e2) {
+                // Ex: a file still open on Windows. Deleted before returning, so a world
+                // created again with this name does not race the delete
+                Fantasy.LOGGER.warn("Could not move world directory {}, deleting it in place", directory, e2);
+                try {
+                    FileUtils.forceDelete(directory);
+                } catch (IOException e3) {
+                    Fantasy.LOGGER.warn("Failed to delete world directory {}", directory, e3);
+                }
+                return;
+            }
+        }
+        submit(tombstone);
+    }
+
+    /**
+     * Delete what a previous run left in the trash or renamed next to itself. Called on server start.
+     */
+    public static void recover(File trash) {
+        List<File> left = new ArrayList<>();
+        File[] trashed = trash.listFiles();
+        if (trashed != null) {
+            left.addAll(Arrays.asList(trashed));
+        }
+        // Renamed next to themselves, in "<save>/dimensions/<namespace>/"
+        File[] namespaces = new File(trash.getParentFile(), "dimensions").listFiles(File::isDirectory);
+        if (namespaces != null) {
+            for (File namespace : namespaces) {
+                File[] siblings = namespace.listFiles(f -> f.getName().contains(SIBLING_SUFFIX));
+                if (siblings != null) {
+                    left.addAll(Arrays.asList(siblings));
+                }
+            }
+        }
+        if (left.isEmpty()) {
+            return;
+        }
+        Fantasy.LOGGER.info("Deleting {} world director{} left from the last run", left.size(), left.size() == 1 ? "y" : "ies");
+        for (File tombstone : left) {
+            submit(tombstone);
+        }
+    }
+
+    /**
+     * @return the number of directories waiting to be deleted
+     */
+    public static int getPending() {
+        return PENDING.get();
+    }
+
+    private static void submit(File tombstone) {
+        PENDING.incrementAndGet();
+        WORKER.execute(() -> {
+            try {
+                FileUtils.forceDelete(tombstone);
+            } catch (IOException e) {
+                Fantasy.LOGGER.warn("Failed to delete world directory {}", tombstone, e);
+                try {
+                    FileUtils.forceDeleteOnExit(tombstone);
+                } catch (IOException ignored) {
+                }
+            } finally {
+                PENDING.decrementAndGet();
+            }
+        });
+    }
+}
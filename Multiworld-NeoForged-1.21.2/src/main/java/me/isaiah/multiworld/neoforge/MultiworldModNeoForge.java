@@ -8,6 +8,7 @@ import me.isaiah.multiworld.MultiworldMod;
 import me.isaiah.multiworld.command.PortalCommand;
 import me.isaiah.multiworld.portal.Portal;
 import me.isaiah.multiworld.portal.WandEventHandler;
+import me.isaiah.multiworld.world.ParallelTicks;
 import net.minecraft.entity.Entity;
 import net.minecraft.registry.RegistryKey;
 import net.minecraft.server.network.ServerPlayerEntity;
@@ -25,8 +26,11 @@ import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.neoforged.neoforge.common.NeoForge;
 import net.neoforged.neoforge.event.RegisterCommandsEvent;
 import net.neoforged.neoforge.event.entity.EntityTravelToDimensionEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
 import net.neoforged.neoforge.event.entity.player.PlayerInteractEvent;
 import net.neoforged.neoforge.event.server.ServerStartingEvent;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
 
 
 @Mod(MultiworldMod.MOD_ID)
@@ -51,6 +55,31 @@ public class MultiworldModNeoForge {
 		MultiworldMod.on_server_started(event.getServer());
 	}
 
+	@SubscribeEvent
+	public void onServerStopping(ServerStoppingEvent event) {
+		MultiworldMod.on_server_stopping(event.getServer());
+	}
+
+	@SubscribeEvent
+	public void onServerTickPre(ServerTickEvent.Pre event) {
+		MultiworldMod.on_server_tick_start(event.getServer());
+	}
+
+	@SubscribeEvent
+	public void onServerTickPost(ServerTickEvent.Post event) {
+		MultiworldMod.on_server_tick_end(event.getServer());
+	}
+
+	@SubscribeEvent
+	public void onPlayerLoggedIn(PlayerEvent.PlayerLoggedInEvent event) {
+		MultiworldMod.on_player_join(event.getEntity());
+	}
+
+	@SubscribeEvent
+	public void onPlayerLoggedOut(PlayerEvent.PlayerLoggedOutEvent event) {
+		MultiworldMod.on_player_leave(event.getEntity());
+	}
+
 	@SubscribeEvent
 	public void onCommandsRegister(RegisterCommandsEvent event) {
 		MultiworldMod.register_commands(event.getDispatcher());
@@ -100,20 +129,24 @@ public class MultiworldModNeoForge {
             if (isInside) {
                 I18n.message(player, I18n.TELEPORTING);
 
-                BlockPos dest = p.getDestLocation();
                 // RegistryKey<World> destWorldKey = p.getDestWorld().getRegistryKey();
                 // double distSq = player.getPos().squaredDistanceTo(Vec3d.ofCenter(dest));
                 // boolean isAlreadyThere = player.getWorld().getRegistryKey().equals(destWorldKey) && (distSq < 1.0 || currentPos.equals(dest));
 
                 event.setCanceled(true);
 
-                teleleport(
-                    player,
-                    p.getDestWorld(),
-                    dest.getX(),
-                    dest.getY(),
-                    dest.getZ()
-                );
+                // Cross-world, so on the server thread when this world is ticked in parallel.
+                // Finding the destination can load or restore the destination world.
+                ParallelTicks.runOnMain(() -> {
+                    BlockPos dest = p.getDestLocation();
+                    teleleport(
+                        player,
+                        p.getDestWorld(),
+                        dest.getX(),
+                        dest.getY(),
+                        dest.getZ()
+                    );
+                });
 
                 // event.setCanceled(true); // Prevent vanilla teleport
                 return;
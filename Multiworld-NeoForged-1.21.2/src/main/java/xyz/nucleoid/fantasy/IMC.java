@@ -7,5 +7,10 @@ import net.minecraft.world.World;
 public interface IMC {
 
 	public void add_world(RegistryKey<World> key, ServerWorld value);
+
+	/**
+	 * @return true if the world was removed
+	 */
+	public boolean remove_world(RegistryKey<World> key, ServerWorld value);
 	
 }
@@ -0,0 +1,136 @@
+package xyz.nucleoid.fantasy;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Multiworld: deletes a world over several ticks. Waiting for its chunks to unload on their
+ * own never ends for a world with forced chunks or tickets, or one that is not ticked.
+ *
+ * <ol>
+ * <li>{@link Stage#EVACUATE}: players are sent to the overworld spawn</li>
+ * <li>{@link Stage#DROP_TICKETS}: the tickets of forced chunks are released a few per tick, then all other
+ * tickets are removed. The chunks stay forced in the saved state.</li>
+ * <li>{@link Stage#UNLOAD_CHUNKS}: chunks are unloaded in the time left of the tick, without being saved</li>
+ * <li>{@link Stage#CLOSE}: the world is removed and its storage closed, see {@link RuntimeWorldManager#delete}</li>
+ * </ol>
+ *
+ * The world is not ticked or saved while it is being deleted.
+ */
+final class RuntimeWorldDeletion {
+    private static final int FORCED_CHUNKS_PER_TICK = 32;
+
+    /**
+     * Close the world anyway if its chunks are still loaded after this long, ex: held by another mod
+     */
+    private static final int UNLOAD_TIMEOUT_TICKS = 20 * 60;
+
+    enum Stage {
+        EVACUATE,
+        DROP_TICKETS,
+        UNLOAD_CHUNKS,
+        CLOSE
+    }
+
+    final ServerWorld world;
+    private final Fantasy fantasy;
+    private final boolean savingDisabled;
+    private final long startedAt = System.nanoTime();
+
+    private Stage stage = Stage.EVACUATE;
+    private LongIterator forcedChunks;
+    private int chunks;
+    private int unloadTicks;
+
+    RuntimeWorldDeletion(Fantasy fantasy, ServerWorld world) {
+        this.fantasy = fantasy;
+        this.world = world;
+        this.savingDisabled = world.savingDisabled;
+        world.savingDisabled = true;
+        ((FantasyWorldAccess) world).fantasy$setDeleting(true);
+    }
+
+    /**
+     * @param deadline the {@link System#nanoTime()} by which this tick's unloading should stop
+     * @return true once the world can be removed
+     */
+    boolean tick(long deadline) {
+        switch (this.stage) {
+            case EVACUATE:
+                this.fantasy.kickPlayers(this.world);
+                this.chunks = this.world.getChunkManager().getLoadedChunkCount();
+                this.forcedChunks = new LongArrayList(this.world.getForcedChunks()).iterator();
+                this.stage = Stage.DROP_TICKETS;
+                return false;
+            case DROP_TICKETS:
+                this.fantasy.kickPlayers(this.world);
+                for (int i = 0; i < FORCED_CHUNKS_PER_TICK && this.forcedChunks.hasNext(); i++) {
+                    // Only the ticket, the chunk stays forced in the saved state in case the deletion is cancelled
+                    this.world.getChunkManager().setChunkForced(new ChunkPos(this.forcedChunks.nextLong()), false);
+                }
+                if (!this.forcedChunks.hasNext()) {
+                    this.world.getChunkManager().removePersistentTickets();
+                    this.stage = Stage.UNLOAD_CHUNKS;
+                }
+                this.unloadChunks(deadline);
+                return false;
+            case UNLOAD_CHUNKS:
+                this.fantasy.kickPlayers(this.world);
+                if (this.unloadChunks(deadline)) {
+                    this.stage = Stage.CLOSE;
+                } else if (++this.unloadTicks >= UNLOAD_TIMEOUT_TICKS) {
+                    Fantasy.LOGGER.warn("{} chunks of {} are still loaded, deleting it anyway",
+                            this.world.getChunkManager().getLoadedChunkCount(), this.world.getRegistryKey().getValue());
+                    this.stage = Stage.CLOSE;
+                }
+                return this.stage == Stage.CLOSE;
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * @return true once no chunks are loaded
+     */
+    private boolean unloadChunks(long deadline) {
+        // Vanilla unloads chunks from the chunk manager's tick, which is skipped with the world's tick
+        this.world.getChunkManager().tick(() -> System.nanoTime() < deadline, false);
+        return this.world.getPlayers().isEmpty() && this.world.getChunkManager().getLoadedChunkCount() <= 0;
+    }
+
+    /**
+     * The world was opened again before it was removed, its forced chunks are forced again.
+     * Chunks unloaded since the deletion started were not saved.
+     */
+    void cancel() {
+        ((FantasyWorldAccess) this.world).fantasy$setDeleting(false);
+        this.world.savingDisabled = this.savingDisabled;
+        if (this.stage != Stage.EVACUATE) {
+            LongIterator it = this.world.getForcedChunks().iterator();
+            while (it.hasNext()) {
+                this.world.getChunkManager().setChunkForced(new ChunkPos(it.nextLong()), true);
+            }
+            Fantasy.LOGGER.warn("{} was opened again while being deleted, chunks unloaded since were not saved",
+                    this.world.getRegistryKey().getValue());
+        }
+    }
+
+    String describe() {
+        long secs = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - this.startedAt);
+        String id = this.world.getRegistryKey().getValue().toString();
+        switch (this.stage) {
+            case EVACUATE:
+                return id + ": moving players out (" + secs + "s)";
+            case DROP_TICKETS:
+                return id + ": releasing forced chunks (" + secs + "s)";
+            default:
+                int loaded = this.world.getChunkManager().getLoadedChunkCount();
+                int unloaded = Math.max(0, this.chunks - loaded);
+                return id + ": unloaded " + unloaded + "/" + Math.max(this.chunks, unloaded + loaded) + " chunks (" + secs + "s)";
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package xyz.nucleoid.fantasy;
+
+import it.unimi.dsi.fastutil.longs.LongIterator;
+import net.minecraft.server.world.ServerWorld;
+import net.minecraft.util.math.ChunkPos;
+
+/**
+ * Multiworld: unloads a persistent world, keeping its files. Like {@link RuntimeWorldDeletion}
+ * the chunks of the world are released instead of waiting for them to unload on their own,
+ * but they are saved as they unload.
+ *
+ * <p>Forced chunks stay forced in the saved world, only their tickets are removed.
+ * They are loaded again with the world.
+ */
+final class RuntimeWorldUnloading {
+    /**
+     * Unload the world anyway if its chunks are still loaded after this long, ex: held by another mod.
+     * The chunks still loaded are saved when the world is closed.
+     */
+    private static final int UNLOAD_TIMEOUT_TICKS = 20 * 60;
+
+    final ServerWorld world;
+    private final Fantasy fantasy;
+
+    private boolean ticketsRemoved;
+    private int unloadTicks;
+
+    RuntimeWorldUnloading(Fantasy fantasy, ServerWorld world) {
+        this.fantasy = fantasy;
+        this.world = world;
+    }
+
+    /**
+     * @param deadline the {@link System#nanoTime()} by which this tick's unloading should stop
+     * @return true once the world can be removed
+     */
+    boolean tick(long deadline) {
+        this.fantasy.kickPlayers(this.world);
+        if (!this.ticketsRemoved) {
+            this.world.getChunkManager().removePersistentTickets();
+            this.ticketsRemoved = true;
+        }
+
+        // The world may not be ticked, ex: hibernating
+        this.world.getChunkManager().tick(() -> System.nanoTime() < deadline, false);
+        if (this.world.getPlayers().isEmpty() && this.world.getChunkManager().getLoadedChunkCount() <= 0) {
+            return true;
+        }
+        if (++this.unloadTicks >= UNLOAD_TIMEOUT_TICKS) {
+            Fantasy.LOGGER.warn("{} chunks of {} are still loaded, unloading it anyway",
+                    this.world.getChunkManager().getLoadedChunkCount(), this.world.getRegistryKey().getValue());
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * The world was opened again before it was removed, force its chunks again
+     */
+    void cancel() {
+        if (!this.ticketsRemoved) {
+            return;
+        }
+        LongIterator it = this.world.getForcedChunks().iterator();
+        while (it.hasNext()) {
+            this.world.getChunkManager().setChunkForced(new ChunkPos(it.nextLong()), true);
+        }
+    }
+}
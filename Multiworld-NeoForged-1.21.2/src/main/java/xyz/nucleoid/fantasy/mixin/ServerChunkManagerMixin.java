@@ -1,5 +1,6 @@
 package xyz.nucleoid.fantasy.mixin;
 
+import me.isaiah.multiworld.world.ParallelTicks;
 import net.minecraft.server.world.ServerChunkManager;
 import net.minecraft.server.world.ServerWorld;
 import org.spongepowered.asm.mixin.Final;
@@ -7,15 +8,34 @@ import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.Redirect;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 import xyz.nucleoid.fantasy.FantasyWorldAccess;
 
+import java.util.concurrent.CompletableFuture;
+
 @Mixin(ServerChunkManager.class)
 public class ServerChunkManagerMixin {
     @Shadow
     @Final
     public ServerWorld world;
 
+    @Shadow
+    @Final
+    Thread serverThread;
+
+    // Multiworld: the pool thread ticking a world loads its chunks like the server thread, see ParallelTicks
+    @Redirect(method = {"getChunk", "getWorldChunk"}, at = @At(value = "INVOKE", target = "Ljava/lang/Thread;currentThread()Ljava/lang/Thread;"))
+    private Thread multiworld$currentThread() {
+        return ParallelTicks.isTicking(this.world) ? this.serverThread : Thread.currentThread();
+    }
+
+    // Multiworld: wait for chunks of other worlds without blocking them, see ParallelTicks#await
+    @Redirect(method = "getChunk", at = @At(value = "INVOKE", target = "Ljava/util/concurrent/CompletableFuture;join()Ljava/lang/Object;"))
+    private Object multiworld$join(CompletableFuture<?> future) {
+        return ParallelTicks.await(future);
+    }
+
     @Inject(method = "executeQueuedTasks", at = @At("HEAD"), cancellable = true)
     private void executeQueuedTasks(CallbackInfoReturnable<Boolean> ci) {
         if (!((FantasyWorldAccess) this.world).fantasy$shouldTick()) {
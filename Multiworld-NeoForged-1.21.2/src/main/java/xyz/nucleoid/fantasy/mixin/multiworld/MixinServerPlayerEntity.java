@@ -11,6 +11,7 @@ import me.isaiah.multiworld.MultiworldMod;
 import me.isaiah.multiworld.command.PortalCommand;
 import me.isaiah.multiworld.neoforge.MultiworldModNeoForge;
 import me.isaiah.multiworld.portal.Portal;
+import me.isaiah.multiworld.world.ParallelTicks;
 import net.minecraft.block.BlockState;
 import net.minecraft.block.NetherPortalBlock;
 import net.minecraft.entity.Entity;
@@ -24,6 +25,25 @@ import net.neoforged.neoforge.event.entity.EntityTravelToDimensionEvent;
 @Mixin(ServerPlayerEntity.class)
 public class MixinServerPlayerEntity {
 
+    /**
+     * Players of a world ticked in parallel are teleported on the server thread, ex: when
+     * their ender pearl takes them to another world. Before the event below, so it is only fired once.
+     * See {@link MixinEntity}
+     */
+    @Inject(
+        method = "Lnet/minecraft/server/network/ServerPlayerEntity;teleportTo(Lnet/minecraft/world/TeleportTarget;)Lnet/minecraft/server/network/ServerPlayerEntity;",
+        at = @At("HEAD"),
+        cancellable = true
+    )
+    private void multiworld$teleportTo(TeleportTarget target, CallbackInfoReturnable<ServerPlayerEntity> ci) {
+        ServerPlayerEntity player = (ServerPlayerEntity) (Object) this;
+        // Same world teleports are safe here, and callers like ender pearls need the entity back
+        if (ParallelTicks.isWorkerThread() && target.world() != player.getWorld()) {
+            ParallelTicks.runOnMain(() -> player.teleportTo(target));
+            ci.setReturnValue(null);
+        }
+    }
+
     @Inject(
         method = "Lnet/minecraft/server/network/ServerPlayerEntity;teleportTo(Lnet/minecraft/world/TeleportTarget;)Lnet/minecraft/server/network/ServerPlayerEntity;",
         at = @At("HEAD"),
@@ -0,0 +1,56 @@
+package xyz.nucleoid.fantasy.util;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates a copy-on-write array of a collection, without allocating per loop.
+ *
+ * <p>The array is only rebuilt when the version passed to {@link #iterate}
+ * changes (or the size of the collection, for changes made behind our back).
+ * A loop walks the array that was current when it started, so worlds added
+ * or removed while ticking are seen on the next loop, like a copy would.
+ *
+ * <p>The iterator is reused by every loop, so loops must not be nested.
+ */
+@ApiStatus.Internal
+public final class SnapshotIterator<T> implements Iterator<T> {
+    private static final Object[] EMPTY = new Object[0];
+
+    private Object[] snapshot = EMPTY;
+    private int version = -1;
+    private Object[] values = EMPTY;
+    private int index = 0;
+
+    /**
+     * Start a new loop over the source
+     *
+     * @param sourceVersion - changes every time the source changes
+     */
+    public Iterator<T> iterate(Collection<T> source, int sourceVersion) {
+        if (sourceVersion != this.version || source.size() != this.snapshot.length) {
+            this.snapshot = source.toArray();
+            this.version = sourceVersion;
+        }
+        this.values = this.snapshot;
+        this.index = 0;
+        return this;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return this.values.length > this.index;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T next() {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return (T) this.values[this.index++];
+    }
+}